@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Compares time to first served request for the application images.
+# Usage: ./startup-benchmark.sh <image> [<image> ...]
+#   e.g. ./startup-benchmark.sh task-system:jvm task-system:cds task-system:native
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+NETWORK=startup-benchmark
+DB=startup-benchmark-db
+
+docker network create "$NETWORK" >/dev/null 2>&1 || true
+docker run -d --rm --name "$DB" --network "$NETWORK" \
+    -e POSTGRES_USER=compose-postgres -e POSTGRES_PASSWORD=compose-postgres \
+    postgres:13.1-alpine >/dev/null
+trap 'docker rm -f "$DB" >/dev/null 2>&1 || true; docker network rm "$NETWORK" >/dev/null 2>&1 || true' EXIT
+until docker exec "$DB" pg_isready -U compose-postgres >/dev/null 2>&1; do sleep 0.5; done
+
+for image in "$@"; do
+    total=0
+    for run in $(seq "$RUNS"); do
+        start=$(date +%s%N)
+        docker run -d --rm --name startup-benchmark-app --network "$NETWORK" -p 8080:8080 \
+            -e SPRING_DATASOURCE_URL=jdbc:postgresql://$DB:5432/compose-postgres \
+            -e SPRING_DATASOURCE_USERNAME=compose-postgres \
+            -e SPRING_DATASOURCE_PASSWORD=compose-postgres \
+            "$image" >/dev/null
+        until curl -sf -o /dev/null http://localhost:8080/v3/api-docs; do sleep 0.05; done
+        elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+        docker rm -f startup-benchmark-app >/dev/null
+        echo "$image run $run: ${elapsed} ms"
+        total=$((total + elapsed))
+    done
+    echo "$image average: $((total / RUNS)) ms"
+done
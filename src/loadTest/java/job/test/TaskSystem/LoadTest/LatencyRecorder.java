@@ -0,0 +1,90 @@
+package job.test.TaskSystem.LoadTest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Накопитель задержек по эндпоинтам.
+ * Хранит все замеры, поэтому перцентили в отчёте точные, а не приближённые.
+ */
+public class LatencyRecorder {
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    /**
+     * Записывает результат одного запроса.
+     *
+     * @param endpoint Имя эндпоинта.
+     * @param nanos    Задержка в наносекундах.
+     * @param success  {@code true}, если запрос завершился успешно.
+     */
+    public void record(String endpoint, long nanos, boolean success) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, success);
+    }
+
+    /**
+     * Сбрасывает накопленные замеры, например после прогрева.
+     */
+    public void reset() {
+        samples.clear();
+    }
+
+    /**
+     * Печатает пропускную способность и перцентили задержек по каждому эндпоинту.
+     *
+     * @param out     Поток для вывода.
+     * @param elapsed Длительность измерения.
+     */
+    public void report(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%-16s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+        long totalRequests = 0;
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(samples).entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            long errors = entry.getValue().errors();
+            totalRequests += sorted.length;
+            out.printf("%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    entry.getKey(),
+                    sorted.length,
+                    errors,
+                    sorted.length / seconds,
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.99),
+                    percentile(sorted, 0.999));
+        }
+        out.printf("%-16s %10d %8s %10.1f%n", "total", totalRequests, "", totalRequests / seconds);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!success) errors++;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package job.test.TaskSystem.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP клиент нагрузочного теста.
+ * Обращается к эндпоинтам {@code AuthController}, {@code TaskController} и {@code TeamController}
+ * и записывает задержку каждого запроса.
+ */
+public class LoadTestClient {
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    public LoadTestClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    public String signUp(String email, String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", email, "username", username, "password", password));
+        return send("signUp", jsonRequest("/auth", null).POST(HttpRequest.BodyPublishers.ofString(body)))
+                .path("token").asText();
+    }
+
+    public String signIn(String email, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", email, "password", password));
+        return send("signIn", jsonRequest("/auth", null).method("GET", HttpRequest.BodyPublishers.ofString(body)))
+                .path("token").asText();
+    }
+
+    public Long addTask(String token, String title, String priority) throws IOException, InterruptedException {
+        String path = "/task" + query(Map.of("title", title, "comment", "load test", "priority", priority));
+        JsonNode task = send("addTask", jsonRequest(path, token).POST(HttpRequest.BodyPublishers.noBody()));
+        return task.hasNonNull("id") ? task.get("id").asLong() : null;
+    }
+
+    public void editTask(String token, long taskId, String title) throws IOException, InterruptedException {
+        String path = "/task" + query(Map.of("taskID", String.valueOf(taskId), "title", title, "comment", "edited"));
+        send("editTask", jsonRequest(path, token).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public void changeStatus(String token, long taskId, String status) throws IOException, InterruptedException {
+        String path = "/task/status" + query(Map.of("taskID", String.valueOf(taskId), "status", status));
+        send("changeStatus", jsonRequest(path, token).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public void addWorker(String token, long taskId, String email) throws IOException, InterruptedException {
+        String path = "/task/worker" + query(Map.of("taskID", String.valueOf(taskId), "email", email));
+        send("addWorker", jsonRequest(path, token).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public void removeWorker(String token, long taskId, String email) throws IOException, InterruptedException {
+        String path = "/task/worker" + query(Map.of("taskID", String.valueOf(taskId), "email", email));
+        send("removeWorker", jsonRequest(path, token).DELETE());
+    }
+
+    public Long createTeam(String token, String name) throws IOException, InterruptedException {
+        JsonNode team = send("createTeam", jsonRequest("/team" + query(Map.of("name", name)), token)
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        return team.hasNonNull("id") ? team.get("id").asLong() : null;
+    }
+
+    public void addTeamMember(String token, long teamId, String email) throws IOException, InterruptedException {
+        String path = "/team/member" + query(Map.of("teamID", String.valueOf(teamId), "email", email));
+        send("addTeamMember", jsonRequest(path, token).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public void changeTeam(String token, long taskId, long teamId) throws IOException, InterruptedException {
+        String path = "/task/team" + query(Map.of("taskID", String.valueOf(taskId), "teamID", String.valueOf(teamId)));
+        send("changeTeam", jsonRequest(path, token).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public void list(String endpoint, String token, String path) throws IOException, InterruptedException {
+        send(endpoint, jsonRequest(path, token).GET());
+    }
+
+    private HttpRequest.Builder jsonRequest(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            success = response.statusCode() < 400;
+            if (!success || response.body().length == 0) {
+                return objectMapper.missingNode();
+            }
+            try {
+                return objectMapper.readTree(response.body());
+            } catch (IOException notJson) {
+                return objectMapper.missingNode();
+            }
+        } finally {
+            recorder.record(endpoint, System.nanoTime() - start, success);
+        }
+    }
+
+    static String query(Map<String, String> params) {
+        return params.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&", "?", ""));
+    }
+}
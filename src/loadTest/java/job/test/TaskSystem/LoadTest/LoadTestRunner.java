@@ -0,0 +1,213 @@
+package job.test.TaskSystem.LoadTest;
+
+import job.test.TaskSystem.TaskSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест приложения.
+ * Поднимает Postgres в Testcontainers и приложение на случайном порту (или использует {@code loadtest.base-url}),
+ * через API создаёт пользователей и задачи, после прогрева проигрывает смесь операций
+ * и печатает пропускную способность, перцентили задержек по эндпоинтам и пиковое потребление ресурсов.
+ * Все пользователи состоят в одной команде, поэтому выборки чужих задач возвращают данные.
+ * <p>
+ * Параметры задаются системными свойствами:
+ * {@code loadtest.users}, {@code loadtest.tasks}, {@code loadtest.threads}, {@code loadtest.warmup},
+ * {@code loadtest.duration}, {@code loadtest.mix}, {@code loadtest.base-url}.
+ * {@code loadtest.read-base-url} направляет выборки списков на другой сервер, например на реактивный модуль;
+ * {@code loadtest.jdbc-url}, {@code loadtest.jdbc-user}, {@code loadtest.jdbc-password} и {@code loadtest.metrics-token}
+ * задают, откуда снимать соединения и метрики при нагрузке на уже запущенные серверы.
+ */
+public class LoadTestRunner {
+    private static final String PASSWORD = "password";
+    private static final String[] PRIORITIES = {"Low", "Medium", "High"};
+    private static final String[] STATUSES = {"Received", "In_progress", "Complete"};
+
+    private final LoadTestClient client;
+    private final LoadTestClient readClient;
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final AtomicLong titles = new AtomicLong();
+
+    private LoadTestRunner(LoadTestClient client, LoadTestClient readClient) {
+        this.client = client;
+        this.readClient = readClient;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int userCount = Integer.getInteger("loadtest.users", 50);
+        int taskCount = Integer.getInteger("loadtest.tasks", 2000);
+        int threads = Integer.getInteger("loadtest.threads", 32);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT1M"));
+        WorkloadMix mix = WorkloadMix.parse(System.getProperty("loadtest.mix"));
+        String baseUrl = System.getProperty("loadtest.base-url");
+        String readBaseUrl = System.getProperty("loadtest.read-base-url");
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+        String jdbcUser = System.getProperty("loadtest.jdbc-user");
+        String jdbcPassword = System.getProperty("loadtest.jdbc-password");
+
+        PostgreSQLContainer<?> postgres = null;
+        ConfigurableApplicationContext application = null;
+        try {
+            if (baseUrl == null) {
+                postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+                postgres.start();
+                application = new SpringApplicationBuilder(TaskSystemApplication.class)
+                        .properties(Map.of(
+                                "server.port", "0",
+                                "spring.datasource.url", postgres.getJdbcUrl(),
+                                "spring.datasource.username", postgres.getUsername(),
+                                "spring.datasource.password", postgres.getPassword(),
+                                "logging.level.root", "WARN"
+                        ))
+                        .run();
+                baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+                jdbcUrl = postgres.getJdbcUrl();
+                jdbcUser = postgres.getUsername();
+                jdbcPassword = postgres.getPassword();
+            }
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            LoadTestClient client = new LoadTestClient(baseUrl, recorder);
+            LoadTestClient readClient = readBaseUrl == null ? client : new LoadTestClient(readBaseUrl, recorder);
+            LoadTestRunner runner = new LoadTestRunner(client, readClient);
+
+            System.out.printf("Seeding %d users and %d tasks against %s%n", userCount, taskCount, baseUrl);
+            runner.seed(userCount, taskCount, threads);
+
+            System.out.printf("Mix: %s, reads served by %s%n", mix, readBaseUrl == null ? baseUrl : readBaseUrl);
+            runner.run(mix, threads, warmup);
+            recorder.reset();
+            List<String> servers = readBaseUrl == null ? List.of(baseUrl) : List.of(baseUrl, readBaseUrl);
+            try (ResourceSampler sampler = new ResourceSampler(jdbcUrl, jdbcUser, jdbcPassword, servers,
+                    System.getProperty("loadtest.metrics-token"))) {
+                sampler.start();
+                runner.run(mix, threads, duration);
+                recorder.report(System.out, duration);
+                sampler.report(System.out);
+            }
+        } finally {
+            if (application != null) application.close();
+            if (postgres != null) postgres.stop();
+        }
+    }
+
+    private void seed(int userCount, int taskCount, int threads) throws Exception {
+        for (int i = 0; i < userCount; i++) {
+            String email = "load-user-" + i + "@example.com";
+            users.add(new VirtualUser(email, client.signUp(email, "load-user-" + i, PASSWORD)));
+        }
+
+        VirtualUser owner = users.get(0);
+        Long teamId = client.createTeam(owner.token, "load-team-" + System.currentTimeMillis());
+        if (teamId != null) {
+            for (VirtualUser user : users.subList(1, users.size())) {
+                client.addTeamMember(owner.token, teamId, user.email);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < taskCount; i++) {
+                VirtualUser user = users.get(i % users.size());
+                String priority = PRIORITIES[i % PRIORITIES.length];
+                futures.add(executor.submit(() -> {
+                    Long id = client.addTask(user.token, nextTitle(), priority);
+                    if (id != null) {
+                        user.taskIds.add(id);
+                        if (teamId != null) client.changeTeam(user.token, id, teamId);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void run(WorkloadMix mix, int threads, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        execute(mix.next());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception ignored) {
+                        // Ошибка уже учтена в LatencyRecorder, нагрузка продолжается.
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private void execute(WorkloadMix.Operation operation) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        VirtualUser user = users.get(random.nextInt(users.size()));
+        VirtualUser other = users.get(random.nextInt(users.size()));
+        Long taskId = user.randomTask();
+
+        switch (operation) {
+            case SIGN_IN -> user.token = client.signIn(user.email, PASSWORD);
+            case LIST_AUTHOR -> readClient.list("listAuthor", user.token, "/task/" + other.email + "?size=20");
+            case LIST_WORKER -> readClient.list("listWorker", user.token, "/task/worker/" + other.email + "?size=20");
+            case LIST_STATUS -> readClient.list("listStatus", user.token,
+                    "/task/" + other.email + "/status?size=20&status=" + STATUSES[random.nextInt(STATUSES.length)]);
+            case LIST_PRIORITY -> readClient.list("listPriority", user.token,
+                    "/task/" + other.email + "/priority?size=20&priority=" + PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            case ADD_TASK -> {
+                Long id = client.addTask(user.token, nextTitle(), PRIORITIES[random.nextInt(PRIORITIES.length)]);
+                if (id != null) user.taskIds.add(id);
+            }
+            case EDIT_TASK -> {
+                if (taskId != null) client.editTask(user.token, taskId, nextTitle());
+            }
+            case CHANGE_STATUS -> {
+                if (taskId != null) client.changeStatus(user.token, taskId, STATUSES[random.nextInt(STATUSES.length)]);
+            }
+            case ADD_WORKER -> {
+                if (taskId != null) client.addWorker(user.token, taskId, other.email);
+            }
+            case REMOVE_WORKER -> {
+                if (taskId != null) client.removeWorker(user.token, taskId, other.email);
+            }
+        }
+    }
+
+    private String nextTitle() {
+        return "load-task-" + titles.incrementAndGet();
+    }
+
+    private static class VirtualUser {
+        final String email;
+        final List<Long> taskIds = new CopyOnWriteArrayList<>();
+        volatile String token;
+
+        VirtualUser(String email, String token) {
+            this.email = email;
+            this.token = token;
+        }
+
+        Long randomTask() {
+            int size = taskIds.size();
+            return size == 0 ? null : taskIds.get(ThreadLocalRandom.current().nextInt(size));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package job.test.TaskSystem.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Раз в секунду снимает потребление ресурсов во время нагрузки и печатает пиковые значения:
+ * число соединений Postgres по {@code application_name} и, если сервер отдаёт actuator,
+ * занятую кучу и число потоков каждого сервера. Позволяет сравнить блокирующий и реактивный путь чтения
+ * при одинаковой конкурентности.
+ */
+public class ResourceSampler implements AutoCloseable {
+    private static final String CONNECTIONS = "SELECT coalesce(nullif(application_name, ''), 'unknown'), count(*), " +
+            "count(*) FILTER (WHERE state = 'active') FROM pg_stat_activity WHERE datname = current_database() " +
+            "AND pid <> pg_backend_pid() GROUP BY 1";
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, Long> peaks = new ConcurrentHashMap<>();
+    private final Connection connection;
+    private final List<String> serverUrls;
+    private final String metricsToken;
+
+    /**
+     * @param jdbcUrl      JDBC адрес базы или {@code null}, чтобы не считать соединения.
+     * @param username     Пользователь базы.
+     * @param password     Пароль пользователя базы.
+     * @param serverUrls   Адреса серверов, чьи метрики снимаются через actuator.
+     * @param metricsToken JWT токен администратора для actuator основного приложения или {@code null}.
+     */
+    public ResourceSampler(String jdbcUrl, String username, String password, List<String> serverUrls, String metricsToken)
+            throws SQLException {
+        this.connection = jdbcUrl == null ? null : DriverManager.getConnection(jdbcUrl, username, password);
+        this.serverUrls = serverUrls;
+        this.metricsToken = metricsToken;
+    }
+
+    /**
+     * Сбрасывает пики и начинает снимать значения.
+     */
+    public void start() {
+        peaks.clear();
+        scheduler.scheduleWithFixedDelay(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Печатает пиковые значения за время замера.
+     *
+     * @param out Поток для вывода.
+     */
+    public void report(PrintStream out) {
+        out.printf("%-48s %12s%n", "resource", "peak");
+        new TreeMap<>(peaks).forEach((name, value) -> out.printf("%-48s %12d%n", name, value));
+    }
+
+    @Override
+    public void close() throws SQLException {
+        scheduler.shutdownNow();
+        if (connection != null) connection.close();
+    }
+
+    private void sample() {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery(CONNECTIONS)) {
+                while (rows.next()) {
+                    peak("db connections " + rows.getString(1), rows.getLong(2));
+                    peak("db active connections " + rows.getString(1), rows.getLong(3));
+                }
+            } catch (SQLException ignored) {
+                // Пропущенный замер не влияет на нагрузку.
+            }
+        }
+        for (String url : serverUrls) {
+            metric(url, "jvm.memory.used?tag=area:heap", "heap MB", 1024 * 1024);
+            metric(url, "jvm.threads.live", "threads", 1);
+        }
+    }
+
+    private void metric(String url, String metric, String label, long divisor) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url + "/actuator/metrics/" + metric))
+                .timeout(Duration.ofSeconds(2));
+        if (metricsToken != null) request.header("Authorization", "Bearer " + metricsToken);
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) return;
+            JsonNode value = objectMapper.readTree(response.body()).path("measurements").path(0).path("value");
+            if (value.isNumber()) peak(url + " " + label, value.asLong() / divisor);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void peak(String name, long value) {
+        peaks.merge(name, value, Math::max);
+    }
+}
@@ -0,0 +1,89 @@
+package job.test.TaskSystem.LoadTest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Взвешенная смесь операций нагрузочного теста.
+ * Задаётся строкой вида {@code LIST_AUTHOR=30,ADD_TASK=5}, не перечисленные операции получают вес по умолчанию.
+ */
+public class WorkloadMix {
+    public enum Operation {
+        SIGN_IN(5),
+        LIST_AUTHOR(25),
+        LIST_WORKER(15),
+        LIST_STATUS(10),
+        LIST_PRIORITY(10),
+        ADD_TASK(8),
+        EDIT_TASK(8),
+        CHANGE_STATUS(11),
+        ADD_WORKER(4),
+        REMOVE_WORKER(4);
+
+        private final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private WorkloadMix(Map<Operation, Integer> weights) {
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Workload mix must contain at least one operation with positive weight");
+        }
+    }
+
+    /**
+     * Разбирает смесь операций из строки.
+     *
+     * @param spec Строка вида {@code OPERATION=weight,...} или {@code null} для смеси по умолчанию.
+     * @return Смесь операций.
+     */
+    public static WorkloadMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.defaultWeight);
+        }
+        if (spec != null && !spec.isBlank()) {
+            for (String part : spec.split(",")) {
+                String[] pair = part.trim().split("=");
+                weights.put(Operation.valueOf(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+            }
+        }
+        return new WorkloadMix(weights);
+    }
+
+    /**
+     * @return Случайная операция в соответствии с весами.
+     */
+    public Operation next() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) builder.append(',');
+            builder.append(operations[i]).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package job.test.TaskSystem.Configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import job.test.TaskSystem.Configuration.ConcurrencyLimits.Group;
+import job.test.TaskSystem.Util.AdaptiveConcurrencyLimiter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Фильтр адаптивного ограничения одновременных запросов.
+ * Стоит первым в цепочке, до Spring Security и {@link JwtFilter}, поэтому при замедлении базы лишние запросы
+ * получают 503 сразу, а не копятся в очереди за соединениями Hikari. Время запроса включает работу
+ * контроллеров и {@code TaskService}, по нему {@link AdaptiveConcurrencyLimiter} подстраивает лимит.
+ * Лимиты групп общие с gRPC и хранятся в {@link ConcurrencyLimits}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final Pattern ATTACHMENTS = Pattern.compile("/task/[^/]+/attachments(/.*)?");
+
+    private final ConcurrencyLimits limits;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimits limits) {
+        this.limits = limits;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = path(request);
+        // Время передачи вложений зависит от размера файла и канала клиента, а не от базы, и исказило бы замеры
+        return !limits.isEnabled() || path.startsWith("/actuator") || ATTACHMENTS.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Group group = group(request);
+        if (!limits.tryAcquire(group)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is overloaded, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limits.release(group, System.nanoTime() - start);
+        }
+    }
+
+    static Group group(HttpServletRequest request) {
+        String path = path(request);
+        if (path.equals("/auth") || path.startsWith("/auth/")) return Group.AUTH;
+        // Схема GraphQL содержит только запросы на чтение, хотя они приходят методом POST
+        if (path.equals("/graphql")) return Group.READ;
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> Group.READ;
+            default -> Group.WRITE;
+        };
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,114 @@
+package job.test.TaskSystem.Configuration;
+
+import io.grpc.*;
+import job.test.TaskSystem.Configuration.ConcurrencyLimits.Group;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Перехватчик gRPC вызовов с теми же адаптивными лимитами, что и {@link ConcurrencyLimitFilter}.
+ * Стоит перед {@link JwtServerInterceptor}, поэтому лишние вызовы отклоняются со статусом {@code UNAVAILABLE}
+ * до проверки токена; клиент gRPC может повторить такой вызов по своей политике повторов.
+ * Вызовы {@code List*} занимают лимит чтений, остальные — лимит изменений.
+ * Место держится до завершения вызова, а задержкой для лимита служит только время в обработчике:
+ * потоковая выдача списков читает страницы в {@code onReady}, пока клиент принимает сообщения, и ожидание
+ * медленного клиента не должно снижать лимит. Вызовы с потоком от клиента не ограничиваются:
+ * их длительность задаёт клиент, а не база.
+ */
+@GrpcGlobalServerInterceptor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ConcurrencyLimitServerInterceptor implements ServerInterceptor {
+    private final ConcurrencyLimits limits;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        if (!limits.isEnabled() || !method.getType().clientSendsOneMessage()) {
+            return next.startCall(call, headers);
+        }
+
+        Group group = group(method);
+        if (!limits.tryAcquire(group)) {
+            call.close(Status.UNAVAILABLE.withDescription("Server is overloaded, retry later"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(call, headers);
+        } catch (RuntimeException e) {
+            limits.release(group, 0);
+            throw e;
+        }
+        return new LimitedListener<>(listener, group);
+    }
+
+    /**
+     * Держит место до завершения вызова и считает время, проведённое в обработчике.
+     */
+    private class LimitedListener<ReqT> extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+        private final Group group;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final AtomicLong busyNanos = new AtomicLong();
+
+        LimitedListener(ServerCall.Listener<ReqT> delegate, Group group) {
+            super(delegate);
+            this.group = group;
+        }
+
+        @Override
+        public void onHalfClose() {
+            timed(super::onHalfClose);
+        }
+
+        @Override
+        public void onReady() {
+            timed(super::onReady);
+        }
+
+        @Override
+        public void onCancel() {
+            try {
+                super.onCancel();
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                super.onComplete();
+            } finally {
+                release();
+            }
+        }
+
+        private void timed(Runnable callback) {
+            long start = System.nanoTime();
+            try {
+                callback.run();
+            } finally {
+                busyNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) limits.release(group, busyNanos.get());
+        }
+    }
+
+    static Group group(MethodDescriptor<?, ?> method) {
+        String name = method.getBareMethodName();
+        return name != null && name.startsWith("List") ? Group.READ : Group.WRITE;
+    }
+}
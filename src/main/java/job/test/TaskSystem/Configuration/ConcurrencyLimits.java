@@ -0,0 +1,107 @@
+package job.test.TaskSystem.Configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import job.test.TaskSystem.Util.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Адаптивные лимиты одновременных запросов, общие для HTTP ({@link ConcurrencyLimitFilter})
+ * и gRPC ({@link ConcurrencyLimitServerInterceptor}): чтение задач по gRPC занимает то же место в лимите чтений,
+ * что и по HTTP, поэтому перегрузку базы видят оба транспорта.
+ * Чтения, изменения и {@code /auth} ограничиваются раздельно: медленная регистрация с BCrypt
+ * не должна снижать лимит чтений. Лимиты, число выполняющихся и отклонённых запросов публикуются
+ * в метриках {@code http.server.concurrency.*} с тегом {@code group}.
+ */
+@Component
+public class ConcurrencyLimits {
+
+    /**
+     * Группа запросов с общим лимитом.
+     */
+    public enum Group {
+        READ, WRITE, AUTH
+    }
+
+    private final boolean enabled;
+    private final Map<Group, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Group.class);
+    private final Map<Group, Counter> rejected = new EnumMap<>(Group.class);
+
+    /**
+     * @param read  Начальный, минимальный и максимальный лимит чтений.
+     * @param write Начальный, минимальный и максимальный лимит изменений.
+     * @param auth  Начальный, минимальный и максимальный лимит запросов {@code /auth}.
+     */
+    public ConcurrencyLimits(MeterRegistry meterRegistry,
+                             @Value("${concurrency-limit.enabled}") boolean enabled,
+                             @Value("${concurrency-limit.read}") List<Integer> read,
+                             @Value("${concurrency-limit.write}") List<Integer> write,
+                             @Value("${concurrency-limit.auth}") List<Integer> auth,
+                             @Value("${concurrency-limit.tolerance}") double tolerance,
+                             @Value("${concurrency-limit.smoothing}") double smoothing,
+                             @Value("${concurrency-limit.window-samples}") int windowSamples,
+                             @Value("${concurrency-limit.long-windows}") int longWindows) {
+        this.enabled = enabled;
+        Map<Group, List<Integer>> limits = Map.of(Group.READ, read, Group.WRITE, write, Group.AUTH, auth);
+        for (Group group : Group.values()) {
+            List<Integer> limit = limits.get(group);
+            if (limit.size() != 3) {
+                throw new IllegalArgumentException("concurrency-limit." + group.name().toLowerCase(Locale.ROOT) +
+                        " must be initial,min,max");
+            }
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    limit.get(0), limit.get(1), limit.get(2), tolerance, smoothing, windowSamples, longWindows);
+            limiters.put(group, limiter);
+
+            String tag = group.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("group", tag)
+                    .description("Current adaptive concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder("http.server.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", tag)
+                    .description("Requests currently holding a concurrency permit")
+                    .register(meterRegistry);
+            rejected.put(group, Counter.builder("http.server.concurrency.rejected")
+                    .tag("group", tag)
+                    .description("Requests rejected by the concurrency limit")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return {@code true}, если ограничение включено.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Занимает место под запрос группы, а при отказе учитывает его в метрике отклонённых.
+     *
+     * @param group Группа запроса.
+     * @return {@code true}, если запрос укладывается в лимит и его нужно завершить вызовом {@link #release}.
+     */
+    public boolean tryAcquire(Group group) {
+        if (limiters.get(group).tryAcquire()) return true;
+        rejected.get(group).increment();
+        return false;
+    }
+
+    /**
+     * Освобождает место запроса и учитывает его задержку.
+     *
+     * @param group    Группа запроса.
+     * @param rttNanos Время выполнения запроса в наносекундах.
+     */
+    public void release(Group group, long rttNanos) {
+        limiters.get(group).release(rttNanos);
+    }
+}
@@ -0,0 +1,31 @@
+package job.test.TaskSystem.Configuration;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Ограничения GraphQL запросов.
+ * Запросы глубже {@code task.graphql.max-depth} или сложнее {@code task.graphql.max-complexity} отклоняются
+ * до выполнения. Сложность поля со списком умножается на запрошенный размер страницы,
+ * поэтому большая страница с вложенными полями стоит дороже маленькой.
+ */
+@Configuration
+public class GraphQlConfiguration {
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${task.graphql.max-depth}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${task.graphql.max-complexity}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, (environment, childComplexity) -> {
+            Object size = environment.getArguments().get("size");
+            return size instanceof Integer pageSize ? 1 + childComplexity * pageSize : 1 + childComplexity;
+        });
+    }
+}
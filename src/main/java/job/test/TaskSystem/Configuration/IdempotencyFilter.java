@@ -0,0 +1,165 @@
+package job.test.TaskSystem.Configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import job.test.TaskSystem.Model.User;
+import job.test.TaskSystem.Service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Фильтр для изменяющих запросов с заголовком {@code Idempotency-Key}.
+ * Первый запрос с ключом выполняется как обычно, и его ответ сохраняется в {@link IdempotencyService}.
+ * Повтор с тем же ключом получает сохранённый ответ с заголовком {@code Idempotent-Replayed: true}
+ * без повторного выполнения контроллера и запросов к базе. Повтор с другими параметрами отклоняется
+ * со статусом 422, параллельный повтор, пока исходный запрос не завершён, - со статусом 409,
+ * в том числе если исходный запрос выполняется на другом экземпляре.
+ * Ответы со статусом 5xx не сохраняются, такой запрос можно повторить. Работает после {@link JwtFilter},
+ * ключи принадлежат пользователю, поэтому запросы без аутентификации не обрабатываются.
+ * Тело запроса фильтр не читает, поэтому запрос с телом, например загрузка вложения, обрабатывается только
+ * с заголовком {@code Content-Digest} от клиента: дайджест вместе с типом и длиной тела входит в отпечаток запроса.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER_NAME = "Idempotency-Key";
+    public static final String REPLAYED_HEADER_NAME = "Idempotent-Replayed";
+    public static final String CONTENT_DIGEST_HEADER_NAME = "Content-Digest";
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final List<String> paths;
+    private final int maxBodySize;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService,
+                             @Value("${idempotency.paths}") List<String> paths,
+                             @Value("${idempotency.max-body-size}") DataSize maxBodySize) {
+        this.idempotencyService = idempotencyService;
+        this.paths = paths;
+        this.maxBodySize = (int) maxBodySize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (request.getHeader(HEADER_NAME) == null || !MUTATING_METHODS.contains(request.getMethod())) return true;
+        // Без дайджеста повтор с тем же ключом и другим содержимым получил бы ответ на первое содержимое
+        if (hasBody(request) && request.getHeader(CONTENT_DIGEST_HEADER_NAME) == null) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return paths.stream().noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(HEADER_NAME);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), HEADER_NAME + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        String key = sha256(user.getEmail(), request.getMethod(), request.getRequestURI(), idempotencyKey);
+        String fingerprint = fingerprint(request);
+
+        Optional<IdempotencyService.StoredResponse> stored = idempotencyService.find(key);
+        if (stored.isPresent()) {
+            replay(stored.get(), fingerprint, response);
+            return;
+        }
+
+        Optional<IdempotencyService.Claim> claim = idempotencyService.tryBegin(key, fingerprint);
+        if (claim.isEmpty()) {
+            // Ключ занят: исходный запрос либо завершился после поиска ответа, либо ещё выполняется
+            stored = idempotencyService.find(key);
+            if (stored.isPresent()) {
+                replay(stored.get(), fingerprint, response);
+            } else {
+                response.sendError(HttpStatus.CONFLICT.value(), "A request with this " + HEADER_NAME + " is in progress");
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            byte[] body = wrapper.getContentAsByteArray();
+            if (wrapper.getStatus() < 500 && body.length <= maxBodySize) {
+                idempotencyService.complete(claim.get(), fingerprint, wrapper.getStatus(), wrapper.getContentType(), body);
+                completed = true;
+            }
+        } finally {
+            if (!completed) idempotencyService.release(claim.get());
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(IdempotencyService.StoredResponse stored, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    HEADER_NAME + " was already used with different request parameters");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) response.setContentType(stored.contentType());
+        response.setHeader(REPLAYED_HEADER_NAME, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    /**
+     * Хеш параметров запроса в порядке имён, а для запроса с телом - ещё типа, длины и дайджеста тела от клиента.
+     * Само тело не читается и остаётся доступным контроллеру.
+     */
+    private static String fingerprint(HttpServletRequest request) {
+        Stream<String> parameters = new TreeMap<>(request.getParameterMap()).entrySet().stream()
+                .flatMap(parameter -> Stream.concat(Stream.of(parameter.getKey()), Arrays.stream(parameter.getValue())));
+        if (!hasBody(request)) return sha256(parameters.toArray(String[]::new));
+
+        Stream<String> body = Stream.of(String.valueOf(request.getContentType()),
+                String.valueOf(request.getContentLengthLong()), request.getHeader(CONTENT_DIGEST_HEADER_NAME));
+        return sha256(Stream.concat(parameters, body).toArray(String[]::new));
+    }
+
+    private static boolean hasBody(HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader("Transfer-Encoding") != null;
+    }
+
+    private static String sha256(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
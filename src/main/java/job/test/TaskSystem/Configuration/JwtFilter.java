@@ -1,11 +1,13 @@
 package job.test.TaskSystem.Configuration;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import job.test.TaskSystem.Service.JwtService;
-import job.test.TaskSystem.Service.UserService;
+import job.test.TaskSystem.Service.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,6 +24,8 @@ import java.io.IOException;
 /**
  * Фильтр для обработки JWT токенов.
  * Проверяет наличие и валидность JWT токена в заголовке запроса и устанавливает контекст безопасности, если токен валиден.
+ * Пользователь восстанавливается из данных токена доступа без обращения к базе данных,
+ * отзыв токенов учитывается через {@link TokenRevocationService}.
  */
 @Component
 @RequiredArgsConstructor
@@ -29,7 +33,7 @@ public class JwtFilter extends OncePerRequestFilter {
     public static final String BEARER_PREFIX = "Bearer ";
     public static final String HEADER_NAME = "Authorization";
     private final JwtService jwtService;
-    private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * Обрабатывает входящий запрос, проверяет наличие и валидность JWT токена и устанавливает контекст безопасности.
@@ -54,24 +58,30 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         var jwt = authHeader.substring(BEARER_PREFIX.length());
-        String email = jwtService.extractUser(jwt).getEmail();
-
-        if (!StringUtils.isEmpty(email) && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(email);
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                SecurityContext context = SecurityContextHolder.createEmptyContext();
+        if (jwtService.isTokenOfType(claims, JwtService.ACCESS_TOKEN_TYPE)
+                && !StringUtils.isEmpty(claims.get("email", String.class))
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationService.isRevoked(claims)) {
+            UserDetails userDetails = jwtService.toUser(claims).toEntity();
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                context.setAuthentication(authToken);
-                SecurityContextHolder.setContext(context);
-            }
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            context.setAuthentication(authToken);
+            SecurityContextHolder.setContext(context);
         }
         filterChain.doFilter(request, response);
     }
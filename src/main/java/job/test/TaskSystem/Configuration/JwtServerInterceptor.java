@@ -0,0 +1,59 @@
+package job.test.TaskSystem.Configuration;
+
+import io.grpc.*;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.JwtService;
+import job.test.TaskSystem.Service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.util.StringUtils;
+
+/**
+ * Перехватчик gRPC вызовов, проверяющий JWT токен из метаданных {@code authorization}.
+ * Выполняет те же проверки, что и {@link JwtFilter}, и кладёт пользователя в {@link Context} вызова
+ * под ключом {@link #USER}. Вызовы без действительного токена доступа завершаются со статусом {@code UNAUTHENTICATED}.
+ */
+@GrpcGlobalServerInterceptor
+@RequiredArgsConstructor
+public class JwtServerInterceptor implements ServerInterceptor {
+    public static final Context.Key<UserDTO> USER = Context.key("user");
+    private static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of(JwtFilter.HEADER_NAME, Metadata.ASCII_STRING_MARSHALLER);
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String authHeader = headers.get(AUTHORIZATION);
+        if (StringUtils.isEmpty(authHeader) || !StringUtils.startsWithIgnoreCase(authHeader, JwtFilter.BEARER_PREFIX)) {
+            return reject(call, "Missing bearer token");
+        }
+
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(authHeader.substring(JwtFilter.BEARER_PREFIX.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return reject(call, "Invalid token");
+        }
+
+        if (!jwtService.isTokenOfType(claims, JwtService.ACCESS_TOKEN_TYPE)
+                || StringUtils.isEmpty(claims.get("email", String.class))
+                || tokenRevocationService.isRevoked(claims)) {
+            return reject(call, "Invalid token");
+        }
+
+        Context context = Context.current().withValue(USER, jwtService.toUser(claims));
+        return Contexts.interceptCall(context, call, headers, next);
+    }
+
+    private static <ReqT, RespT> ServerCall.Listener<ReqT> reject(ServerCall<ReqT, RespT> call, String description) {
+        call.close(Status.UNAUTHENTICATED.withDescription(description), new Metadata());
+        return new ServerCall.Listener<>() {
+        };
+    }
+}
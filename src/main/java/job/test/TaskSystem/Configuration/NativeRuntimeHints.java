@@ -0,0 +1,66 @@
+package job.test.TaskSystem.Configuration;
+
+import job.test.TaskSystem.Model.*;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Подсказки для AOT-обработки и сборки native image.
+ * Регистрирует классы, которые создаются или читаются через рефлексию:
+ * модели для Jackson и Hibernate, билдеры Lombok и реализацию jjwt, загружаемую по имени класса.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+    private static final List<Class<?>> MODEL_TYPES = List.of(
+            Task.class, Task.TaskBuilder.class,
+            User.class, User.UserBuilder.class,
+            TaskDependency.class, TaskDependency.TaskDependencyBuilder.class,
+            Team.class, Team.TeamBuilder.class,
+            TeamDTO.class,
+            ArchivedTask.class,
+            RevokedToken.class, RevokedToken.RevokedTokenBuilder.class,
+            IdempotencyRecord.class, IdempotencyRecord.IdempotencyRecordBuilder.class,
+            TaskHistory.class, TaskHistory.TaskHistoryBuilder.class,
+            TaskHistoryDTO.class,
+            TaskHistoryPage.class,
+            TaskDTO.class,
+            UserDTO.class, UserDTO.UserDTOBuilder.class,
+            TaskQuery.class,
+            TaskNode.class,
+            TaskReminderEvent.class,
+            JwtTokenResponse.class,
+            SignInRequest.class,
+            SignUpRequest.class,
+            RefreshTokenRequest.class,
+            ChangePasswordRequest.class
+    );
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        MODEL_TYPES.forEach(type -> hints.reflection().registerType(type, MemberCategory.values()));
+
+        JJWT_TYPES.forEach(type -> hints.reflection().registerType(
+                TypeReference.of(type),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS
+        ));
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+        hints.resources().registerPattern("ehcache.xml");
+        hints.resources().registerPattern("schema.sql");
+    }
+}
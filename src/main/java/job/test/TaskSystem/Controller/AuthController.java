@@ -1,13 +1,18 @@
 package job.test.TaskSystem.Controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import job.test.TaskSystem.Model.ChangePasswordRequest;
 import job.test.TaskSystem.Model.JwtTokenResponse;
+import job.test.TaskSystem.Model.RefreshTokenRequest;
 import job.test.TaskSystem.Model.SignUpRequest;
 import job.test.TaskSystem.Model.SignInRequest;
 import job.test.TaskSystem.Service.AuthenticationService;
+import job.test.TaskSystem.Service.JwtService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +28,7 @@ import org.springframework.web.bind.annotation.*;
 @Validated
 public class AuthController {
     private final AuthenticationService authenticationService;
+    private final JwtService jwtService;
 
     /**
      * Регистрирует нового пользователя.
@@ -53,4 +59,75 @@ public class AuthController {
     public ResponseEntity<JwtTokenResponse> signIn(@Valid @RequestBody SignInRequest request) {
         return ResponseEntity.ok(authenticationService.signIn(request));
     }
+
+    /**
+     * Выдаёт новую пару токенов по токену обновления.
+     *
+     * @param request Запрос с токеном обновления.
+     * @return Новые JWT токены пользователя.
+     */
+    @Operation(
+            summary = "Обновление токенов",
+            description = "Эндпоинт для получения нового токена доступа по токену обновления. Использованный токен обновления отзывается."
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtTokenResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authenticationService.refresh(request));
+    }
+
+    /**
+     * Завершает сессию пользователя.
+     *
+     * @param authorizationHeader Заголовок авторизации с токеном доступа, необязателен.
+     * @param request             Запрос с токеном обновления.
+     * @return Пустой ответ.
+     */
+    @Operation(
+            summary = "Выход пользователя",
+            description = "Эндпоинт для отзыва токена обновления и, если передан, токена доступа."
+    )
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @Valid @RequestBody RefreshTokenRequest request
+    ) {
+        authenticationService.logout(extractJwtToken(authorizationHeader), request);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Меняет пароль пользователя и отзывает все его токены.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param request             Старый и новый пароли.
+     * @return Пустой ответ.
+     */
+    @Operation(
+            summary = "Смена пароля",
+            description = "Эндпоинт для смены пароля. Все ранее выданные пользователю токены отзываются."
+    )
+    @PutMapping("/password")
+    public ResponseEntity<Void> changePassword(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @Valid @RequestBody ChangePasswordRequest request
+    ) {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        authenticationService.changePassword(jwtService.extractUser(token), request);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Извлекает JWT токен из заголовка авторизации.
+     *
+     * @param authorizationHeader Заголовок авторизации.
+     * @return JWT токен или null, если токен не найден.
+     */
+    private String extractJwtToken(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            return authorizationHeader.substring(7);
+        }
+        return null;
+    }
 }
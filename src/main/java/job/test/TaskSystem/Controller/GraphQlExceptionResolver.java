@@ -0,0 +1,35 @@
+package job.test.TaskSystem.Controller;
+
+import graphql.GraphQLError;
+import graphql.schema.DataFetchingEnvironment;
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Обработчик исключений GraphQL.
+ * Переводит исключения сервисов в ошибки GraphQL так же, как {@link ExceptionController} переводит их в HTTP статусы.
+ */
+@Component
+public class GraphQlExceptionResolver extends DataFetcherExceptionResolverAdapter {
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        ErrorType type;
+        if (ex instanceof EntityNotFoundException) {
+            type = ErrorType.NOT_FOUND;
+        } else if (ex instanceof InvalidRequestException || ex instanceof EntityExistsException) {
+            type = ErrorType.BAD_REQUEST;
+        } else {
+            return null;
+        }
+        return GraphQLError.newError()
+                .errorType(type)
+                .message(ex.getMessage())
+                .path(env.getExecutionStepInfo().getPath())
+                .location(env.getField().getSourceLocation())
+                .build();
+    }
+}
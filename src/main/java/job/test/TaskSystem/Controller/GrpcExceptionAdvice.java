@@ -0,0 +1,51 @@
+package job.test.TaskSystem.Controller;
+
+import io.grpc.Status;
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import net.devh.boot.grpc.server.advice.GrpcAdvice;
+import net.devh.boot.grpc.server.advice.GrpcExceptionHandler;
+
+/**
+ * Обработчик исключений gRPC.
+ * Переводит исключения сервисов в статусы gRPC так же, как {@link ExceptionController} переводит их в HTTP статусы.
+ */
+@GrpcAdvice
+public class GrpcExceptionAdvice {
+    @GrpcExceptionHandler(EntityNotFoundException.class)
+    public Status handleEntityNotFoundException(EntityNotFoundException ex) {
+        return toStatus(ex);
+    }
+
+    @GrpcExceptionHandler(EntityExistsException.class)
+    public Status handleEntityExistsException(EntityExistsException ex) {
+        return toStatus(ex);
+    }
+
+    @GrpcExceptionHandler(InvalidRequestException.class)
+    public Status handleInvalidRequestException(InvalidRequestException ex) {
+        return toStatus(ex);
+    }
+
+    /**
+     * Определяет статус gRPC для исключения. Используется и там, где исключение не проходит через advice,
+     * например в обработчиках готовности потоковых вызовов.
+     *
+     * @param ex Исключение.
+     * @return Статус с описанием из исключения.
+     */
+    public static Status toStatus(Throwable ex) {
+        Status status;
+        if (ex instanceof EntityNotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (ex instanceof EntityExistsException) {
+            status = Status.ALREADY_EXISTS;
+        } else if (ex instanceof InvalidRequestException) {
+            status = Status.INVALID_ARGUMENT;
+        } else {
+            return Status.INTERNAL.withDescription("Internal error").withCause(ex);
+        }
+        return status.withDescription(ex.getMessage());
+    }
+}
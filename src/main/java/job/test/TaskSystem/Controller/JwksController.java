@@ -0,0 +1,44 @@
+package job.test.TaskSystem.Controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import job.test.TaskSystem.Service.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Контроллер публикации открытых ключей подписи JWT.
+ * Позволяет другим сервисам проверять токены локально, без обращения к этому сервису.
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS Controller", description = "Контроллер публикации открытых ключей подписи JWT в формате JWKS.")
+public class JwksController {
+    private final JwtKeyRing keyRing;
+
+    @Value("${token.jwks.max-age}")
+    private Duration maxAge;
+
+    /**
+     * Возвращает открытые ключи подписи, включая ключи, подготовленные к ротации и ещё не выведенные из оборота.
+     *
+     * @return JWKS документ.
+     */
+    @Operation(
+            summary = "Открытые ключи подписи JWT",
+            description = "Эндпоинт возвращает JWKS с открытыми ключами RS256. Ответ кешируется клиентами на время max-age."
+    )
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .body(keyRing.current().jwks());
+    }
+}
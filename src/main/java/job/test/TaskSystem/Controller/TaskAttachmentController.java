@@ -0,0 +1,204 @@
+package job.test.TaskSystem.Controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import job.test.TaskSystem.Model.TaskAttachmentDTO;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.JwtService;
+import job.test.TaskSystem.Service.TaskAttachmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Контроллер вложений задач.
+ * Загрузка принимает содержимое файла телом запроса как есть, без multipart, и передаёт поток в хранилище
+ * не читая его в память. Скачивание поддерживает один диапазон {@code Range} и отдаётся через sendfile Tomcat,
+ * а если коннектор его не поддерживает - через {@link FileChannel#transferTo}.
+ */
+@Validated
+@RestController
+@RequestMapping("/task/{id}/attachments")
+@RequiredArgsConstructor
+@Tag(name = "Task Attachment Controller", description = "Контроллер вложений задач. Предоставляет API для загрузки, получения списка и скачивания файлов задачи.")
+public class TaskAttachmentController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final TaskAttachmentService attachmentService;
+    private final JwtService jwtService;
+
+    /**
+     * Загружает вложение задачи.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param id                  ID задачи.
+     * @param fileName            Имя файла.
+     * @param request             Запрос, тело которого содержит файл.
+     * @return DTO нового вложения.
+     */
+    @Operation(
+            summary = "Загрузить вложение задачи",
+            description = "Эндпоинт для загрузки файла к задаче. Содержимое файла передаётся телом запроса с его типом в Content-Type. Одинаковые файлы хранятся один раз. Возвращает DTO вложения."
+    )
+    @PostMapping()
+    public ResponseEntity<TaskAttachmentDTO> uploadAttachment(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @PathVariable @Min(1) @Parameter(description = "ID задачи") Long id,
+            @RequestParam @NotEmpty(message = "File name is required") @Size(max = 255, message = "File name can`t be more than 255 long") @Parameter(description = "Имя файла") @Schema(maxLength = 255) String fileName,
+            HttpServletRequest request) throws IOException
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(attachmentService.upload(user, id, fileName, request.getContentType(), request.getInputStream()));
+    }
+
+    /**
+     * Получает вложения задачи.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param id                  ID задачи.
+     * @return Список DTO вложений.
+     */
+    @Operation(
+            summary = "Получить вложения задачи",
+            description = "Эндпоинт для получения метаданных всех вложений задачи в порядке загрузки."
+    )
+    @GetMapping()
+    public ResponseEntity<List<TaskAttachmentDTO>> getAttachments(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @PathVariable @Min(1) @Parameter(description = "ID задачи") Long id)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(List.of());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(attachmentService.getAttachments(user, id));
+    }
+
+    /**
+     * Скачивает вложение задачи целиком или диапазоном из заголовка {@code Range}.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param id                  ID задачи.
+     * @param attachmentID        ID вложения.
+     * @param request             Запрос.
+     * @param response            Ответ, в который пишется содержимое.
+     */
+    @Operation(
+            summary = "Скачать вложение задачи",
+            description = "Эндпоинт для скачивания файла задачи. Поддерживает заголовок Range с одним диапазоном байт."
+    )
+    @GetMapping("/{attachmentID}")
+    public void downloadAttachment(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @PathVariable @Min(1) @Parameter(description = "ID задачи") Long id,
+            @PathVariable @Min(1) @Parameter(description = "ID вложения") Long attachmentID,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        UserDTO user = jwtService.extractUser(token);
+        TaskAttachmentService.AttachmentFile file = attachmentService.open(user, id, attachmentID);
+        TaskAttachmentDTO attachment = file.attachment();
+        long length = attachment.getSize();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, "\"" + attachment.getSha256() + "\"");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString());
+        response.setContentType(attachment.getContentType());
+
+        long start = 0;
+        long end = length - 1;
+        List<HttpRange> ranges = parseRanges(request.getHeader(HttpHeaders.RANGE));
+        // Несколько диапазонов не поддерживаются, по RFC 9110 вместо них можно отдать файл целиком
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count <= 0) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat сам передаёт файл в сокет через FileChannel.transferTo после выхода из контроллера
+            request.setAttribute(SENDFILE_FILENAME, file.path().toFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static List<HttpRange> parseRanges(String header) {
+        if (header == null) return List.of();
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Извлекает JWT токен из заголовка авторизации.
+     *
+     * @param authorizationHeader Заголовок авторизации.
+     * @return JWT токен или null, если токен не найден.
+     */
+    private String extractJwtToken(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            return authorizationHeader.substring(7);
+        }
+        return null;
+    }
+}
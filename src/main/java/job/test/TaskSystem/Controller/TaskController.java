@@ -5,15 +5,20 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskHistoryPage;
 import job.test.TaskSystem.Model.TaskPriority;
+import job.test.TaskSystem.Model.TaskQuery;
 import job.test.TaskSystem.Model.TaskStatus;
 import job.test.TaskSystem.Model.UserDTO;
 import job.test.TaskSystem.Service.JwtService;
+import job.test.TaskSystem.Service.TaskHistoryService;
+import job.test.TaskSystem.Service.TaskQueueService;
 import job.test.TaskSystem.Service.TaskService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -23,6 +28,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Контроллер для управления задачами.
  * Предоставляет API для взаимодействия с задачами, включая получение, добавление, редактирование и удаление задач.
@@ -34,6 +44,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Task Controller", description = "Контроллер для управления задачами. Предоставляет API для взаимодействия с задачами, включая получение, добавление, редактирование и удаление задач.")
 public class TaskController {
     private final TaskService taskService;
+    private final TaskQueueService taskQueueService;
+    private final TaskHistoryService taskHistoryService;
     private final JwtService jwtService;
 
     /**
@@ -60,11 +72,70 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getAllAuthorTasks(user, pageable));
     }
 
+    /**
+     * Получает задачи по произвольному сочетанию критериев.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param author              Email автора задач.
+     * @param worker              Email исполнителя задач.
+     * @param status              Допустимые статусы задач.
+     * @param priority            Допустимые приоритеты задач.
+     * @param titlePrefix         Начало заголовка задачи.
+     * @param pageable            Параметры пагинации и сортировки.
+     * @return Страница DTO задач, удовлетворяющих всем критериям.
+     */
+    @Operation(
+            summary = "Поиск задач по набору критериев",
+            description = "Эндпоинт для поиска задач по любому сочетанию автора, исполнителя, статусов, приоритетов и начала заголовка. Нужно указать автора или исполнителя. Возвращает страницу DTO задач."
+    )
+    @GetMapping("/query")
+    public ResponseEntity<Page<TaskDTO>> queryTasks(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam(required = false) @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email автора") String author,
+            @RequestParam(required = false) @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email исполнителя") String worker,
+            @RequestParam(required = false) @Parameter(description = "Статусы задачи") Set<TaskStatus> status,
+            @RequestParam(required = false) @Parameter(description = "Приоритеты задачи") Set<TaskPriority> priority,
+            @RequestParam(required = false) @Size(max = 255, message = "Title prefix can`t be more than 255 long") @Parameter(description = "Начало заголовка задачи") String titlePrefix,
+            Pageable pageable)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.queryTasks(user, new TaskQuery(author, worker, status, priority, titlePrefix), pageable));
+    }
+
+    /**
+     * Получает архивные задачи текущего пользователя.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param pageable            Параметры пагинации.
+     * @return Страница DTO архивных задач текущего пользователя.
+     */
+    @Operation(
+            summary = "Получение архивных задач текущего пользователя",
+            description = "Эндпоинт для получения завершённых задач текущего пользователя, перенесённых в архив. Возвращает страницу DTO задач."
+    )
+    @GetMapping("/archive")
+    public ResponseEntity<Page<TaskDTO>> getArchivedTasksOfCurrentUser(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            Pageable pageable)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getArchivedAuthorTasks(user, pageable));
+    }
+
     /**
      * Получает все задачи пользователя по email.
      *
-     * @param email    Email пользователя.
-     * @param pageable Параметры пагинации.
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param email               Email пользователя.
+     * @param pageable            Параметры пагинации.
      * @return Страница DTO задач пользователя.
      */
     @Operation(
@@ -73,17 +144,24 @@ public class TaskController {
     )
     @GetMapping("/{email}")
     public ResponseEntity<Page<TaskDTO>> getTasksByAuthorEmails(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
             @PathVariable @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email пользователя") String email,
             Pageable pageable) {
-        return ResponseEntity.ok(taskService.getAllUserTasks(email, pageable));
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getAllUserTasks(user, email, pageable));
     }
 
     /**
      * Получает все задачи пользователя по email с определённым статусом.
      *
-     * @param email    Email пользователя.
-     * @param status   Статус задачи.
-     * @param pageable Параметры пагинации.
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param email               Email пользователя.
+     * @param status              Статус задачи.
+     * @param pageable            Параметры пагинации.
      * @return Страница DTO задач пользователя с определённым статусом.
      */
     @Operation(
@@ -92,19 +170,26 @@ public class TaskController {
     )
     @GetMapping("/{email}/status")
     public ResponseEntity<Page<TaskDTO>> getTasksByAuthorEmailAndStatus(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
             @PathVariable @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email пользователя") String email,
             @RequestParam @Parameter(description = "Статус задачи") TaskStatus status,
             Pageable pageable)
     {
-        return ResponseEntity.ok(taskService.getAllUserTasksByStatus(email, status, pageable));
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getAllUserTasksByStatus(user, email, status, pageable));
     }
 
     /**
      * Получает все задачи пользователя по email с определённым приоритетом.
      *
-     * @param email    Email пользователя.
-     * @param priority Приоритет задачи.
-     * @param pageable Параметры пагинации.
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param email               Email пользователя.
+     * @param priority            Приоритет задачи.
+     * @param pageable            Параметры пагинации.
      * @return Страница DTO задач пользователя с определённым приоритетом.
      */
     @Operation(
@@ -113,18 +198,25 @@ public class TaskController {
     )
     @GetMapping("/{email}/priority")
     public ResponseEntity<Page<TaskDTO>> getTasksByAuthorEmailAndPriority(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
             @PathVariable @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email пользователя") String email,
             @RequestParam @Parameter(description = "Приоритет задачи") TaskPriority priority,
             Pageable pageable)
     {
-        return ResponseEntity.ok(taskService.getAllUserTasksByPriority(email, priority, pageable));
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getAllUserTasksByPriority(user, email, priority, pageable));
     }
 
     /**
      * Получает все задачи исполнителя по email.
      *
-     * @param email    Email пользователя.
-     * @param pageable Параметры пагинации.
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param email               Email пользователя.
+     * @param pageable            Параметры пагинации.
      * @return Страница DTO задач пользователя.
      */
     @Operation(
@@ -133,17 +225,24 @@ public class TaskController {
     )
     @GetMapping("/worker/{email}")
     public ResponseEntity<Page<TaskDTO>> getTasksByWorkerEmail(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
             @PathVariable @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email пользователя") String email,
             Pageable pageable) {
-        return ResponseEntity.ok(taskService.getAllWorkerTasks(email, pageable));
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getAllWorkerTasks(user, email, pageable));
     }
 
     /**
      * Получает все задачи исполнителя по email с определённым статусом.
      *
-     * @param email    Email пользователя.
-     * @param status   Статус задачи.
-     * @param pageable Параметры пагинации.
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param email               Email пользователя.
+     * @param status              Статус задачи.
+     * @param pageable            Параметры пагинации.
      * @return Страница DTO задач пользователя с определённым статусом.
      */
     @Operation(
@@ -152,19 +251,26 @@ public class TaskController {
     )
     @GetMapping("/worker/{email}/status")
     public ResponseEntity<Page<TaskDTO>> getTasksByWorkerEmailAndStatus(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
             @PathVariable @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email пользователя") String email,
             @RequestParam @Parameter(description = "Статус задачи") TaskStatus status,
             Pageable pageable)
     {
-        return ResponseEntity.ok(taskService.getAllWorkerTasksByStatus(email, status, pageable));
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getAllWorkerTasksByStatus(user, email, status, pageable));
     }
 
     /**
      * Получает все задачи исполнителя по email с определённым приоритетом.
      *
-     * @param email    Email пользователя.
-     * @param priority Приоритет задачи.
-     * @param pageable Параметры пагинации.
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param email               Email пользователя.
+     * @param priority            Приоритет задачи.
+     * @param pageable            Параметры пагинации.
      * @return Страница DTO задач пользователя с определённым приоритетом.
      */
     @Operation(
@@ -173,11 +279,17 @@ public class TaskController {
     )
     @GetMapping("/worker/{email}/priority")
     public ResponseEntity<Page<TaskDTO>> getTasksByWorkerEmailAndPriority(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
             @PathVariable @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email пользователя") String email,
             @RequestParam @Parameter(description = "Приоритет задачи") TaskPriority priority,
             Pageable pageable)
     {
-        return ResponseEntity.ok(taskService.getAllWorkerTasksByPriority(email, priority, pageable));
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getAllWorkerTasksByPriority(user, email, priority, pageable));
     }
 
     /**
@@ -287,6 +399,58 @@ public class TaskController {
         return ResponseEntity.ok(taskService.changeStatus(taskID, status, user));
     }
 
+    /**
+     * Изменяет срок выполнения задачи по её ID.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param taskID              ID задачи.
+     * @param dueAt               Новый срок задачи.
+     * @return Обновленный DTO задачи.
+     */
+    @Operation(
+            summary = "Изменить срок выполнения задачи по её ID",
+            description = "Эндпоинт для установки или снятия срока выполнения задачи по её ID. Возвращает обновленный DTO задачи."
+    )
+    @PutMapping("/due")
+    public ResponseEntity<TaskDTO> updateTaskDueDate(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID задачи") Long taskID,
+            @RequestParam(required = false) @Parameter(description = "Новый срок задачи в формате ISO-8601, пусто чтобы снять срок") Instant dueAt)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.changeDueDate(taskID, dueAt, user));
+    }
+
+    /**
+     * Относит задачу к команде по её ID.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param taskID              ID задачи.
+     * @param teamID              ID команды или пусто, чтобы убрать задачу из команды.
+     * @return Обновленный DTO задачи.
+     */
+    @Operation(
+            summary = "Изменить команду задачи по её ID",
+            description = "Эндпоинт для отнесения задачи к команде, в которой состоит автор, или для удаления задачи из команды. Задачи команды видны всем её участникам. Возвращает обновленный DTO задачи."
+    )
+    @PutMapping("/team")
+    public ResponseEntity<TaskDTO> updateTaskTeam(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID задачи") Long taskID,
+            @RequestParam(required = false) @Min(1) @Parameter(description = "ID команды, пусто чтобы убрать задачу из команды") Long teamID)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.changeTeam(taskID, teamID, user));
+    }
+
     /**
      * Добавляет исполнителя к задаче по её ID.
      *
@@ -339,6 +503,219 @@ public class TaskController {
         return ResponseEntity.ok(taskService.removeWorker(taskID, email, user));
     }
 
+    /**
+     * Захватывает следующие задачи текущего исполнителя.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param count               Максимальное количество задач.
+     * @param leaseSeconds        Длительность аренды в секундах.
+     * @return Список DTO захваченных задач.
+     */
+    @Operation(
+            summary = "Захватить следующие задачи исполнителя",
+            description = "Эндпоинт для атомарного захвата задач текущего исполнителя в статусе Received: сначала с наибольшим приоритетом, затем самые старые. Захваченные задачи переводятся в статус In_progress и возвращаются в очередь, если аренда не продлена вовремя."
+    )
+    @PostMapping("/claim")
+    public ResponseEntity<List<TaskDTO>> claimTasks(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam(defaultValue = "1") @Min(1) @Max(100) @Parameter(description = "Максимальное количество задач") int count,
+            @RequestParam(defaultValue = "300") @Min(1) @Max(86400) @Parameter(description = "Длительность аренды в секундах") long leaseSeconds)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(List.of());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskQueueService.claim(user, count, Duration.ofSeconds(leaseSeconds)));
+    }
+
+    /**
+     * Продлевает аренду захваченной задачи.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param taskID              ID задачи.
+     * @param leaseSeconds        Новая длительность аренды в секундах.
+     * @return Сообщение об успешном продлении аренды.
+     */
+    @Operation(
+            summary = "Продлить аренду захваченной задачи",
+            description = "Эндпоинт для продления аренды задачи, захваченной текущим исполнителем."
+    )
+    @PutMapping("/claim")
+    public ResponseEntity<String> renewClaim(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID задачи") Long taskID,
+            @RequestParam(defaultValue = "300") @Min(1) @Max(86400) @Parameter(description = "Длительность аренды в секундах") long leaseSeconds)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        taskQueueService.renew(user, taskID, Duration.ofSeconds(leaseSeconds));
+        return ResponseEntity.ok("Claim renewed");
+    }
+
+    /**
+     * Завершает захваченную задачу.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param taskID              ID задачи.
+     * @return Сообщение об успешном завершении задачи.
+     */
+    @Operation(
+            summary = "Завершить захваченную задачу",
+            description = "Эндпоинт для перевода задачи, захваченной текущим исполнителем, в статус Complete. Аренда задачи снимается."
+    )
+    @PutMapping("/claim/complete")
+    public ResponseEntity<String> completeClaim(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID задачи") Long taskID)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        taskQueueService.complete(user, taskID);
+        return ResponseEntity.ok("Task completed");
+    }
+
+    /**
+     * Возвращает захваченную задачу в очередь.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param taskID              ID задачи.
+     * @return Сообщение об успешном возврате задачи.
+     */
+    @Operation(
+            summary = "Вернуть захваченную задачу в очередь",
+            description = "Эндпоинт для возврата задачи, захваченной текущим исполнителем, в статус Received до истечения аренды."
+    )
+    @DeleteMapping("/claim")
+    public ResponseEntity<String> releaseClaim(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID задачи") Long taskID)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        taskQueueService.release(user, taskID);
+        return ResponseEntity.ok("Claim released");
+    }
+
+    /**
+     * Получает историю изменений задачи.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param id                  ID задачи.
+     * @param cursor              Курсор из предыдущей страницы.
+     * @param size                Размер страницы.
+     * @return Страница истории от новых изменений к старым.
+     */
+    @Operation(
+            summary = "Получить историю изменений задачи",
+            description = "Эндпоинт для получения истории изменений задачи, доступен автору и исполнителям. Для следующей страницы передайте nextCursor из предыдущего ответа."
+    )
+    @GetMapping("/{id}/history")
+    public ResponseEntity<TaskHistoryPage> getTaskHistory(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @PathVariable @Min(1) @Parameter(description = "ID задачи") Long id,
+            @RequestParam(required = false) @Parameter(description = "Курсор следующей страницы") Long cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) @Parameter(description = "Размер страницы") int size)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskHistoryService.getHistory(user, id, cursor, size));
+    }
+
+    /**
+     * Получает задачи текущего пользователя по меткам.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param include             Метки, которые должны быть у задачи.
+     * @param exclude             Метки, которых не должно быть у задачи.
+     * @param pageable            Параметры пагинации.
+     * @return Страница DTO задач от новых к старым.
+     */
+    @Operation(
+            summary = "Поиск задач текущего пользователя по меткам",
+            description = "Эндпоинт для получения задач текущего пользователя, у которых есть все метки include и нет ни одной метки exclude. Отбор выполняется по индексу меток в памяти. Возвращает страницу DTO задач от новых к старым."
+    )
+    @GetMapping("/tags")
+    public ResponseEntity<Page<TaskDTO>> getTasksByTags(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Size(min = 1, max = 10, message = "From 1 to 10 tags to include") @Parameter(description = "Обязательные метки") Set<String> include,
+            @RequestParam(required = false) @Size(max = 10, message = "Up to 10 tags to exclude") @Parameter(description = "Исключающие метки") Set<String> exclude,
+            Pageable pageable)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getTasksByTags(user, include, exclude, pageable));
+    }
+
+    /**
+     * Ставит метку на задачу по её ID.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param taskID              ID задачи.
+     * @param tag                 Метка.
+     * @return Сообщение об успешной установке метки.
+     */
+    @Operation(
+            summary = "Поставить метку на задачу",
+            description = "Эндпоинт для установки метки на задачу текущего пользователя. Метки приводятся к нижнему регистру, повторная установка ничего не меняет."
+    )
+    @PutMapping("/tag")
+    public ResponseEntity<String> addTag(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID задачи") Long taskID,
+            @RequestParam @NotEmpty(message = "Tag is required") @Size(max = 50, message = "Tag can`t be more than 50 long") @Parameter(description = "Метка") @Schema(maxLength = 50) String tag)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        taskService.addTag(user, taskID, tag);
+        return ResponseEntity.ok("Tag added");
+    }
+
+    /**
+     * Снимает метку с задачи по её ID.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param taskID              ID задачи.
+     * @param tag                 Метка.
+     * @return Сообщение об успешном снятии метки.
+     */
+    @Operation(
+            summary = "Снять метку с задачи",
+            description = "Эндпоинт для снятия метки с задачи текущего пользователя."
+    )
+    @DeleteMapping("/tag")
+    public ResponseEntity<String> removeTag(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID задачи") Long taskID,
+            @RequestParam @NotEmpty(message = "Tag is required") @Size(max = 50, message = "Tag can`t be more than 50 long") @Parameter(description = "Метка") @Schema(maxLength = 50) String tag)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        taskService.removeTag(user, taskID, tag);
+        return ResponseEntity.ok("Tag removed");
+    }
+
     /**
      * Извлекает JWT токен из заголовка авторизации.
      *
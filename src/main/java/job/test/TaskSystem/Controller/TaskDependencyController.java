@@ -0,0 +1,144 @@
+package job.test.TaskSystem.Controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Min;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.JwtService;
+import job.test.TaskSystem.Service.TaskDependencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер для управления зависимостями между задачами.
+ * Предоставляет API для добавления и удаления блокирующих связей, получения блокировщиков задачи и критического пути.
+ */
+@Validated
+@RestController
+@RequestMapping("/task/dependency")
+@RequiredArgsConstructor
+@Tag(name = "Task Dependency Controller", description = "Контроллер для управления зависимостями между задачами. Предоставляет API для добавления и удаления блокирующих связей, получения блокировщиков задачи и критического пути.")
+public class TaskDependencyController {
+    private final TaskDependencyService dependencyService;
+    private final JwtService jwtService;
+
+    /**
+     * Добавляет зависимость: одна задача блокирует другую.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param blockerID           ID блокирующей задачи.
+     * @param blockedID           ID блокируемой задачи.
+     * @return Сообщение об успешном добавлении зависимости.
+     */
+    @Operation(
+            summary = "Добавить зависимость между задачами",
+            description = "Эндпоинт для добавления зависимости между задачами текущего пользователя. Отклоняет зависимости, образующие цикл."
+    )
+    @PutMapping()
+    public ResponseEntity<String> addDependency(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID блокирующей задачи") Long blockerID,
+            @RequestParam @Min(1) @Parameter(description = "ID блокируемой задачи") Long blockedID)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        dependencyService.addDependency(user, blockerID, blockedID);
+        return ResponseEntity.ok("Dependency added");
+    }
+
+    /**
+     * Удаляет зависимость между задачами.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param blockerID           ID блокирующей задачи.
+     * @param blockedID           ID блокируемой задачи.
+     * @return Сообщение об успешном удалении зависимости.
+     */
+    @Operation(
+            summary = "Удалить зависимость между задачами",
+            description = "Эндпоинт для удаления зависимости между задачами текущего пользователя."
+    )
+    @DeleteMapping()
+    public ResponseEntity<String> removeDependency(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID блокирующей задачи") Long blockerID,
+            @RequestParam @Min(1) @Parameter(description = "ID блокируемой задачи") Long blockedID)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        dependencyService.removeDependency(user, blockerID, blockedID);
+        return ResponseEntity.ok("Dependency removed");
+    }
+
+    /**
+     * Получает все задачи, которые прямо или транзитивно блокируют задачу.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param taskID              ID задачи.
+     * @return Список DTO блокирующих задач.
+     */
+    @Operation(
+            summary = "Получить транзитивные блокировщики задачи",
+            description = "Эндпоинт для получения всех задач, которые прямо или транзитивно блокируют задачу. Возвращает список DTO задач."
+    )
+    @GetMapping("/blockers")
+    public ResponseEntity<List<TaskDTO>> getTransitiveBlockers(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID задачи") Long taskID)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(List.of());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(dependencyService.getTransitiveBlockers(user, taskID));
+    }
+
+    /**
+     * Получает критический путь по незавершённым задачам текущего пользователя.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @return Список DTO задач критического пути в порядке выполнения.
+     */
+    @Operation(
+            summary = "Получить критический путь",
+            description = "Эндпоинт для получения самой длинной цепочки блокирующих друг друга незавершённых задач текущего пользователя."
+    )
+    @GetMapping("/critical-path")
+    public ResponseEntity<List<TaskDTO>> getCriticalPath(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(List.of());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(dependencyService.getCriticalPath(user));
+    }
+
+    /**
+     * Извлекает JWT токен из заголовка авторизации.
+     *
+     * @param authorizationHeader Заголовок авторизации.
+     * @return JWT токен или null, если токен не найден.
+     */
+    private String extractJwtToken(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            return authorizationHeader.substring(7);
+        }
+        return null;
+    }
+}
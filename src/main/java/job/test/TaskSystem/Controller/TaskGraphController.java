@@ -0,0 +1,64 @@
+package job.test.TaskSystem.Controller;
+
+import job.test.TaskSystem.Model.TaskNode;
+import job.test.TaskSystem.Model.TaskQuery;
+import job.test.TaskSystem.Model.User;
+import job.test.TaskSystem.Service.TaskGraphService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+
+/**
+ * GraphQL контроллер задач ({@code POST /graphql}).
+ * Клиент получает только запрошенные поля. Автор и исполнители разрешаются через {@code DataLoader}:
+ * Spring for GraphQL собирает задачи всего ответа и вызывает пачечные методы один раз на связь.
+ * Пользователь берётся из контекста безопасности, который заполняет {@code JwtFilter}.
+ */
+@Controller
+public class TaskGraphController {
+    private final TaskGraphService taskGraphService;
+    private final int maxPageSize;
+
+    public TaskGraphController(TaskGraphService taskGraphService,
+                               @Value("${task.graphql.max-page-size}") int maxPageSize) {
+        this.taskGraphService = taskGraphService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @QueryMapping
+    public Page<TaskNode> tasks(@AuthenticationPrincipal User user,
+                                @Argument TaskQuery filter,
+                                @Argument int page,
+                                @Argument int size) {
+        return taskGraphService.findTasks(user.toDTO(), filter, pageRequest(page, size));
+    }
+
+    @QueryMapping
+    public Page<TaskNode> teamTasks(@AuthenticationPrincipal User user,
+                                    @Argument Long teamId,
+                                    @Argument int page,
+                                    @Argument int size) {
+        return taskGraphService.findTeamTasks(user.toDTO(), teamId, pageRequest(page, size));
+    }
+
+    @BatchMapping(typeName = "Task")
+    public List<User> author(List<TaskNode> tasks) {
+        return taskGraphService.loadAuthors(tasks);
+    }
+
+    @BatchMapping(typeName = "Task")
+    public List<List<User>> workers(List<TaskNode> tasks) {
+        return taskGraphService.loadWorkers(tasks);
+    }
+
+    private PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxPageSize));
+    }
+}
@@ -0,0 +1,247 @@
+package job.test.TaskSystem.Controller;
+
+import com.google.protobuf.Empty;
+import com.google.protobuf.Timestamp;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import job.test.TaskSystem.Configuration.JwtServerInterceptor;
+import job.test.TaskSystem.Grpc.*;
+import job.test.TaskSystem.Model.TaskCursorPage;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskPriority;
+import job.test.TaskSystem.Model.TaskQuery;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.TaskService;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.Set;
+
+/**
+ * gRPC сервис задач.
+ * Даёт внутренним сервисам те же операции {@link TaskService}, что и {@link TaskController}, но в protobuf по HTTP/2.
+ * Выборки отдаются потоком: следующая страница читается из базы, только когда клиент готов принять данные,
+ * поэтому медленный клиент не заставляет сервер держать в памяти всю выборку.
+ * Пользователь берётся из контекста вызова, который заполняет {@link JwtServerInterceptor}.
+ */
+@GrpcService
+public class TaskGrpcService extends TaskApiGrpc.TaskApiImplBase {
+    private final TaskService taskService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public TaskGrpcService(TaskService taskService,
+                           @Value("${task.grpc.default-page-size}") int defaultPageSize,
+                           @Value("${task.grpc.max-page-size}") int maxPageSize) {
+        this.taskService = taskService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public void listAuthorTasks(ListTasksRequest request, StreamObserver<Task> responseObserver) {
+        UserDTO caller = JwtServerInterceptor.USER.get();
+        String email = request.getEmail().isEmpty() ? caller.getEmail() : request.getEmail();
+        stream(responseObserver, caller, request.getPageSize(),
+                new TaskQuery(email, null, statuses(request), priorities(request), null));
+    }
+
+    @Override
+    public void listWorkerTasks(ListTasksRequest request, StreamObserver<Task> responseObserver) {
+        UserDTO caller = JwtServerInterceptor.USER.get();
+        String email = request.getEmail().isEmpty() ? caller.getEmail() : request.getEmail();
+        stream(responseObserver, caller, request.getPageSize(),
+                new TaskQuery(null, email, statuses(request), priorities(request), null));
+    }
+
+    @Override
+    public StreamObserver<CreateTaskRequest> createTasks(StreamObserver<CreateTasksResponse> responseObserver) {
+        UserDTO caller = JwtServerInterceptor.USER.get();
+        CreateTasksResponse.Builder response = CreateTasksResponse.newBuilder();
+
+        return new StreamObserver<>() {
+            private int index;
+
+            @Override
+            public void onNext(CreateTaskRequest request) {
+                try {
+                    response.addCreated(toProto(create(caller, request)));
+                } catch (RuntimeException e) {
+                    response.addFailures(CreateTaskFailure.newBuilder()
+                            .setIndex(index)
+                            .setTitle(request.getTitle())
+                            .setReason(GrpcExceptionAdvice.toStatus(e).getDescription()));
+                }
+                index++;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Клиент оборвал поток: уже созданные задачи остаются, ответ отправлять некому
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(response.build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void createTask(CreateTaskRequest request, StreamObserver<Task> responseObserver) {
+        reply(responseObserver, toProto(create(JwtServerInterceptor.USER.get(), request)));
+    }
+
+    @Override
+    public void editTask(EditTaskRequest request, StreamObserver<Task> responseObserver) {
+        UserDTO caller = JwtServerInterceptor.USER.get();
+        validate(request.getTitle(), request.getComment());
+        reply(responseObserver, toProto(taskService.editTask(caller, request.getId(), request.getTitle(), request.getComment())));
+    }
+
+    @Override
+    public void deleteTask(TaskId request, StreamObserver<Empty> responseObserver) {
+        taskService.deleteTask(JwtServerInterceptor.USER.get(), request.getId());
+        reply(responseObserver, Empty.getDefaultInstance());
+    }
+
+    @Override
+    public void changeStatus(ChangeStatusRequest request, StreamObserver<Task> responseObserver) {
+        TaskStatus status = fromProto(request.getStatus());
+        if (status == null) throw new InvalidRequestException("Status is required");
+        reply(responseObserver, toProto(taskService.changeStatus(request.getId(), status, JwtServerInterceptor.USER.get())));
+    }
+
+    @Override
+    public void addWorker(WorkerRequest request, StreamObserver<Task> responseObserver) {
+        reply(responseObserver, toProto(taskService.addWorker(request.getId(), request.getEmail(), JwtServerInterceptor.USER.get())));
+    }
+
+    @Override
+    public void removeWorker(WorkerRequest request, StreamObserver<Task> responseObserver) {
+        reply(responseObserver, toProto(taskService.removeWorker(request.getId(), request.getEmail(), JwtServerInterceptor.USER.get())));
+    }
+
+    private TaskDTO create(UserDTO caller, CreateTaskRequest request) {
+        validate(request.getTitle(), request.getComment());
+        TaskPriority priority = fromProto(request.getPriority());
+        if (priority == null) throw new InvalidRequestException("Priority is required");
+        return taskService.addTask(caller, request.getTitle(), request.getComment(), priority);
+    }
+
+    private static void validate(String title, String comment) {
+        if (title.isEmpty()) throw new InvalidRequestException("Title can`t be empty");
+        if (title.length() > 255) throw new InvalidRequestException("Title can`t be more than 255 long");
+        if (comment.length() > 1000) throw new InvalidRequestException("Comment can`t be more than 1000 long");
+    }
+
+    /**
+     * Отдаёт выборку потоком по порциям в порядке ID. Очередная порция читается в обработчике готовности,
+     * пока транспорт готов принимать сообщения; когда буфер клиента заполнен, чтение приостанавливается
+     * до следующего сигнала готовности. Порции читаются по курсору, без подсчёта задач и без смещения.
+     */
+    private void stream(StreamObserver<Task> responseObserver, UserDTO caller, int requestedPageSize, TaskQuery query) {
+        ServerCallStreamObserver<Task> observer = (ServerCallStreamObserver<Task>) responseObserver;
+        int pageSize = requestedPageSize <= 0 ? defaultPageSize : Math.min(requestedPageSize, maxPageSize);
+
+        observer.setOnReadyHandler(new Runnable() {
+            private Long cursor;
+            private boolean done;
+
+            @Override
+            public void run() {
+                try {
+                    while (!done && observer.isReady() && !observer.isCancelled()) {
+                        TaskCursorPage tasks = taskService.getTasksAfter(caller, query, cursor, pageSize);
+                        tasks.items().forEach(task -> observer.onNext(toProto(task)));
+                        cursor = tasks.nextCursor();
+                        if (cursor == null) {
+                            done = true;
+                            observer.onCompleted();
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    done = true;
+                    observer.onError(GrpcExceptionAdvice.toStatus(e).asRuntimeException());
+                }
+            }
+        });
+    }
+
+    private static Set<TaskStatus> statuses(ListTasksRequest request) {
+        TaskStatus status = fromProto(request.getStatus());
+        return status == null ? null : Set.of(status);
+    }
+
+    private static Set<TaskPriority> priorities(ListTasksRequest request) {
+        TaskPriority priority = fromProto(request.getPriority());
+        return priority == null ? null : Set.of(priority);
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, T value) {
+        responseObserver.onNext(value);
+        responseObserver.onCompleted();
+    }
+
+    private static Task toProto(TaskDTO task) {
+        Task.Builder builder = Task.newBuilder()
+                .setId(task.getId())
+                .setStatus(toProto(TaskStatus.valueOf(task.getStatus())))
+                .setPriority(toProto(TaskPriority.valueOf(task.getPriority())));
+        if (task.getAuthor() != null) builder.setAuthor(toProto(task.getAuthor()));
+        if (task.getWorker() != null) task.getWorker().forEach(worker -> builder.addWorkers(toProto(worker)));
+        if (task.getTitle() != null) builder.setTitle(task.getTitle());
+        if (task.getComment() != null) builder.setComment(task.getComment());
+        if (task.getDueAt() != null) {
+            builder.setDueAt(Timestamp.newBuilder()
+                    .setSeconds(task.getDueAt().getEpochSecond())
+                    .setNanos(task.getDueAt().getNano()));
+        }
+        if (task.getTeamId() != null) builder.setTeamId(task.getTeamId());
+        return builder.build();
+    }
+
+    private static User toProto(UserDTO user) {
+        User.Builder builder = User.newBuilder().setId(user.getId());
+        if (user.getNickName() != null) builder.setNickname(user.getNickName());
+        if (user.getEmail() != null) builder.setEmail(user.getEmail());
+        return builder.build();
+    }
+
+    private static Status toProto(TaskStatus status) {
+        return switch (status) {
+            case Complete -> Status.COMPLETE;
+            case In_progress -> Status.IN_PROGRESS;
+            case Received -> Status.RECEIVED;
+        };
+    }
+
+    private static Priority toProto(TaskPriority priority) {
+        return switch (priority) {
+            case Low -> Priority.LOW;
+            case Medium -> Priority.MEDIUM;
+            case High -> Priority.HIGH;
+        };
+    }
+
+    private static TaskStatus fromProto(Status status) {
+        return switch (status) {
+            case COMPLETE -> TaskStatus.Complete;
+            case IN_PROGRESS -> TaskStatus.In_progress;
+            case RECEIVED -> TaskStatus.Received;
+            case STATUS_UNSPECIFIED, UNRECOGNIZED -> null;
+        };
+    }
+
+    private static TaskPriority fromProto(Priority priority) {
+        return switch (priority) {
+            case LOW -> TaskPriority.Low;
+            case MEDIUM -> TaskPriority.Medium;
+            case HIGH -> TaskPriority.High;
+            case PRIORITY_UNSPECIFIED, UNRECOGNIZED -> null;
+        };
+    }
+}
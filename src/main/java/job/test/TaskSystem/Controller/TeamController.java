@@ -0,0 +1,179 @@
+package job.test.TaskSystem.Controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TeamDTO;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.JwtService;
+import job.test.TaskSystem.Service.TaskService;
+import job.test.TaskSystem.Service.TeamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер для управления командами.
+ * Предоставляет API для создания команд, управления их составом и получения задач команды.
+ */
+@Validated
+@RestController
+@RequestMapping("/team")
+@RequiredArgsConstructor
+@Tag(name = "Team Controller", description = "Контроллер для управления командами. Предоставляет API для создания команд, управления их составом и получения задач команды.")
+public class TeamController {
+    private final TeamService teamService;
+    private final TaskService taskService;
+    private final JwtService jwtService;
+
+    /**
+     * Получает команды текущего пользователя.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @return Список DTO команд.
+     */
+    @Operation(
+            summary = "Получение команд текущего пользователя",
+            description = "Эндпоинт для получения команд, в которых состоит текущий пользователь. Возвращает список DTO команд."
+    )
+    @GetMapping()
+    public ResponseEntity<List<TeamDTO>> getTeams(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(List.of());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(teamService.getTeams(user));
+    }
+
+    /**
+     * Создаёт команду, владельцем которой становится текущий пользователь.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param name                Название команды.
+     * @return DTO новой команды.
+     */
+    @Operation(
+            summary = "Создать команду",
+            description = "Эндпоинт для создания команды. Текущий пользователь становится её владельцем и участником. Возвращает DTO новой команды."
+    )
+    @PostMapping()
+    public ResponseEntity<TeamDTO> createTeam(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @NotEmpty(message = "Name can`t be empty") @Size(max = 255, message = "Name can`t be more than 255 long") @Parameter(description = "Название команды") @Schema(maxLength = 255) String name)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(teamService.createTeam(user, name));
+    }
+
+    /**
+     * Добавляет пользователя в команду.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param teamID              ID команды.
+     * @param email               Email нового участника.
+     * @return Сообщение об успешном добавлении участника.
+     */
+    @Operation(
+            summary = "Добавить участника в команду",
+            description = "Эндпоинт для добавления пользователя в команду. Доступен только владельцу команды."
+    )
+    @PutMapping("/member")
+    public ResponseEntity<String> addMember(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID команды") Long teamID,
+            @RequestParam @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email участника") @Schema(maxLength = 255) String email)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        teamService.addMember(user, teamID, email);
+        return ResponseEntity.ok("Member added");
+    }
+
+    /**
+     * Удаляет пользователя из команды.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param teamID              ID команды.
+     * @param email               Email участника.
+     * @return Сообщение об успешном удалении участника.
+     */
+    @Operation(
+            summary = "Удалить участника из команды",
+            description = "Эндпоинт для удаления пользователя из команды. Доступен только владельцу команды."
+    )
+    @DeleteMapping("/member")
+    public ResponseEntity<String> removeMember(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @RequestParam @Min(1) @Parameter(description = "ID команды") Long teamID,
+            @RequestParam @Email(message = "Invalid email format") @Size(max = 255, message = "email can`t be more than 255 long") @Parameter(description = "Email участника") @Schema(maxLength = 255) String email)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+
+        UserDTO user = jwtService.extractUser(token);
+
+        teamService.removeMember(user, teamID, email);
+        return ResponseEntity.ok("Member removed");
+    }
+
+    /**
+     * Получает задачи команды.
+     *
+     * @param authorizationHeader Заголовок авторизации с JWT токеном.
+     * @param teamID              ID команды.
+     * @param pageable            Параметры пагинации.
+     * @return Страница DTO задач команды.
+     */
+    @Operation(
+            summary = "Получение задач команды",
+            description = "Эндпоинт для получения задач команды, в которой состоит текущий пользователь. Возвращает страницу DTO задач."
+    )
+    @GetMapping("/{teamID}/tasks")
+    public ResponseEntity<Page<TaskDTO>> getTeamTasks(
+            @RequestHeader("Authorization") @Parameter(description = "Заголовок авторизации с JWT токеном") String authorizationHeader,
+            @PathVariable @Min(1) @Parameter(description = "ID команды") Long teamID,
+            Pageable pageable)
+    {
+        String token = extractJwtToken(authorizationHeader);
+        if (token == null) return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Page.empty());
+
+        UserDTO user = jwtService.extractUser(token);
+
+        return ResponseEntity.ok(taskService.getTeamTasks(user, teamID, pageable));
+    }
+
+    /**
+     * Извлекает JWT токен из заголовка авторизации.
+     *
+     * @param authorizationHeader Заголовок авторизации.
+     * @return JWT токен или null, если токен не найден.
+     */
+    private String extractJwtToken(String authorizationHeader) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            return authorizationHeader.substring(7);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.ArchivedTask;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Репозиторий для работы с архивными задачами.
+ * Помимо чтения архива содержит запросы, копирующие пачку задач из основной таблицы.
+ */
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+    Page<ArchivedTask> findAllByAuthorEmail(String email, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO tasks_archive (id, author_id, title, status, priority, comment, completed_at, archived_at) " +
+            "SELECT id, author_id, title, status, priority, comment, updated_at, now() FROM tasks WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO tasks_archive_workers (task_id, workers_id) " +
+            "SELECT task_id, workers_id FROM tasks_workers WHERE task_id IN (:ids)",
+            nativeQuery = true)
+    int copyWorkersFromTasks(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,67 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с сохранёнными ответами идемпотентных запросов.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    Optional<IdempotencyRecord> findByIdAndExpiresAtAfter(String id, Instant now);
+
+    /**
+     * Занимает ключ записью о выполняемом запросе со статусом 0, если по ключу нет действующей записи.
+     * Истёкшая запись, в том числе брошенная упавшим экземпляром, перезаписывается.
+     *
+     * @return 1, если ключ занят этим вызовом, иначе 0.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, fingerprint, status, expires_at) " +
+            "VALUES (:id, :fingerprint, 0, :claimedUntil) " +
+            "ON CONFLICT (id) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, status = 0, " +
+            "content_type = NULL, body = NULL, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < :now",
+            nativeQuery = true)
+    int claim(@Param("id") String id,
+              @Param("fingerprint") String fingerprint,
+              @Param("claimedUntil") Instant claimedUntil,
+              @Param("now") Instant now);
+
+    /**
+     * Сохраняет ответ в запись, занятую {@link #claim}. Срок занятия служит меткой владельца:
+     * если ключ успели перезанять после истечения срока, запись не меняется.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET status = :status, content_type = :contentType, body = :body, " +
+            "expires_at = :expiresAt WHERE id = :id AND status = 0 AND expires_at = :claimedUntil",
+            nativeQuery = true)
+    int complete(@Param("id") String id,
+                 @Param("claimedUntil") Instant claimedUntil,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body,
+                 @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Освобождает ключ, занятый {@link #claim}, не сохраняя ответ.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE id = :id AND status = 0 AND expires_at = :claimedUntil",
+            nativeQuery = true)
+    int release(@Param("id") String id, @Param("claimedUntil") Instant claimedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
@@ -0,0 +1,35 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с отозванными токенами.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    List<RevokedToken> findAllByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant expiresAfter);
+
+    /**
+     * Записывает отзыв, если его ещё нет.
+     *
+     * @return 1, если отзыв записан этим вызовом, 0 - если такой ключ уже отозван.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (id, revoked_at, expires_at) VALUES (:id, :revokedAt, :expiresAt) " +
+            "ON CONFLICT (id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("revokedAt") Instant revokedAt, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
@@ -0,0 +1,13 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.TaskAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, Long> {
+    List<TaskAttachment> findAllByTaskIdOrderById(Long taskId);
+
+    Optional<TaskAttachment> findByIdAndTaskId(Long id, Long taskId);
+}
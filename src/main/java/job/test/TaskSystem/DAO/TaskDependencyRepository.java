@@ -0,0 +1,65 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.TaskDependency;
+import job.test.TaskSystem.Model.TaskStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с зависимостями между задачами.
+ * Обходы графа выполняются рекурсивными запросами на стороне базы данных.
+ */
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, Long> {
+    boolean existsByBlockerIdAndBlockedId(Long blockerId, Long blockedId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TaskDependency d where d.blocker.id = :blockerId and d.blocked.id = :blockedId")
+    int deleteEdge(@Param("blockerId") Long blockerId, @Param("blockedId") Long blockedId);
+
+    /**
+     * Проверяет, достижима ли задача {@code to} из задачи {@code from} по рёбрам "блокирует".
+     */
+    @Query(value = "WITH RECURSIVE reach(id) AS (" +
+            "SELECT blocked_id FROM task_dependencies WHERE blocker_id = :from " +
+            "UNION " +
+            "SELECT d.blocked_id FROM task_dependencies d JOIN reach r ON d.blocker_id = r.id" +
+            ") SELECT EXISTS (SELECT 1 FROM reach WHERE id = :to)",
+            nativeQuery = true)
+    boolean isReachable(@Param("from") Long from, @Param("to") Long to);
+
+    /**
+     * Возвращает ID всех задач, которые прямо или транзитивно блокируют указанную задачу.
+     */
+    @Query(value = "WITH RECURSIVE blockers(id) AS (" +
+            "SELECT blocker_id FROM task_dependencies WHERE blocked_id = :id " +
+            "UNION " +
+            "SELECT d.blocker_id FROM task_dependencies d JOIN blockers b ON d.blocked_id = b.id" +
+            ") SELECT id FROM blockers",
+            nativeQuery = true)
+    List<Long> findTransitiveBlockerIds(@Param("id") Long id);
+
+    /**
+     * Возвращает рёбра между незавершёнными задачами автора в виде пар {@code [blockerId, blockedId]}.
+     */
+    @Query("select d.blocker.id, d.blocked.id from TaskDependency d " +
+            "where d.blocker.author.email = :email and d.blocker.status <> :done and d.blocked.status <> :done")
+    List<Object[]> findOpenEdgesByAuthorEmail(@Param("email") String email, @Param("done") TaskStatus done);
+
+    /**
+     * Берёт транзакционную блокировку графа автора, чтобы параллельные вставки рёбер не образовали цикл.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer lockGraph(@Param("key") long key);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM task_dependencies WHERE blocker_id IN (:ids) OR blocked_id IN (:ids)", nativeQuery = true)
+    int hardDeleteByTaskIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,30 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.TaskHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Репозиторий для чтения истории изменений задач. Запись идёт пачками через {@link job.test.TaskSystem.Service.TaskHistoryService}.
+ */
+public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long> {
+    List<TaskHistory> findByTaskIdAndIdLessThanOrderByIdDesc(Long taskId, Long cursor, Limit limit);
+
+    /**
+     * Проверяет, что пользователь автор или исполнитель задачи, в том числе удалённой или перенесённой в архив:
+     * история таких задач остаётся доступной их участникам.
+     */
+    @Query(value = "SELECT EXISTS (" +
+            "SELECT 1 FROM tasks t JOIN users u ON u.id = t.author_id WHERE t.id = :taskId AND u.email = :email " +
+            "UNION ALL SELECT 1 FROM tasks_workers tw JOIN users u ON u.id = tw.workers_id " +
+            "WHERE tw.task_id = :taskId AND u.email = :email " +
+            "UNION ALL SELECT 1 FROM tasks_archive a JOIN users u ON u.id = a.author_id WHERE a.id = :taskId AND u.email = :email " +
+            "UNION ALL SELECT 1 FROM tasks_archive_workers aw JOIN users u ON u.id = aw.workers_id " +
+            "WHERE aw.task_id = :taskId AND u.email = :email)",
+            nativeQuery = true)
+    boolean isParticipant(@Param("taskId") Long taskId, @Param("email") String email);
+}
@@ -0,0 +1,16 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.Task;
+import job.test.TaskSystem.Model.TaskNode;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Выборка задач без автора и исполнителей.
+ * В отличие от {@code findAll(Specification, Pageable)} не загружает связи задачи,
+ * поэтому страница читается одним запросом и одним запросом подсчёта.
+ */
+public interface TaskNodeRepository {
+    Page<TaskNode> findNodes(Specification<Task> specification, Pageable pageable);
+}
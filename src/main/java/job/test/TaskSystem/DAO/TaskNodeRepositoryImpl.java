@@ -0,0 +1,62 @@
+package job.test.TaskSystem.DAO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import job.test.TaskSystem.Model.Task;
+import job.test.TaskSystem.Model.TaskNode;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+class TaskNodeRepositoryImpl implements TaskNodeRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskNode> findNodes(Specification<Task> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<TaskNode> select = cb.createQuery(TaskNode.class);
+        Root<Task> root = select.from(Task.class);
+        select.select(cb.construct(TaskNode.class,
+                root.get("id"),
+                root.get("author").get("id"),
+                root.get("title"),
+                root.get("status"),
+                root.get("priority"),
+                root.get("comment"),
+                root.get("dueAt"),
+                root.get("teamId")));
+        Predicate predicate = specification.toPredicate(root, select, cb);
+        if (predicate != null) select.where(predicate);
+        // Сортировка по ID добавляется последней, чтобы страницы не перекрывались при равных ключах
+        select.orderBy(QueryUtils.toOrders(pageable.getSort().and(Sort.by("id")), root, cb));
+
+        List<TaskNode> content = entityManager.createQuery(select)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return new PageImpl<>(content, pageable, pageable.getOffset() + content.size());
+        }
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<Task> countRoot = count.from(Task.class);
+        count.select(cb.count(countRoot));
+        Predicate countPredicate = specification.toPredicate(countRoot, count, cb);
+        if (countPredicate != null) count.where(countPredicate);
+
+        return new PageImpl<>(content, pageable, entityManager.createQuery(count).getSingleResult());
+    }
+}
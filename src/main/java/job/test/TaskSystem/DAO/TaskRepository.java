@@ -6,14 +6,22 @@ import job.test.TaskSystem.Model.TaskStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Репозиторий для работы с задачами.
  * Предоставляет методы для выполнения стандартных CRUD операций и специфических запросов.
  */
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskNodeRepository {
     Page<Task> findAllByAuthorEmail(String email, Pageable pageable);
     Page<Task> findAllByAuthorEmailAndStatus(String email, TaskStatus status, Pageable pageable);
     Page<Task> findAllByAuthorEmailAndPriority(String email, TaskPriority priority, Pageable pageable);
@@ -22,8 +30,189 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findAllByWorkersEmailAndPriority(String email, TaskPriority priority, Pageable pageable);
     Page<Task> findAllByWorkersEmailAndStatus(String email, TaskStatus status, Pageable pageable);
 
+    Page<Task> findAllByTeamId(Long teamId, Pageable pageable);
+
     Optional<Task> findByIdAndAuthorEmail(Long id, String email);
 
-    Boolean existsByTitleAndAuthorEmail(String title, String email);
+    /**
+     * Создаёт задачу, если у автора нет другой неудалённой задачи с тем же заголовком.
+     * Номер из последовательности, вставка и проверка уникальности выполняются за один запрос.
+     *
+     * @return ID новой задачи или пустое значение, если заголовок уже занят.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO tasks (id, author_id, title, status, priority, comment, updated_at) " +
+            "VALUES (nextval('task_id_seq'), :authorId, :title, :status, :priority, :comment, now()) " +
+            "ON CONFLICT (author_id, title) WHERE deleted_at IS NULL DO NOTHING RETURNING id",
+            nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("authorId") Long authorId, @Param("title") String title,
+                                  @Param("status") int status, @Param("priority") int priority,
+                                  @Param("comment") String comment);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tasks SET deleted_at = :now " +
+            "WHERE id = :id AND deleted_at IS NULL AND author_id = (SELECT u.id FROM users u WHERE u.email = :email)",
+            nativeQuery = true)
+    int softDeleteByIdAndAuthorEmail(@Param("id") Long id, @Param("email") String email, @Param("now") Instant now);
+
+    @Query(value = "SELECT id FROM tasks " +
+            "WHERE status = :status AND deleted_at IS NULL AND updated_at < :before " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("status") int status, @Param("before") Instant before, @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM tasks WHERE deleted_at < :before ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockPurgeableIds(@Param("before") Instant before, @Param("limit") int limit);
+
+    boolean existsByIdAndAuthorId(Long id, Long authorId);
+
+    /**
+     * Ставит метку на неудалённую задачу автора.
+     *
+     * @return 1, если метка поставлена, 0 - если задача не найдена у автора или метка уже стоит.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO task_tags (task_id, tag) " +
+            "SELECT t.id, :tag FROM tasks t WHERE t.id = :taskId AND t.author_id = :authorId AND t.deleted_at IS NULL " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int addTag(@Param("taskId") Long taskId, @Param("authorId") Long authorId, @Param("tag") String tag);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM task_tags tt USING tasks t " +
+            "WHERE tt.task_id = t.id AND t.id = :taskId AND t.author_id = :authorId AND tt.tag = :tag",
+            nativeQuery = true)
+    int removeTag(@Param("taskId") Long taskId, @Param("authorId") Long authorId, @Param("tag") String tag);
+
+    /**
+     * Загружает метки всех неудалённых задач автора для построения индекса меток.
+     * Возвращает пары {@code [ID задачи, метка]}.
+     */
+    @Query(value = "SELECT tt.task_id, tt.tag FROM task_tags tt JOIN tasks t ON t.id = tt.task_id " +
+            "WHERE t.author_id = :authorId AND t.deleted_at IS NULL",
+            nativeQuery = true)
+    List<Object[]> findTagsByAuthorId(@Param("authorId") Long authorId);
+
+    @Query("select count(t) > 0 from Task t left join t.workers w where t.id = :id and (t.author.email = :email or w.email = :email)")
+    boolean isParticipant(@Param("id") Long id, @Param("email") String email);
+
+    /**
+     * Загружает исполнителей сразу для нескольких задач одним запросом.
+     * Возвращает пары {@code [ID задачи, исполнитель]}.
+     */
+    @Query("select t.id, w from Task t join t.workers w where t.id in :ids")
+    List<Object[]> findWorkersByTaskIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT u.email FROM tasks t JOIN users u ON u.id = t.author_id WHERE t.id = :id " +
+            "UNION SELECT u.email FROM tasks_workers tw JOIN users u ON u.id = tw.workers_id WHERE tw.task_id = :id",
+            nativeQuery = true)
+    List<String> findParticipantEmails(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tasks_workers WHERE task_id IN (:ids)", nativeQuery = true)
+    int hardDeleteWorkers(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM task_tags WHERE task_id IN (:ids)", nativeQuery = true)
+    int hardDeleteTags(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN (:ids)", nativeQuery = true)
+    int hardDelete(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Арендует пачку задач, срок которых наступает до {@code horizon}, для планирования напоминаний на этом узле.
+     * Возвращает пары {@code [id, dueAt в миллисекундах]}. Срок в базе хранится с микросекундами, поэтому
+     * здесь и в проверках напоминаний он сравнивается усечённым до миллисекунд.
+     */
+    @Transactional
+    @Query(value = "UPDATE tasks SET reminder_lease_until = :leaseUntil WHERE id IN (" +
+            "SELECT id FROM tasks " +
+            "WHERE due_at < :horizon AND reminded_at IS NULL AND deleted_at IS NULL AND status <> :complete " +
+            "AND (reminder_lease_until IS NULL OR reminder_lease_until < :now) " +
+            "ORDER BY due_at LIMIT :limit FOR UPDATE SKIP LOCKED" +
+            ") RETURNING id, CAST(ROUND(EXTRACT(EPOCH FROM date_trunc('milliseconds', due_at)) * 1000) AS bigint)",
+            nativeQuery = true)
+    List<Object[]> leaseDueTasks(@Param("now") Instant now,
+                                 @Param("horizon") Instant horizon,
+                                 @Param("leaseUntil") Instant leaseUntil,
+                                 @Param("complete") int complete,
+                                 @Param("limit") int limit);
+
+    @Query(value = "SELECT count(*) > 0 FROM tasks " +
+            "WHERE id = :id AND date_trunc('milliseconds', due_at) = :dueAt AND reminded_at IS NULL AND deleted_at IS NULL AND status <> :complete",
+            nativeQuery = true)
+    boolean isReminderPending(@Param("id") Long id, @Param("dueAt") Instant dueAt, @Param("complete") int complete);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tasks SET reminded_at = :now, reminder_lease_until = NULL " +
+            "WHERE id = :id AND date_trunc('milliseconds', due_at) = :dueAt AND reminded_at IS NULL AND deleted_at IS NULL AND status <> :complete",
+            nativeQuery = true)
+    int markReminded(@Param("id") Long id, @Param("dueAt") Instant dueAt, @Param("now") Instant now, @Param("complete") int complete);
+
+    /**
+     * Атомарно захватывает до {@code limit} задач исполнителя в статусе {@code received}:
+     * сначала с наибольшим приоритетом, затем самые старые. Строки, захватываемые параллельно, пропускаются.
+     * Возвращает ID захваченных задач.
+     */
+    @Transactional
+    @Query(value = "UPDATE tasks SET status = :inProgress, claimed_by_id = :workerId, claim_lease_until = :leaseUntil, updated_at = :now " +
+            "WHERE id IN (" +
+            "SELECT t.id FROM tasks t JOIN tasks_workers w ON w.task_id = t.id " +
+            "WHERE w.workers_id = :workerId AND t.status = :received AND t.deleted_at IS NULL " +
+            "ORDER BY t.priority DESC, t.id LIMIT :limit FOR UPDATE OF t SKIP LOCKED" +
+            ") RETURNING id",
+            nativeQuery = true)
+    List<Long> claimNext(@Param("workerId") Long workerId,
+                         @Param("received") int received,
+                         @Param("inProgress") int inProgress,
+                         @Param("now") Instant now,
+                         @Param("leaseUntil") Instant leaseUntil,
+                         @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tasks SET claim_lease_until = :leaseUntil " +
+            "WHERE id = :id AND claimed_by_id = :workerId AND status = :inProgress AND deleted_at IS NULL",
+            nativeQuery = true)
+    int renewClaim(@Param("id") Long id,
+                   @Param("workerId") Long workerId,
+                   @Param("inProgress") int inProgress,
+                   @Param("leaseUntil") Instant leaseUntil);
+
+    /**
+     * Снимает захват задачи исполнителем и переводит её в статус {@code status}.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE tasks SET status = :status, claimed_by_id = NULL, claim_lease_until = NULL, updated_at = :now " +
+            "WHERE id = :id AND claimed_by_id = :workerId AND status = :inProgress AND deleted_at IS NULL",
+            nativeQuery = true)
+    int finishClaim(@Param("id") Long id,
+                    @Param("workerId") Long workerId,
+                    @Param("inProgress") int inProgress,
+                    @Param("status") int status,
+                    @Param("now") Instant now);
 
+    /**
+     * Возвращает в очередь пачку задач, аренда которых истекла. Возвращает ID возвращённых задач.
+     */
+    @Transactional
+    @Query(value = "UPDATE tasks SET status = :received, claimed_by_id = NULL, claim_lease_until = NULL " +
+            "WHERE id IN (" +
+            "SELECT id FROM tasks WHERE status = :inProgress AND claim_lease_until < :now " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING id",
+            nativeQuery = true)
+    List<Long> requeueExpiredClaims(@Param("received") int received,
+                                    @Param("inProgress") int inProgress,
+                                    @Param("now") Instant now,
+                                    @Param("limit") int limit);
 }
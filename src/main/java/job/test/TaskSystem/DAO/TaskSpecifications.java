@@ -0,0 +1,78 @@
+package job.test.TaskSystem.DAO;
+
+import jakarta.persistence.criteria.Join;
+import job.test.TaskSystem.Model.Task;
+import job.test.TaskSystem.Model.TaskPriority;
+import job.test.TaskSystem.Model.TaskQuery;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Спецификации для динамических запросов к задачам.
+ * Каждая спецификация возвращает {@code null} для незаполненного критерия, и такой критерий не попадает в SQL.
+ */
+public final class TaskSpecifications {
+    private TaskSpecifications() {
+    }
+
+    /**
+     * Собирает спецификацию из всех заполненных критериев запроса.
+     *
+     * @param query Критерии поиска.
+     * @return Спецификация задач.
+     */
+    public static Specification<Task> matching(TaskQuery query) {
+        return Specification.where(authorEmail(query.authorEmail()))
+                .and(workerEmail(query.workerEmail()))
+                .and(statusIn(query.statuses()))
+                .and(priorityIn(query.priorities()))
+                .and(titleStartsWith(query.titlePrefix()));
+    }
+
+    public static Specification<Task> authorEmail(String email) {
+        return (root, query, cb) -> email == null ? null : cb.equal(root.get("author").get("email"), email);
+    }
+
+    public static Specification<Task> workerEmail(String email) {
+        return (root, query, cb) -> {
+            if (email == null) return null;
+            Join<Task, User> workers = root.join("workers");
+            return cb.equal(workers.get("email"), email);
+        };
+    }
+
+    public static Specification<Task> statusIn(Collection<TaskStatus> statuses) {
+        return (root, query, cb) -> statuses == null || statuses.isEmpty() ? null : root.get("status").in(statuses);
+    }
+
+    public static Specification<Task> priorityIn(Collection<TaskPriority> priorities) {
+        return (root, query, cb) -> priorities == null || priorities.isEmpty() ? null : root.get("priority").in(priorities);
+    }
+
+    /**
+     * Начало заголовка как {@code LIKE 'prefix%'} с экранированием. Вместе с отбором по автору такой запрос
+     * идёт по индексу {@code idx_tasks_author_title_prefix} из {@code schema.sql}.
+     */
+    public static Specification<Task> titleStartsWith(String prefix) {
+        return (root, query, cb) -> prefix == null || prefix.isEmpty()
+                ? null
+                : cb.like(root.get("title"), escapeLike(prefix) + "%", '\\');
+    }
+
+    public static Specification<Task> idAfter(Long id) {
+        return (root, query, cb) -> id == null ? null : cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Task> teamIn(Collection<Long> teamIds) {
+        return (root, query, cb) -> root.get("teamId").in(teamIds);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
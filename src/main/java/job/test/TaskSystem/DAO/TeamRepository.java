@@ -0,0 +1,34 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с командами и их составом.
+ */
+public interface TeamRepository extends JpaRepository<Team, Long> {
+    boolean existsByName(String name);
+
+    Optional<Team> findByIdAndOwnerEmail(Long id, String email);
+
+    @Query(value = "SELECT team_id FROM team_members WHERE user_id = :userId", nativeQuery = true)
+    List<Long> findTeamIdsByUserId(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO team_members (team_id, user_id) VALUES (:teamId, :userId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int addMember(@Param("teamId") Long teamId, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM team_members WHERE team_id = :teamId AND user_id = :userId", nativeQuery = true)
+    int removeMember(@Param("teamId") Long teamId, @Param("userId") Long userId);
+}
@@ -0,0 +1,14 @@
+package job.test.TaskSystem.DAO;
+
+import job.test.TaskSystem.Model.User;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователей по натуральному идентификатору (email).
+ * В отличие от производного запроса {@code findByEmail} использует кеш натуральных идентификаторов
+ * Hibernate и кеш второго уровня, поэтому повторные обращения не доходят до базы данных.
+ */
+public interface UserNaturalIdRepository {
+    Optional<User> findByNaturalEmail(String email);
+}
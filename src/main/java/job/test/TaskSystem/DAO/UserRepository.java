@@ -1,7 +1,10 @@
 package job.test.TaskSystem.DAO;
 
+import jakarta.persistence.QueryHint;
 import job.test.TaskSystem.Model.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
@@ -9,8 +12,9 @@ import java.util.Optional;
  * Репозиторий для работы с пользователями.
  * Предоставляет методы для выполнения стандартных CRUD операций и специфических запросов.
  */
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     Optional<User> findByEmail(String email);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
 }
@@ -0,0 +1,58 @@
+package job.test.TaskSystem.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Завершённая задача, перенесённая из основной таблицы в архив.
+ * Строки попадают сюда только из {@link job.test.TaskSystem.Service.TaskArchiveService}.
+ */
+@Entity
+@Table(name = "tasks_archive", indexes = @Index(name = "idx_tasks_archive_author", columnList = "author_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTask {
+    @Id
+    public Long id;
+
+    @ManyToOne
+    public User author;
+
+    @ManyToMany(fetch = FetchType.EAGER)
+    @JoinTable(
+            name = "tasks_archive_workers",
+            joinColumns = @JoinColumn(name = "task_id"),
+            inverseJoinColumns = @JoinColumn(name = "workers_id")
+    )
+    public List<User> workers;
+
+    public String title;
+    public TaskStatus status;
+    public TaskPriority priority;
+    @Column(length = 1000)
+    public String comment;
+
+    public Instant completedAt;
+    public Instant archivedAt;
+
+    public TaskDTO toDTO(){
+        return new TaskDTO(
+                id,
+                author.toDTO(),
+                workers.stream()
+                        .map(User::toDTO)
+                        .toList(),
+                title,
+                status.name(),
+                priority.name(),
+                comment,
+                null,
+                null
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package job.test.TaskSystem.Model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Запрос на смену пароля")
+public class ChangePasswordRequest {
+    @NotBlank(message = "Password is mandatory")
+    @Size(max = 255)
+    private String oldPassword;
+
+    @NotBlank(message = "Password is mandatory")
+    @Size(min = 6, max = 20, message = "Password must be between 6 and 20 characters")
+    private String newPassword;
+}
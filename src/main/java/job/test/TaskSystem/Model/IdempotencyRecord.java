@@ -0,0 +1,30 @@
+package job.test.TaskSystem.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Сохранённый ответ на запрос с заголовком {@code Idempotency-Key}.
+ * Ключом служит хеш пользователя, метода, пути и значения заголовка, поэтому одинаковые ключи
+ * разных пользователей или разных эндпоинтов не пересекаются.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 64)
+    public String id;
+    @Column(length = 64)
+    public String fingerprint;
+    public int status;
+    public String contentType;
+    public byte[] body;
+    public Instant expiresAt;
+}
@@ -6,7 +6,8 @@ import lombok.Data;
 
 @Data
 @AllArgsConstructor
-@Schema(description = "Ответ с Jwt токеном")
+@Schema(description = "Ответ с Jwt токенами доступа и обновления")
 public class JwtTokenResponse {
     private String token;
+    private String refreshToken;
 }
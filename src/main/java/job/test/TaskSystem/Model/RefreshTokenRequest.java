@@ -0,0 +1,16 @@
+package job.test.TaskSystem.Model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Запрос с токеном обновления")
+public class RefreshTokenRequest {
+    @NotBlank(message = "Refresh token is mandatory")
+    private String refreshToken;
+}
@@ -0,0 +1,25 @@
+package job.test.TaskSystem.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Отозванный токен или отзыв всех токенов пользователя.
+ * Для отдельного токена ключом служит его {@code jti}, для пользователя - {@code user:<id>}:
+ * тогда недействительны все токены пользователя, выпущенные до {@code revokedAt}.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    @Id
+    public String id;
+    public Instant revokedAt;
+    public Instant expiresAt;
+}
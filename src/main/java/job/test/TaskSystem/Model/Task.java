@@ -2,12 +2,25 @@ package job.test.TaskSystem.Model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_author_status", columnList = "author_id, status"),
+        @Index(name = "idx_tasks_author_priority", columnList = "author_id, priority"),
+        @Index(name = "idx_tasks_status_updated", columnList = "status, updated_at"),
+        @Index(name = "idx_tasks_due_at", columnList = "due_at"),
+        @Index(name = "idx_tasks_status_claim_lease", columnList = "status, claim_lease_until"),
+        @Index(name = "idx_tasks_team_status", columnList = "team_id, status")
+})
+@SQLRestriction("deleted_at is null")
 @Getter
 @Setter
 @Builder
@@ -23,6 +36,13 @@ public class Task {
     public User author;
 
     @OneToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 64)
+    @JoinTable(
+            name = "tasks_workers",
+            joinColumns = @JoinColumn(name = "task_id"),
+            inverseJoinColumns = @JoinColumn(name = "workers_id"),
+            indexes = @Index(name = "idx_tasks_workers_worker", columnList = "workers_id, task_id")
+    )
     public List<User> workers;
 
     public String title;
@@ -31,6 +51,31 @@ public class Task {
     @Column(length = 1000)
     public String comment;
 
+    @UpdateTimestamp
+    public Instant updatedAt;
+    public Instant deletedAt;
+
+    public Instant dueAt;
+    public Instant remindedAt;
+    public Instant reminderLeaseUntil;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    public User claimedBy;
+    public Instant claimLeaseUntil;
+
+    public Long teamId;
+
+    // Метки читаются только индексом меток и не входят в DTO, поэтому выборки задач их не загружают
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(
+            name = "task_tags",
+            joinColumns = @JoinColumn(name = "task_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_task_tags", columnNames = {"task_id", "tag"}),
+            indexes = @Index(name = "idx_task_tags_tag", columnList = "tag, task_id")
+    )
+    @Column(name = "tag", length = 50, nullable = false)
+    public Set<String> tags;
+
     public void loadFromDTO(TaskDTO dto){
         Optional.ofNullable(dto.worker)
                 .ifPresent(workers -> this.workers = workers.stream()
@@ -52,7 +97,9 @@ public class Task {
                 title,
                 status.name(),
                 priority.name(),
-                comment
+                comment,
+                dueAt,
+                teamId
         );
     }
 
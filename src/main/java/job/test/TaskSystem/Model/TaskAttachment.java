@@ -0,0 +1,52 @@
+package job.test.TaskSystem.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Метаданные вложения задачи. Содержимое лежит в {@code AttachmentStore} под своим SHA-256,
+ * поэтому одинаковые файлы хранятся один раз, а выборки задач не затрагивают эту таблицу.
+ * Задача хранится идентификатором без внешнего ключа, как и в {@link TaskHistory}.
+ */
+@Entity
+@Table(name = "task_attachments", indexes = {
+        @Index(name = "idx_task_attachments_task", columnList = "task_id, id"),
+        @Index(name = "idx_task_attachments_sha256", columnList = "sha256")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskAttachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_attachment_id_seq")
+    @SequenceGenerator(name = "task_attachment_id_seq", sequenceName = "task_attachment_id_seq", allocationSize = 1)
+    public Long id;
+
+    @Column(nullable = false)
+    public Long taskId;
+
+    @Column(nullable = false, length = 64)
+    public String sha256;
+
+    @Column(nullable = false)
+    public String fileName;
+
+    @Column(nullable = false)
+    public String contentType;
+
+    @Column(nullable = false)
+    public long size;
+
+    public Long uploaderId;
+
+    @Column(nullable = false)
+    public Instant createdAt;
+
+    public TaskAttachmentDTO toDTO() {
+        return new TaskAttachmentDTO(id, taskId, fileName, contentType, size, sha256, uploaderId, createdAt);
+    }
+}
@@ -0,0 +1,25 @@
+package job.test.TaskSystem.Model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Вложение задачи")
+public class TaskAttachmentDTO {
+    public Long id;
+    public Long taskId;
+    public String fileName;
+    public String contentType;
+    public long size;
+    public String sha256;
+    public Long uploaderId;
+    public Instant createdAt;
+}
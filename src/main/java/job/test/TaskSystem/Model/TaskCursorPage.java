@@ -0,0 +1,12 @@
+package job.test.TaskSystem.Model;
+
+import java.util.List;
+
+/**
+ * Порция задач в порядке ID для потоковой выдачи.
+ *
+ * @param items      Задачи.
+ * @param nextCursor ID, после которого читать следующую порцию, или {@code null}, если порция последняя.
+ */
+public record TaskCursorPage(List<TaskDTO> items, Long nextCursor) {
+}
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -23,20 +24,24 @@ public class TaskDTO {
     public String status;
     public String priority;
     public String comment;
+    public Instant dueAt;
+    public Long teamId;
 
     public Task toEntity(){
-        return new Task(
-                id,
-                Optional.ofNullable(author).map(UserDTO::toEntity).orElse(null),
-                Optional.ofNullable(worker)
+        return Task.builder()
+                .id(id)
+                .author(Optional.ofNullable(author).map(UserDTO::toEntity).orElse(null))
+                .workers(Optional.ofNullable(worker)
                         .map(list -> list.stream()
                                 .map(UserDTO::toEntity)
                                 .toList())
-                        .orElse(null),
-                title,
-                Optional.ofNullable(status).map(TaskStatus::valueOf).orElse(null),
-                Optional.ofNullable(priority).map(TaskPriority::valueOf).orElse(null),
-                comment
-        );
+                        .orElse(null))
+                .title(title)
+                .status(Optional.ofNullable(status).map(TaskStatus::valueOf).orElse(null))
+                .priority(Optional.ofNullable(priority).map(TaskPriority::valueOf).orElse(null))
+                .comment(comment)
+                .dueAt(dueAt)
+                .teamId(teamId)
+                .build();
     }
 }
\ No newline at end of file
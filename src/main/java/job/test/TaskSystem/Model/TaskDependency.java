@@ -0,0 +1,31 @@
+package job.test.TaskSystem.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Ребро графа зависимостей: задача {@code blocker} блокирует задачу {@code blocked}.
+ */
+@Entity
+@Table(
+        name = "task_dependencies",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_dependencies_edge", columnNames = {"blocker_id", "blocked_id"}),
+        indexes = @Index(name = "idx_task_dependencies_blocked", columnList = "blocked_id, blocker_id")
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDependency {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_dependency_id_seq")
+    @SequenceGenerator(name = "task_dependency_id_seq", sequenceName = "task_dependency_id_seq", allocationSize = 1)
+    public Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    public Task blocker;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    public Task blocked;
+}
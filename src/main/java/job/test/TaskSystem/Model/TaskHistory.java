@@ -0,0 +1,45 @@
+package job.test.TaskSystem.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Запись истории изменений задачи. Таблица только дополняется: строки не обновляются и не удаляются,
+ * поэтому время изменения растёт вместе с физическим порядком строк и индексируется BRIN индексом (см. schema.sql).
+ * Задача хранится идентификатором без внешнего ключа, чтобы история переживала архивацию и удаление задачи.
+ */
+@Entity
+@Table(name = "task_history", indexes = @Index(name = "idx_task_history_task", columnList = "task_id, id"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    @Column(nullable = false)
+    public Long taskId;
+
+    public Long actorId;
+
+    @Column(nullable = false)
+    public TaskHistoryField field;
+
+    @Column(columnDefinition = "text")
+    public String oldValue;
+
+    @Column(columnDefinition = "text")
+    public String newValue;
+
+    @Column(nullable = false)
+    public Instant changedAt;
+
+    public TaskHistoryDTO toDTO() {
+        return new TaskHistoryDTO(id, actorId, field.name(), oldValue, newValue, changedAt);
+    }
+}
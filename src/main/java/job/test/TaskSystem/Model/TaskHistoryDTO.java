@@ -0,0 +1,23 @@
+package job.test.TaskSystem.Model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Изменение задачи")
+public class TaskHistoryDTO {
+    public Long id;
+    public Long actorId;
+    public String field;
+    public String oldValue;
+    public String newValue;
+    public Instant changedAt;
+}
@@ -0,0 +1,12 @@
+package job.test.TaskSystem.Model;
+
+public enum TaskHistoryField {
+    Created,
+    Title,
+    Comment,
+    Status,
+    Workers,
+    DueAt,
+    Deleted,
+    Team
+}
@@ -0,0 +1,15 @@
+package job.test.TaskSystem.Model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Страница истории задачи от новых изменений к старым.
+ *
+ * @param items      Изменения.
+ * @param nextCursor Курсор следующей страницы или {@code null}, если страница последняя.
+ */
+@Schema(description = "Страница истории изменений задачи")
+public record TaskHistoryPage(List<TaskHistoryDTO> items, Long nextCursor) {
+}
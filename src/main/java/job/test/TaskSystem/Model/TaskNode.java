@@ -0,0 +1,32 @@
+package job.test.TaskSystem.Model;
+
+import java.time.Instant;
+
+/**
+ * Задача в выдаче GraphQL.
+ * Хранит только собственные столбцы задачи и ID автора: автор и исполнители подгружаются
+ * отдельными пачечными запросами, и только если клиент их запросил.
+ *
+ * @param id       ID задачи.
+ * @param authorId ID автора.
+ * @param title    Заголовок.
+ * @param status   Статус.
+ * @param priority Приоритет.
+ * @param comment  Комментарий.
+ * @param dueAt    Срок выполнения.
+ * @param teamId   ID команды.
+ */
+public record TaskNode(
+        Long id,
+        Long authorId,
+        String title,
+        TaskStatus status,
+        TaskPriority priority,
+        String comment,
+        Instant dueAt,
+        Long teamId
+) {
+    public TaskNode withStatus(TaskStatus status) {
+        return new TaskNode(id, authorId, title, status, priority, comment, dueAt, teamId);
+    }
+}
@@ -0,0 +1,21 @@
+package job.test.TaskSystem.Model;
+
+import java.util.Set;
+
+/**
+ * Критерии поиска задач. Незаполненные критерии не участвуют в запросе.
+ *
+ * @param authorEmail Email автора задач.
+ * @param workerEmail Email исполнителя задач.
+ * @param statuses    Допустимые статусы задач.
+ * @param priorities  Допустимые приоритеты задач.
+ * @param titlePrefix Начало заголовка задачи.
+ */
+public record TaskQuery(
+        String authorEmail,
+        String workerEmail,
+        Set<TaskStatus> statuses,
+        Set<TaskPriority> priorities,
+        String titlePrefix
+) {
+}
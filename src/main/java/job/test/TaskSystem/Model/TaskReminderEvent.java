@@ -0,0 +1,17 @@
+package job.test.TaskSystem.Model;
+
+import java.time.Instant;
+
+/**
+ * Событие напоминания о сроке задачи.
+ *
+ * @param taskId ID задачи.
+ * @param dueAt  Срок задачи.
+ * @param type   Тип напоминания.
+ */
+public record TaskReminderEvent(Long taskId, Instant dueAt, Type type) {
+    public enum Type {
+        Upcoming,
+        Overdue
+    }
+}
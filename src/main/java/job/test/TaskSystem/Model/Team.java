@@ -0,0 +1,42 @@
+package job.test.TaskSystem.Model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Set;
+
+/**
+ * Команда пользователей. Задачи, отнесённые к команде, видны всем её участникам.
+ * Состав команды хранится в таблице {@code team_members} и меняется отдельными запросами без загрузки коллекции.
+ */
+@Entity
+@Table(name = "teams", uniqueConstraints = @UniqueConstraint(name = "uk_teams_name", columnNames = "name"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Team {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_id_seq")
+    @SequenceGenerator(name = "team_id_seq", sequenceName = "team_id_seq", allocationSize = 1)
+    public Long id;
+
+    public String name;
+
+    @ManyToOne(optional = false)
+    public User owner;
+
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "team_members",
+            joinColumns = @JoinColumn(name = "team_id"),
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_team_members_user", columnList = "user_id, team_id")
+    )
+    public Set<User> members;
+
+    public TeamDTO toDTO() {
+        return new TeamDTO(id, name, owner.getId());
+    }
+}
@@ -0,0 +1,119 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.annotation.PostConstruct;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Хранилище содержимого вложений в локальном каталоге с адресацией по SHA-256.
+ * Загрузка пишется потоком во временный файл с подсчётом хеша, поэтому файл целиком в куче не держится,
+ * а затем атомарно переносится в {@code <каталог>/<первые два символа хеша>/<хеш>}. Если файл с таким хешем
+ * уже есть, временный файл удаляется: одинаковое содержимое хранится один раз.
+ */
+@Service
+public class AttachmentStore {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+
+    /**
+     * Сохранённое содержимое.
+     *
+     * @param sha256 Хеш содержимого в шестнадцатеричном виде.
+     * @param size   Размер в байтах.
+     */
+    public record StoredBlob(String sha256, long size) {
+    }
+
+    public AttachmentStore(@Value("${attachments.dir}") String dir,
+                           @Value("${attachments.max-size}") DataSize maxSize) {
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+        this.incoming = root.resolve("incoming");
+        this.maxSize = maxSize.toBytes();
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(incoming);
+    }
+
+    /**
+     * Сохраняет содержимое потока.
+     *
+     * @param content Поток с содержимым, не закрывается.
+     * @return Хеш и размер сохранённого содержимого.
+     * @throws InvalidRequestException Если содержимое больше {@code attachments.max-size}.
+     * @throws IOException             Если не удалось прочитать поток или записать файл.
+     */
+    public StoredBlob store(InputStream content) throws InvalidRequestException, IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new InvalidRequestException("Attachment is larger than " + maxSize + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) channel.write(chunk);
+                }
+                channel.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Возвращает путь к содержимому по его хешу.
+     *
+     * @param sha256 Хеш содержимого.
+     * @return Абсолютный путь к файлу.
+     * @throws IllegalArgumentException Если строка не является SHA-256 в шестнадцатеричном виде.
+     */
+    public Path path(String sha256) throws IllegalArgumentException {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Invalid content hash " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package job.test.TaskSystem.Service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import job.test.TaskSystem.Model.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,7 +16,8 @@ import org.springframework.stereotype.Service;
 
 /**
  * Сервис для обеспечения идентификации и аутентификации пользователя.
- * Предоставляет методы для регистрации новых пользователей и аутентификации существующих пользователей.
+ * Предоставляет методы для регистрации новых пользователей и аутентификации существующих пользователей,
+ * обновления и отзыва токенов.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,12 +26,13 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
-     * Регистрирует нового пользователя и возвращает его JWT токен.
+     * Регистрирует нового пользователя и возвращает его JWT токены.
      *
      * @param request Информация о новом пользователе.
-     * @return JWT токен пользователя.
+     * @return JWT токены пользователя.
      * @throws EntityExistsException Если пользователь с указанным email уже существует.
      */
     public JwtTokenResponse signUp(SignUpRequest request) throws EntityExistsException {
@@ -44,16 +49,14 @@ public class AuthenticationService {
 
         userService.save(user);
 
-        String jwt = jwtService.generateToken(user);
-
-        return new JwtTokenResponse(jwt);
+        return issueTokens(user);
     }
 
     /**
-     * Аутентифицирует пользователя и возвращает его JWT токен.
+     * Аутентифицирует пользователя и возвращает его JWT токены.
      *
      * @param request Информация для аутентификации пользователя.
-     * @return JWT токен пользователя.
+     * @return JWT токены пользователя.
      * @throws org.springframework.security.core.AuthenticationException Если аутентификация не удалась.
      */
     public JwtTokenResponse signIn(SignInRequest request) throws EntityNotFoundException, AuthenticationException {
@@ -64,7 +67,81 @@ public class AuthenticationService {
 
         User user = userService.getUserByEmail(request.getEmail());
 
-        String jwt = jwtService.generateToken(user);
-        return new JwtTokenResponse(jwt);
+        return issueTokens(user);
+    }
+
+    /**
+     * Выдаёт новую пару токенов по токену обновления. Использованный токен обновления отзывается.
+     * Новые токены выдаёт только тот запрос, который сам отозвал токен обновления, поэтому
+     * одновременные обновления одним токеном не получают несколько пар.
+     *
+     * @param request Запрос с токеном обновления.
+     * @return Новые JWT токены пользователя.
+     * @throws JwtException            Если токен недействителен или просрочен.
+     * @throws BadCredentialsException Если токен не является токеном обновления или отозван.
+     */
+    public JwtTokenResponse refresh(RefreshTokenRequest request) throws JwtException, AuthenticationException {
+        Claims claims = requireRefreshToken(request.getRefreshToken());
+
+        User user = userService.getUserByEmail(claims.get("email", String.class));
+        if (!tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration().toInstant())) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        return issueTokens(user);
+    }
+
+    /**
+     * Завершает сессию: отзывает токен обновления и, если передан, токен доступа.
+     *
+     * @param accessToken Токен доступа, может быть {@code null}.
+     * @param request     Запрос с токеном обновления.
+     * @throws JwtException            Если токен обновления недействителен или просрочен.
+     * @throws BadCredentialsException Если токен не является токеном обновления или отозван.
+     */
+    public void logout(String accessToken, RefreshTokenRequest request) throws JwtException, AuthenticationException {
+        Claims claims = requireRefreshToken(request.getRefreshToken());
+        tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration().toInstant());
+
+        if (accessToken != null) {
+            try {
+                Claims access = jwtService.extractAllClaims(accessToken);
+                tokenRevocationService.revokeToken(access.getId(), access.getExpiration().toInstant());
+            } catch (JwtException ignored) {
+                // Просроченный или чужой токен доступа отзывать не нужно
+            }
+        }
+    }
+
+    /**
+     * Меняет пароль пользователя и отзывает все ранее выданные ему токены.
+     *
+     * @param userDTO DTO пользователя.
+     * @param request Старый и новый пароли.
+     * @throws AuthenticationException Если старый пароль неверен.
+     */
+    public void changePassword(UserDTO userDTO, ChangePasswordRequest request) throws AuthenticationException {
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                userDTO.getEmail(),
+                request.getOldPassword()
+        ));
+
+        User user = userService.getUserByEmail(userDTO.getEmail());
+        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        userService.save(user);
+
+        tokenRevocationService.revokeAllForUser(user.getId());
+    }
+
+    private Claims requireRefreshToken(String token) throws JwtException, AuthenticationException {
+        Claims claims = jwtService.extractAllClaims(token);
+        if (!jwtService.isTokenOfType(claims, JwtService.REFRESH_TOKEN_TYPE) || tokenRevocationService.isRevoked(claims)) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return claims;
+    }
+
+    private JwtTokenResponse issueTokens(User user) {
+        return new JwtTokenResponse(jwtService.generateToken(user), jwtService.generateRefreshToken(user));
     }
 }
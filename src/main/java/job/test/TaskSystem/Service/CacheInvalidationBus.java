@@ -0,0 +1,255 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Шина согласования кешей между экземплярами приложения на Postgres {@code LISTEN/NOTIFY}.
+ * Сервисы публикуют ключи изменённых данных по темам, ключи копятся в памяти и раз в
+ * {@code cache.bus.flush-interval-millis} уходят одним {@code NOTIFY} на тему, поэтому частые изменения одного ключа
+ * схлопываются. Каждый экземпляр слушает канал на отдельном соединении вне пула и передаёт чужие ключи подписчикам темы.
+ * Пока соединение потеряно, устаревание локальных кешей ограничено их собственным сроком жизни,
+ * а после переподключения кеши подписчиков сбрасываются целиком, потому что уведомления за это время потеряны.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus {
+    public static final String TASK_PAGES = "task-pages";
+    public static final String USERS = "users";
+    public static final String TEAM_MEMBERSHIPS = "team-memberships";
+    public static final String TASK_TAGS = "task-tags";
+
+    private static final String CHANNEL = "cache_invalidation";
+    private static final String APPLICATION_NAME = "TaskSystem-cache-bus";
+    // Предел полезной нагрузки NOTIFY - 8000 байт
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final long pollMillis;
+    private final Duration reconnectDelay;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private Map<String, Set<String>> pending = new HashMap<>();
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection listenConnection;
+    private Thread listener;
+
+    /**
+     * Подписка на тему.
+     *
+     * @param handler Сбрасывает записи кеша по ключам.
+     * @param reset   Сбрасывает кеш целиком.
+     */
+    private record Subscription(Consumer<Set<String>> handler, Runnable reset) {
+    }
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username}") String username,
+                                @Value("${spring.datasource.password}") String password,
+                                @Value("${cache.bus.enabled}") boolean enabled,
+                                @Value("${cache.bus.poll-millis}") long pollMillis,
+                                @Value("${cache.bus.reconnect-delay}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.pollMillis = pollMillis;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /**
+     * Запускает поток, слушающий канал.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        running = true;
+        listener = Thread.ofPlatform().name("cache-invalidation-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener == null) return;
+        listener.interrupt();
+        closeQuietly(listenConnection);
+    }
+
+    /**
+     * @return {@code true}, если экземпляр сейчас получает уведомления других экземпляров.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Подписывает кеш на ключи темы, изменённые другими экземплярами.
+     *
+     * @param topic   Тема.
+     * @param handler Сбрасывает записи кеша по ключам.
+     * @param reset   Сбрасывает кеш целиком после потери соединения.
+     */
+    public void subscribe(String topic, Consumer<Set<String>> handler, Runnable reset) {
+        subscriptions.computeIfAbsent(topic, key -> new CopyOnWriteArrayList<>()).add(new Subscription(handler, reset));
+    }
+
+    /**
+     * Ставит ключи в очередь на рассылку другим экземплярам. Свой кеш вызывающий сбрасывает сам.
+     *
+     * @param topic Тема.
+     * @param keys  Изменённые ключи.
+     */
+    public void publish(String topic, Collection<String> keys) {
+        if (!enabled || keys.isEmpty()) return;
+        synchronized (pendingLock) {
+            pending.computeIfAbsent(topic, key -> new HashSet<>()).addAll(keys);
+        }
+    }
+
+    /**
+     * Рассылает накопленные ключи. Если база недоступна, ключи отбрасываются: другие экземпляры
+     * увидят изменения по истечении срока жизни своих кешей.
+     */
+    @Scheduled(fixedDelayString = "${cache.bus.flush-interval-millis}")
+    public void flush() {
+        Map<String, Set<String>> batch;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        try {
+            batch.forEach((topic, keys) -> payloads(topic, keys)
+                    .forEach(payload -> jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish cache invalidations, other nodes fall back to cache TTL", e);
+        }
+    }
+
+    private List<String> payloads(String topic, Set<String> keys) {
+        String header = nodeId + "\n" + topic;
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(header);
+        int size = header.getBytes(StandardCharsets.UTF_8).length;
+        for (String key : keys) {
+            int keySize = key.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (size + keySize > MAX_PAYLOAD_BYTES && payload.length() > header.length()) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(header);
+                size = header.getBytes(StandardCharsets.UTF_8).length;
+            }
+            payload.append('\n').append(key);
+            size += keySize;
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            Properties properties = new Properties();
+            if (username != null) properties.setProperty("user", username);
+            if (password != null) properties.setProperty("password", password);
+            properties.setProperty("ApplicationName", APPLICATION_NAME);
+
+            try (Connection connection = DriverManager.getConnection(url, properties)) {
+                listenConnection = connection;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                connected = true;
+                if (reconnecting) {
+                    log.info("Cache invalidation listener reconnected, resetting subscribed caches");
+                    resetAll();
+                }
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollMillis);
+                    if (notifications != null && notifications.length > 0) dispatch(notifications);
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Cache invalidation listener lost its connection, caches fall back to TTL until it reconnects", e);
+            } finally {
+                connected = false;
+                listenConnection = null;
+            }
+
+            reconnecting = true;
+            try {
+                Thread.sleep(reconnectDelay.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch(PGNotification[] notifications) {
+        // Уведомления, пришедшие вместе, объединяются по темам, чтобы сбросить каждый ключ один раз
+        Map<String, Set<String>> keysByTopic = new HashMap<>();
+        for (PGNotification notification : notifications) {
+            String[] lines = notification.getParameter().split("\n");
+            if (lines.length < 2 || lines[0].equals(nodeId)) continue;
+            keysByTopic.computeIfAbsent(lines[1], topic -> new HashSet<>())
+                    .addAll(Arrays.asList(lines).subList(2, lines.length));
+        }
+
+        keysByTopic.forEach((topic, keys) -> {
+            for (Subscription subscription : subscriptions.getOrDefault(topic, List.of())) {
+                try {
+                    subscription.handler().accept(keys);
+                } catch (RuntimeException e) {
+                    log.warn("Cache invalidation handler for {} failed", topic, e);
+                }
+            }
+        });
+    }
+
+    private void resetAll() {
+        subscriptions.forEach((topic, topicSubscriptions) -> topicSubscriptions.forEach(subscription -> {
+            try {
+                subscription.reset().run();
+            } catch (RuntimeException e) {
+                log.warn("Cache reset for {} failed", topic, e);
+            }
+        }));
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Соединение уже закрыто
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package job.test.TaskSystem.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import job.test.TaskSystem.DAO.IdempotencyRecordRepository;
+import job.test.TaskSystem.Model.IdempotencyRecord;
+import job.test.TaskSystem.Util.OffHeapLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Хранилище ответов на запросы с заголовком {@code Idempotency-Key}.
+ * Ответы живут {@code idempotency.ttl} в таблице {@code idempotency_keys}, недавние ответы дополнительно
+ * лежат в {@link OffHeapLruCache}, поэтому повтор запроса обычно не обращается к базе.
+ * Перед выполнением запроса ключ занимается в той же таблице записью со статусом 0, поэтому параллельный повтор
+ * не выполнит изменение второй раз ни на этом, ни на другом экземпляре. Занятие истекает через
+ * {@code idempotency.claim-timeout}, чтобы ключ экземпляра, упавшего посреди запроса, не оставался занятым.
+ * Кеш вне кучи выделяется при первом сохранении ответа и не создаётся при {@code idempotency.hot-tier.capacity=0}.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+    private static final int PENDING = 0;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final long hotTierCapacity;
+    private final int hotTierBlockSize;
+    private volatile OffHeapLruCache<String> hotTier;
+
+    /**
+     * Сохранённый ответ.
+     *
+     * @param fingerprint Хеш параметров исходного запроса.
+     * @param status      HTTP статус.
+     * @param contentType Тип содержимого или {@code null}.
+     * @param body        Тело ответа.
+     * @param expiresAt   Момент в миллисекундах, после которого ответ недействителен.
+     */
+    public record StoredResponse(String fingerprint, int status, String contentType, byte[] body, long expiresAt) {
+    }
+
+    /**
+     * Занятый ключ.
+     *
+     * @param key          Ключ запроса.
+     * @param claimedUntil Срок занятия, он же метка владельца записи.
+     */
+    public record Claim(String key, Instant claimedUntil) {
+    }
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl}") Duration ttl,
+                              @Value("${idempotency.claim-timeout}") Duration claimTimeout,
+                              @Value("${idempotency.hot-tier.capacity}") DataSize hotTierCapacity,
+                              @Value("${idempotency.hot-tier.block-size}") DataSize hotTierBlockSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.hotTierCapacity = hotTierCapacity.toBytes();
+        this.hotTierBlockSize = (int) hotTierBlockSize.toBytes();
+    }
+
+    /**
+     * Ищет сохранённый ответ сначала в памяти, затем в таблице. Найденный в таблице ответ поднимается в память.
+     *
+     * @param key Ключ запроса.
+     * @return Сохранённый ответ или пустое значение, в том числе если запрос по ключу ещё выполняется.
+     */
+    public Optional<StoredResponse> find(String key) {
+        long now = System.currentTimeMillis();
+        OffHeapLruCache<String> tier = hotTier;
+        byte[] cached = tier == null ? null : tier.get(key, now);
+        if (cached != null) {
+            try {
+                return Optional.of(objectMapper.readValue(cached, StoredResponse.class));
+            } catch (IOException e) {
+                log.warn("Failed to read cached idempotent response {}", key, e);
+            }
+        }
+
+        return repository.findByIdAndExpiresAtAfter(key, Instant.ofEpochMilli(now))
+                .filter(record -> record.getStatus() != PENDING)
+                .map(record -> new StoredResponse(record.getFingerprint(), record.getStatus(), record.getContentType(),
+                        record.getBody(), record.getExpiresAt().toEpochMilli()))
+                .map(response -> {
+                    cache(key, response);
+                    return response;
+                });
+    }
+
+    /**
+     * Занимает ключ перед выполнением запроса.
+     *
+     * @param key         Ключ запроса.
+     * @param fingerprint Хеш параметров запроса.
+     * @return Занятый ключ или пустое значение, если по ключу уже есть ответ или запрос выполняется.
+     */
+    public Optional<Claim> tryBegin(String key, String fingerprint) {
+        // Метка владельца сравнивается в базе на равенство, поэтому округляется до точности timestamp
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant claimedUntil = now.plus(claimTimeout);
+        return repository.claim(key, fingerprint, claimedUntil, now) > 0
+                ? Optional.of(new Claim(key, claimedUntil))
+                : Optional.empty();
+    }
+
+    /**
+     * Освобождает ключ, не сохраняя ответ, чтобы запрос можно было повторить.
+     *
+     * @param claim Занятый ключ.
+     */
+    public void release(Claim claim) {
+        repository.release(claim.key(), claim.claimedUntil());
+    }
+
+    /**
+     * Сохраняет ответ в занятый ключ.
+     *
+     * @param claim       Занятый ключ.
+     * @param fingerprint Хеш параметров запроса.
+     * @param status      HTTP статус.
+     * @param contentType Тип содержимого или {@code null}.
+     * @param body        Тело ответа.
+     */
+    public void complete(Claim claim, String fingerprint, int status, String contentType, byte[] body) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        if (repository.complete(claim.key(), claim.claimedUntil(), status, contentType, body, expiresAt) > 0) {
+            cache(claim.key(), new StoredResponse(fingerprint, status, contentType, body, expiresAt.toEpochMilli()));
+        } else {
+            log.warn("Idempotency key {} was claimed again before its response was stored", claim.key());
+        }
+    }
+
+    /**
+     * Удаляет истёкшие ответы из таблицы. Из памяти они вытесняются сами по сроку жизни.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-millis}")
+    public void purgeExpired() {
+        int removed = repository.deleteExpired(Instant.now());
+        if (removed > 0) {
+            log.info("Dropped {} expired idempotency keys", removed);
+        }
+    }
+
+    private void cache(String key, StoredResponse response) {
+        OffHeapLruCache<String> tier = hotTier();
+        if (tier == null) return;
+        try {
+            tier.put(key, objectMapper.writeValueAsBytes(response), response.expiresAt());
+        } catch (IOException e) {
+            log.warn("Failed to cache idempotent response {}", key, e);
+        }
+    }
+
+    private OffHeapLruCache<String> hotTier() {
+        if (hotTierCapacity == 0) return null;
+        OffHeapLruCache<String> tier = hotTier;
+        if (tier != null) return tier;
+        synchronized (this) {
+            if (hotTier == null) hotTier = new OffHeapLruCache<>(hotTierCapacity, hotTierBlockSize);
+            return hotTier;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package job.test.TaskSystem.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+
+/**
+ * Набор RSA ключей для подписи JWT токенов.
+ * Ключи читаются из каталога {@code token.signing.keys-dir}: файл {@code <kid>.pem} содержит
+ * либо закрытый ключ PKCS#8 (ключ может подписывать), либо открытый ключ X.509 (ключ только публикуется).
+ * Подписывает ключ с наибольшим {@code kid} среди имеющих закрытую часть, поэтому ротация выполняется
+ * без перезапуска: сначала в каталог кладётся открытый ключ, чтобы его успели получить потребители JWKS,
+ * затем закрытый. Если каталог не задан, создаётся временный ключ, пригодный только для одного экземпляра,
+ * а при {@code token.signing.allow-ephemeral=false} запуск без каталога завершается ошибкой.
+ */
+@Slf4j
+@Service
+public class JwtKeyRing {
+    private static final String PEM_SUFFIX = ".pem";
+
+    private final Path keysDir;
+    private volatile State state;
+
+    /**
+     * Снимок набора ключей.
+     *
+     * @param activeKid  Идентификатор ключа подписи.
+     * @param activeKey  Закрытый ключ подписи.
+     * @param publicKeys Открытые ключи для проверки по {@code kid}.
+     * @param jwks       Готовое JWKS представление открытых ключей.
+     */
+    public record State(String activeKid, PrivateKey activeKey, Map<String, RSAPublicKey> publicKeys,
+                        Map<String, Object> jwks) {
+    }
+
+    public JwtKeyRing(@Value("${token.signing.keys-dir}") String keysDir,
+                      @Value("${token.signing.allow-ephemeral}") boolean allowEphemeral) {
+        this.keysDir = keysDir == null || keysDir.isBlank() ? null : Path.of(keysDir);
+        if (this.keysDir == null && !allowEphemeral) {
+            throw new IllegalStateException("token.signing.keys-dir is required: set TOKEN_SIGNING_KEYS_DIR to a directory shared by all instances");
+        }
+        this.state = this.keysDir == null ? ephemeral() : load(this.keysDir);
+    }
+
+    /**
+     * Возвращает текущий снимок набора ключей.
+     *
+     * @return Снимок.
+     */
+    public State current() {
+        return state;
+    }
+
+    /**
+     * Перечитывает каталог ключей. При ошибке чтения остаётся прежний набор.
+     */
+    @Scheduled(fixedDelayString = "${token.signing.reload-interval-millis}")
+    public void reload() {
+        if (keysDir == null) return;
+        try {
+            State loaded = load(keysDir);
+            if (!loaded.activeKid().equals(state.activeKid()) || !loaded.publicKeys().keySet().equals(state.publicKeys().keySet())) {
+                log.info("JWT key ring reloaded: active kid {}, published {}", loaded.activeKid(), loaded.publicKeys().keySet());
+            }
+            state = loaded;
+        } catch (RuntimeException e) {
+            log.error("Failed to reload JWT keys from {}", keysDir, e);
+        }
+    }
+
+    private static State load(Path dir) {
+        Map<String, RSAPublicKey> publicKeys = new TreeMap<>();
+        TreeMap<String, PrivateKey> privateKeys = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + PEM_SUFFIX)) {
+            KeyFactory factory = KeyFactory.getInstance("RSA");
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String kid = name.substring(0, name.length() - PEM_SUFFIX.length());
+                String pem = Files.readString(file);
+                if (pem.contains("PRIVATE KEY")) {
+                    RSAPrivateCrtKey key = (RSAPrivateCrtKey) factory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem)));
+                    privateKeys.put(kid, key);
+                    publicKeys.put(kid, (RSAPublicKey) factory.generatePublic(
+                            new RSAPublicKeySpec(key.getModulus(), key.getPublicExponent())));
+                } else {
+                    publicKeys.put(kid, (RSAPublicKey) factory.generatePublic(new X509EncodedKeySpec(decodePem(pem))));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT key in " + dir, e);
+        }
+
+        if (privateKeys.isEmpty()) {
+            throw new IllegalStateException("No JWT signing key found in " + dir);
+        }
+        String activeKid = privateKeys.lastKey();
+        return state(activeKid, privateKeys.get(activeKid), publicKeys);
+    }
+
+    private static State ephemeral() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair pair = generator.generateKeyPair();
+            String kid = "ephemeral-" + UUID.randomUUID();
+            log.warn("token.signing.keys-dir is not set, tokens are signed with a temporary key {}", kid);
+            return state(kid, pair.getPrivate(), Map.of(kid, (RSAPublicKey) pair.getPublic()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static State state(String activeKid, PrivateKey activeKey, Map<String, RSAPublicKey> publicKeys) {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        publicKeys.forEach((kid, key) -> keys.add(Map.of(
+                "kty", "RSA",
+                "use", "sig",
+                "alg", "RS256",
+                "kid", kid,
+                "n", base64Url(key.getModulus()),
+                "e", base64Url(key.getPublicExponent())
+        )));
+        return new State(activeKid, activeKey, Map.copyOf(publicKeys), Map.of("keys", List.copyOf(keys)));
+    }
+
+    private static byte[] decodePem(String pem) {
+        String body = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
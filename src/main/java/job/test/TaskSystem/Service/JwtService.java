@@ -1,30 +1,65 @@
 package job.test.TaskSystem.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import jakarta.annotation.PostConstruct;
 import job.test.TaskSystem.Model.User;
 import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Util.RevocationIndex;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Сервис для работы с JWT токенами.
  * Предоставляет методы для генерации, извлечения данных и проверки валидности токенов.
+ * Выпускает короткоживущие токены доступа и долгоживущие токены обновления, различающиеся claim {@code typ}.
+ * Токены подписываются RS256 активным ключом из {@link JwtKeyRing}, идентификатор ключа передаётся в заголовке {@code kid}.
  */
 @Service
+@RequiredArgsConstructor
 public class JwtService {
-    @Value("${token.signing.key}")
-    private String jwtSigningKey;
+    public static final String ACCESS_TOKEN_TYPE = "access";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+    private static final String TYPE_CLAIM = "typ";
+
+    private final JwtKeyRing keyRing;
+
+    @Value("${token.access.ttl}")
+    private Duration accessTokenTtl;
+
+    @Value("${token.refresh.ttl}")
+    private Duration refreshTokenTtl;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                Key key = header.getKeyId() == null ? null : keyRing.current().publicKeys().get(header.getKeyId());
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown signing key id: " + header.getKeyId());
+                }
+                return key;
+            }
+        }).build();
+    }
 
     /**
      * Извлекает имя пользователя из токена.
@@ -37,19 +72,23 @@ public class JwtService {
     }
 
     /**
-     * Генерирует JWT токен для пользователя.
+     * Генерирует токен доступа для пользователя.
      *
      * @param userDetails Данные пользователя.
      * @return JWT токен.
      */
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        if (userDetails instanceof User customUserDetails) {
-            claims.put("id", customUserDetails.getId());
-            claims.put("email", customUserDetails.getEmail());
-            claims.put("role", customUserDetails.getRole());
-        }
-        return generateToken(claims, userDetails);
+        return generateToken(userClaims(userDetails, ACCESS_TOKEN_TYPE), userDetails, accessTokenTtl);
+    }
+
+    /**
+     * Генерирует токен обновления для пользователя.
+     *
+     * @param userDetails Данные пользователя.
+     * @return JWT токен.
+     */
+    public String generateRefreshToken(UserDetails userDetails) {
+        return generateToken(userClaims(userDetails, REFRESH_TOKEN_TYPE), userDetails, refreshTokenTtl);
     }
 
     /**
@@ -59,8 +98,16 @@ public class JwtService {
      * @return DTO пользователя со всеми данными из токена.
      */
     public UserDTO extractUser(String token) {
-        Claims claims = extractAllClaims(token);
+        return toUser(extractAllClaims(token));
+    }
 
+    /**
+     * Собирает DTO пользователя из уже проверенных данных токена.
+     *
+     * @param claims Данные токена.
+     * @return DTO пользователя.
+     */
+    public UserDTO toUser(Claims claims) {
         return UserDTO.builder()
                 .id(claims.get("id", Long.class))
                 .nickName(claims.getSubject())
@@ -81,6 +128,28 @@ public class JwtService {
         return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    /**
+     * Проверяет, что токен является токеном указанного типа.
+     *
+     * @param claims Данные токена.
+     * @param type   Ожидаемый тип токена.
+     * @return {@code true}, если тип совпадает.
+     */
+    public boolean isTokenOfType(Claims claims, String type) {
+        return type.equals(claims.get(TYPE_CLAIM, String.class));
+    }
+
+    /**
+     * Проверяет подпись и срок действия токена и извлекает все данные из него.
+     *
+     * @param token JWT токен.
+     * @return Данные.
+     * @throws io.jsonwebtoken.JwtException Если токен недействителен или просрочен.
+     */
+    public Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     /**
      * Извлекает данные из токена.
      *
@@ -94,18 +163,35 @@ public class JwtService {
         return claimsResolvers.apply(claims);
     }
 
+    private Map<String, Object> userClaims(UserDetails userDetails, String type) {
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User customUserDetails) {
+            claims.put("id", customUserDetails.getId());
+            claims.put("email", customUserDetails.getEmail());
+            claims.put("role", customUserDetails.getRole());
+        }
+        claims.put(TYPE_CLAIM, type);
+        return claims;
+    }
+
     /**
      * Генерирует JWT токен с дополнительными данными.
      *
      * @param extraClaims Дополнительные данные.
      * @param userDetails Данные пользователя.
+     * @param ttl         Время жизни токена.
      * @return JWT токен.
      */
-    private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder().setClaims(extraClaims).setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 100000 * 60 * 24))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256).compact();
+    private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, Duration ttl) {
+        long now = System.currentTimeMillis();
+        JwtKeyRing.State keys = keyRing.current();
+        return Jwts.builder().setHeaderParam(JwsHeader.KEY_ID, keys.activeKid())
+                .setClaims(extraClaims).setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .claim(RevocationIndex.ISSUED_AT_MILLIS_CLAIM, now)
+                .setExpiration(new Date(now + ttl.toMillis()))
+                .signWith(keys.activeKey(), SignatureAlgorithm.RS256).compact();
     }
 
     /**
@@ -127,24 +213,4 @@ public class JwtService {
     private Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
-
-    /**
-     * Извлекает все данные из токена.
-     *
-     * @param token JWT токен.
-     * @return Данные.
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(getSigningKey()).parseClaimsJws(token).getBody();
-    }
-
-    /**
-     * Получает ключ для подписи токена.
-     *
-     * @return Ключ.
-     */
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSigningKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
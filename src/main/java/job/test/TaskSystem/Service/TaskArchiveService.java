@@ -0,0 +1,105 @@
+package job.test.TaskSystem.Service;
+
+import job.test.TaskSystem.DAO.ArchivedTaskRepository;
+import job.test.TaskSystem.DAO.TaskDependencyRepository;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Model.TaskStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Фоновая обработка старых задач.
+ * Переносит давно завершённые задачи в архивную таблицу и окончательно удаляет мягко удалённые задачи.
+ * Обе операции выполняются пачками ограниченного размера, каждая пачка в отдельной транзакции,
+ * поэтому блокировки в основной таблице держатся недолго, а несколько экземпляров приложения не мешают друг другу.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskArchiveService {
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskDependencyRepository dependencyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskPageCache taskPageCache;
+    private final TaskTagIndex taskTagIndex;
+
+    @Value("${task.archive.complete-after}")
+    private Duration completeAfter;
+
+    @Value("${task.archive.purge-after}")
+    private Duration purgeAfter;
+
+    @Value("${task.archive.batch-size}")
+    private int batchSize;
+
+    /**
+     * Запускает архивацию и очистку по расписанию.
+     */
+    @Scheduled(cron = "${task.archive.cron}")
+    public void run() {
+        archiveCompleted();
+        purgeDeleted();
+    }
+
+    /**
+     * Переносит в архив задачи со статусом {@link TaskStatus#Complete}, которые не менялись дольше порога.
+     *
+     * @return Количество перенесённых задач.
+     */
+    public int archiveCompleted() {
+        Instant before = Instant.now().minus(completeAfter);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<Long> ids = taskRepository.lockArchivableIds(TaskStatus.Complete.ordinal(), before, batchSize);
+                if (ids.isEmpty()) return 0;
+
+                archivedTaskRepository.copyFromTasks(ids);
+                archivedTaskRepository.copyWorkersFromTasks(ids);
+                dependencyRepository.hardDeleteByTaskIds(ids);
+                taskRepository.hardDeleteWorkers(ids);
+                taskRepository.hardDeleteTags(ids);
+                return taskRepository.hardDelete(ids);
+            });
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            taskPageCache.invalidateAll();
+            // Метки архивированных задач удалены из базы, индексы авторов строятся заново
+            taskTagIndex.invalidateAll();
+        }
+        return total;
+    }
+
+    /**
+     * Окончательно удаляет задачи, мягко удалённые раньше порога.
+     *
+     * @return Количество удалённых задач.
+     */
+    public int purgeDeleted() {
+        Instant before = Instant.now().minus(purgeAfter);
+        int total = 0;
+        int purged;
+        do {
+            purged = transactionTemplate.execute(status -> {
+                List<Long> ids = taskRepository.lockPurgeableIds(before, batchSize);
+                if (ids.isEmpty()) return 0;
+
+                dependencyRepository.hardDeleteByTaskIds(ids);
+                taskRepository.hardDeleteWorkers(ids);
+                taskRepository.hardDeleteTags(ids);
+                return taskRepository.hardDelete(ids);
+            });
+            total += purged;
+        } while (purged == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,113 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.TaskAttachmentRepository;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Model.TaskAttachment;
+import job.test.TaskSystem.Model.TaskAttachmentDTO;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Сервис вложений задач. Содержимое хранится в {@link AttachmentStore}, в базе - только метаданные.
+ * Загружать и скачивать вложения могут автор и исполнители задачи.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskAttachmentService {
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final TaskAttachmentRepository attachmentRepository;
+    private final TaskRepository taskRepository;
+    private final AttachmentStore attachmentStore;
+
+    /**
+     * Вложение, готовое к отдаче.
+     *
+     * @param attachment Метаданные вложения.
+     * @param path       Путь к содержимому.
+     */
+    public record AttachmentFile(TaskAttachmentDTO attachment, Path path) {
+    }
+
+    /**
+     * Сохраняет вложение задачи.
+     *
+     * @param user        DTO участника задачи.
+     * @param taskID      ID задачи.
+     * @param fileName    Имя файла.
+     * @param contentType Тип содержимого или {@code null}.
+     * @param content     Поток с содержимым.
+     * @return DTO нового вложения.
+     * @throws EntityNotFoundException  Если задача не найдена среди задач пользователя.
+     * @throws InvalidRequestException  Если содержимое больше допустимого размера.
+     * @throws IOException              Если не удалось прочитать или сохранить содержимое.
+     */
+    public TaskAttachmentDTO upload(UserDTO user, Long taskID, String fileName, String contentType, InputStream content)
+            throws EntityNotFoundException, InvalidRequestException, IOException {
+        checkParticipant(user, taskID);
+
+        AttachmentStore.StoredBlob blob = attachmentStore.store(content);
+        TaskAttachment attachment = TaskAttachment.builder()
+                .taskId(taskID)
+                .sha256(blob.sha256())
+                .fileName(fileName)
+                .contentType(contentType == null || contentType.isBlank() ? DEFAULT_CONTENT_TYPE : contentType)
+                .size(blob.size())
+                .uploaderId(user.getId())
+                .createdAt(Instant.now())
+                .build();
+        return attachmentRepository.save(attachment).toDTO();
+    }
+
+    /**
+     * Получает вложения задачи.
+     *
+     * @param user   DTO участника задачи.
+     * @param taskID ID задачи.
+     * @return Список DTO вложений в порядке загрузки.
+     * @throws EntityNotFoundException Если задача не найдена среди задач пользователя.
+     */
+    public List<TaskAttachmentDTO> getAttachments(UserDTO user, Long taskID) throws EntityNotFoundException {
+        checkParticipant(user, taskID);
+        return attachmentRepository.findAllByTaskIdOrderById(taskID).stream()
+                .map(TaskAttachment::toDTO)
+                .toList();
+    }
+
+    /**
+     * Находит вложение для скачивания.
+     *
+     * @param user         DTO участника задачи.
+     * @param taskID       ID задачи.
+     * @param attachmentID ID вложения.
+     * @return Метаданные вложения и путь к содержимому.
+     * @throws EntityNotFoundException Если задача, вложение или его содержимое не найдены.
+     */
+    public AttachmentFile open(UserDTO user, Long taskID, Long attachmentID) throws EntityNotFoundException {
+        checkParticipant(user, taskID);
+        TaskAttachment attachment = attachmentRepository.findByIdAndTaskId(attachmentID, taskID)
+                .orElseThrow(() -> new EntityNotFoundException("Attachment " + attachmentID + " not found"));
+
+        Path path = attachmentStore.path(attachment.getSha256());
+        if (!Files.isReadable(path)) {
+            throw new EntityNotFoundException("Content of attachment " + attachmentID + " is missing");
+        }
+        return new AttachmentFile(attachment.toDTO(), path);
+    }
+
+    private void checkParticipant(UserDTO user, Long taskID) throws EntityNotFoundException {
+        if (!taskRepository.isParticipant(taskID, user.getEmail())) {
+            throw new EntityNotFoundException("Task " + taskID + " not found");
+        }
+    }
+}
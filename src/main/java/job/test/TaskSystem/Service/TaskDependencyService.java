@@ -0,0 +1,163 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.TaskDependencyRepository;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Model.*;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Сервис для управления зависимостями между задачами.
+ * Предоставляет методы для добавления и удаления связей "задача A блокирует задачу B"
+ * с проверкой на циклы, а также запросы транзитивных блокировщиков и критического пути.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskDependencyService {
+    private final TaskDependencyRepository dependencyRepository;
+    private final TaskRepository taskRepository;
+
+    /**
+     * Добавляет зависимость между задачами автора.
+     * Перед вставкой проверяется, что из блокируемой задачи нельзя дойти до блокирующей,
+     * поэтому обход затрагивает только часть графа, достижимую из новой вершины.
+     *
+     * @param user      DTO пользователя, который является автором обеих задач.
+     * @param blockerID ID блокирующей задачи.
+     * @param blockedID ID блокируемой задачи.
+     * @throws EntityNotFoundException  Если одна из задач не найдена.
+     * @throws EntityExistsException    Если такая зависимость уже существует.
+     * @throws InvalidRequestException  Если зависимость образует цикл.
+     */
+    @Transactional
+    public void addDependency(UserDTO user, Long blockerID, Long blockedID)
+            throws EntityNotFoundException, EntityExistsException, InvalidRequestException {
+        if (blockerID.equals(blockedID)) {
+            throw new InvalidRequestException("Task can`t block itself");
+        }
+
+        Task blocker = taskRepository.findByIdAndAuthorEmail(blockerID, user.getEmail())
+                .orElseThrow(EntityNotFoundException::new);
+        Task blocked = taskRepository.findByIdAndAuthorEmail(blockedID, user.getEmail())
+                .orElseThrow(EntityNotFoundException::new);
+
+        dependencyRepository.lockGraph(blocker.getAuthor().getId());
+
+        if (dependencyRepository.existsByBlockerIdAndBlockedId(blockerID, blockedID)) {
+            throw new EntityExistsException("Dependency already exists");
+        }
+        if (dependencyRepository.isReachable(blockedID, blockerID)) {
+            throw new InvalidRequestException("Dependency would create a cycle");
+        }
+
+        dependencyRepository.save(TaskDependency.builder()
+                .blocker(blocker)
+                .blocked(blocked)
+                .build());
+    }
+
+    /**
+     * Удаляет зависимость между задачами автора.
+     *
+     * @param user      DTO пользователя, который является автором обеих задач.
+     * @param blockerID ID блокирующей задачи.
+     * @param blockedID ID блокируемой задачи.
+     * @throws EntityNotFoundException Если зависимость не найдена.
+     */
+    @Transactional
+    public void removeDependency(UserDTO user, Long blockerID, Long blockedID) throws EntityNotFoundException {
+        taskRepository.findByIdAndAuthorEmail(blockerID, user.getEmail())
+                .orElseThrow(EntityNotFoundException::new);
+
+        if (dependencyRepository.deleteEdge(blockerID, blockedID) == 0) {
+            throw new EntityNotFoundException("Dependency not found");
+        }
+    }
+
+    /**
+     * Получает все задачи, которые прямо или транзитивно блокируют указанную задачу.
+     *
+     * @param user   DTO пользователя, который является автором задачи.
+     * @param taskID ID задачи.
+     * @return Список DTO блокирующих задач.
+     * @throws EntityNotFoundException Если задача не найдена.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTransitiveBlockers(UserDTO user, Long taskID) throws EntityNotFoundException {
+        taskRepository.findByIdAndAuthorEmail(taskID, user.getEmail())
+                .orElseThrow(EntityNotFoundException::new);
+
+        return taskRepository.findAllById(dependencyRepository.findTransitiveBlockerIds(taskID)).stream()
+                .map(Task::toDTO)
+                .toList();
+    }
+
+    /**
+     * Получает критический путь по незавершённым задачам пользователя:
+     * самую длинную цепочку задач, каждая из которых блокирует следующую.
+     * Рёбра загружаются одним запросом, путь считается в памяти топологической сортировкой за O(V + E).
+     *
+     * @param user DTO пользователя, который является автором задач.
+     * @return Список DTO задач критического пути в порядке выполнения.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getCriticalPath(UserDTO user) {
+        List<Object[]> edges = dependencyRepository.findOpenEdgesByAuthorEmail(user.getEmail(), TaskStatus.Complete);
+        if (edges.isEmpty()) return List.of();
+
+        Map<Long, List<Long>> successors = new HashMap<>();
+        Map<Long, Integer> inDegree = new HashMap<>();
+        for (Object[] edge : edges) {
+            Long from = (Long) edge[0];
+            Long to = (Long) edge[1];
+            successors.computeIfAbsent(from, key -> new ArrayList<>()).add(to);
+            inDegree.putIfAbsent(from, 0);
+            inDegree.merge(to, 1, Integer::sum);
+        }
+
+        Deque<Long> ready = new ArrayDeque<>();
+        inDegree.forEach((id, degree) -> {
+            if (degree == 0) ready.add(id);
+        });
+
+        Map<Long, Integer> length = new HashMap<>();
+        Map<Long, Long> previous = new HashMap<>();
+        Long last = null;
+        while (!ready.isEmpty()) {
+            Long current = ready.poll();
+            int currentLength = length.getOrDefault(current, 1);
+            if (last == null || currentLength > length.getOrDefault(last, 1)) {
+                last = current;
+            }
+            for (Long next : successors.getOrDefault(current, List.of())) {
+                if (currentLength + 1 > length.getOrDefault(next, 1)) {
+                    length.put(next, currentLength + 1);
+                    previous.put(next, current);
+                }
+                if (inDegree.merge(next, -1, Integer::sum) == 0) {
+                    ready.add(next);
+                }
+            }
+        }
+
+        LinkedList<Long> path = new LinkedList<>();
+        for (Long id = last; id != null; id = previous.get(id)) {
+            path.addFirst(id);
+        }
+
+        Map<Long, Task> tasks = new HashMap<>();
+        taskRepository.findAllById(path).forEach(task -> tasks.put(task.getId(), task));
+
+        return path.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(Task::toDTO)
+                .toList();
+    }
+}
@@ -0,0 +1,109 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.DAO.TaskSpecifications;
+import job.test.TaskSystem.DAO.UserRepository;
+import job.test.TaskSystem.Model.*;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис чтения задач для GraphQL.
+ * Страница задач читается без связей, а авторы и исполнители всех задач запроса загружаются
+ * пачками по ID через {@code DataLoader}: по одному запросу {@code IN (...)} на связь, сколько бы задач ни было на странице.
+ * Правила видимости совпадают с {@link TaskService}: задачи другого пользователя видны только в пределах общих команд.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskGraphService {
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TeamService teamService;
+    private final TaskStatusWriteBehind statusWriteBehind;
+
+    /**
+     * Получает страницу задач по критериям.
+     *
+     * @param caller   DTO пользователя, запрашивающего задачи.
+     * @param query    Критерии поиска.
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Страница задач без автора и исполнителей.
+     * @throws InvalidRequestException Если не указаны ни автор, ни исполнитель.
+     */
+    public Page<TaskNode> findTasks(UserDTO caller, TaskQuery query, Pageable pageable) throws InvalidRequestException {
+        if (query.authorEmail() == null && query.workerEmail() == null) {
+            throw new InvalidRequestException("Author or worker email is required");
+        }
+
+        Specification<Task> specification = TaskSpecifications.matching(query);
+        if (!caller.getEmail().equals(query.authorEmail()) && !caller.getEmail().equals(query.workerEmail())) {
+            List<Long> teamIds = teamService.teamIds(caller.getId());
+            if (teamIds.isEmpty()) return Page.empty(pageable);
+            specification = specification.and(TaskSpecifications.teamIn(teamIds));
+        }
+        return statusWriteBehind.overlayNodes(taskRepository.findNodes(specification, pageable), query.statuses());
+    }
+
+    /**
+     * Получает страницу задач команды.
+     *
+     * @param caller   DTO пользователя, который состоит в команде.
+     * @param teamID   ID команды.
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Страница задач без автора и исполнителей.
+     * @throws EntityNotFoundException Если пользователь не состоит в команде.
+     */
+    public Page<TaskNode> findTeamTasks(UserDTO caller, Long teamID, Pageable pageable) throws EntityNotFoundException {
+        if (!teamService.isMember(caller.getId(), teamID)) {
+            throw new EntityNotFoundException("Team not found");
+        }
+        return taskRepository.findNodes(TaskSpecifications.teamIn(List.of(teamID)), pageable)
+                .map(statusWriteBehind::overlay);
+    }
+
+    /**
+     * Загружает авторов задач одним запросом.
+     *
+     * @param tasks Задачи.
+     * @return Авторы в порядке задач.
+     */
+    public List<User> loadAuthors(List<TaskNode> tasks) {
+        Set<Long> ids = tasks.stream()
+                .map(TaskNode::authorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> authors = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return tasks.stream()
+                .map(task -> authors.get(task.authorId()))
+                .toList();
+    }
+
+    /**
+     * Загружает исполнителей задач одним запросом.
+     *
+     * @param tasks Задачи.
+     * @return Исполнители в порядке задач, пустой список для задач без исполнителей.
+     */
+    public List<List<User>> loadWorkers(List<TaskNode> tasks) {
+        Set<Long> ids = tasks.stream()
+                .map(TaskNode::id)
+                .collect(Collectors.toSet());
+        Map<Long, List<User>> workers = new HashMap<>();
+        for (Object[] row : taskRepository.findWorkersByTaskIds(ids)) {
+            workers.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((User) row[1]);
+        }
+        return tasks.stream()
+                .map(task -> workers.getOrDefault(task.id(), List.of()))
+                .toList();
+    }
+}
@@ -0,0 +1,181 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.TaskHistoryRepository;
+import job.test.TaskSystem.Model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Сервис истории изменений задач.
+ * Изменения складываются в ограниченную очередь и пишутся в базу пачками вне потока запроса.
+ * Если очередь переполнена, запись выполняется сразу в потоке запроса, поэтому изменения не теряются,
+ * а запросы притормаживают вместо неограниченного роста памяти.
+ * Пачка, которую не удалось записать, повторяется при следующих сбросах, пока не исчерпает
+ * {@code task.history.max-attempts} попыток; пока она не записана, новые пачки из очереди не пишутся.
+ */
+@Slf4j
+@Service
+public class TaskHistoryService {
+    private static final String INSERT = "INSERT INTO task_history (task_id, actor_id, field, old_value, new_value, changed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final BlockingQueue<TaskHistory> queue;
+    private final Deque<FailedBatch> failed = new ConcurrentLinkedDeque<>();
+    private final int batchSize;
+    private final int maxAttempts;
+
+    /**
+     * Пачка, которую не удалось записать.
+     *
+     * @param entries  Записи истории.
+     * @param attempts Число выполненных попыток.
+     */
+    private record FailedBatch(List<TaskHistory> entries, int attempts) {
+    }
+
+    public TaskHistoryService(JdbcTemplate jdbcTemplate,
+                              TaskHistoryRepository taskHistoryRepository,
+                              @Value("${task.history.queue-capacity}") int queueCapacity,
+                              @Value("${task.history.batch-size}") int batchSize,
+                              @Value("${task.history.max-attempts}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Записывает изменение поля задачи. Если значение не изменилось, ничего не записывается.
+     *
+     * @param taskID   ID задачи.
+     * @param actor    DTO пользователя, выполнившего изменение, или {@code null} для изменений по расписанию.
+     * @param field    Изменённое поле.
+     * @param oldValue Прежнее значение.
+     * @param newValue Новое значение.
+     */
+    public void record(Long taskID, UserDTO actor, TaskHistoryField field, Object oldValue, Object newValue) {
+        String oldText = oldValue == null ? null : oldValue.toString();
+        String newText = newValue == null ? null : newValue.toString();
+        if (field != TaskHistoryField.Created && field != TaskHistoryField.Deleted && Objects.equals(oldText, newText)) {
+            return;
+        }
+
+        TaskHistory entry = TaskHistory.builder()
+                .taskId(taskID)
+                .actorId(actor == null ? null : actor.getId())
+                .field(field)
+                .oldValue(oldText)
+                .newValue(newText)
+                .changedAt(Instant.now())
+                .build();
+        if (!queue.offer(entry) && !insert(List.of(entry))) {
+            failed.add(new FailedBatch(List.of(entry), 1));
+        }
+    }
+
+    /**
+     * Получает страницу истории задачи от новых изменений к старым.
+     *
+     * История удалённых и архивных задач остаётся доступной их автору и исполнителям.
+     *
+     * @param user   DTO пользователя, который является автором или исполнителем задачи.
+     * @param taskID ID задачи.
+     * @param cursor Курсор из предыдущей страницы или {@code null} для первой страницы.
+     * @param size   Размер страницы.
+     * @return Страница истории.
+     * @throws EntityNotFoundException Если задача не найдена среди задач пользователя.
+     */
+    public TaskHistoryPage getHistory(UserDTO user, Long taskID, Long cursor, int size) throws EntityNotFoundException {
+        if (!taskHistoryRepository.isParticipant(taskID, user.getEmail())) {
+            throw new EntityNotFoundException("Task " + taskID + " not found");
+        }
+
+        List<TaskHistory> entries = taskHistoryRepository.findByTaskIdAndIdLessThanOrderByIdDesc(
+                taskID, cursor == null ? Long.MAX_VALUE : cursor, Limit.of(size));
+        Long nextCursor = entries.size() == size ? entries.get(entries.size() - 1).getId() : null;
+        return new TaskHistoryPage(entries.stream().map(TaskHistory::toDTO).toList(), nextCursor);
+    }
+
+    /**
+     * Повторяет неудавшиеся пачки и записывает накопленные изменения пачками.
+     */
+    @Scheduled(fixedDelayString = "${task.history.flush-interval-millis}")
+    public synchronized void flush() {
+        if (!retryFailed()) return;
+
+        List<TaskHistory> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!insert(batch)) {
+                failed.add(new FailedBatch(List.copyOf(batch), 1));
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * @return Число записей истории, ожидающих повторной записи.
+     */
+    public int failedCount() {
+        return failed.stream().mapToInt(batch -> batch.entries().size()).sum();
+    }
+
+    // Возвращает false, если база всё ещё недоступна и писать новые пачки бессмысленно
+    private boolean retryFailed() {
+        for (int i = failed.size(); i > 0; i--) {
+            FailedBatch batch = failed.poll();
+            if (batch == null) return true;
+            if (insert(batch.entries())) continue;
+
+            if (batch.attempts() + 1 >= maxAttempts) {
+                log.error("Dropping {} task history entries after {} attempts", batch.entries().size(), maxAttempts);
+            } else {
+                failed.addFirst(new FailedBatch(batch.entries(), batch.attempts() + 1));
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    private boolean insert(List<TaskHistory> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (statement, entry) -> {
+                statement.setLong(1, entry.getTaskId());
+                statement.setObject(2, entry.getActorId(), Types.BIGINT);
+                statement.setShort(3, (short) entry.getField().ordinal());
+                statement.setString(4, entry.getOldValue());
+                statement.setString(5, entry.getNewValue());
+                statement.setTimestamp(6, Timestamp.from(entry.getChangedAt()));
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} task history entries", batch.size(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package job.test.TaskSystem.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Util.OffHeapLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Необязательный кеш страниц задач вне кучи.
+ * Страницы хранятся в {@link OffHeapLruCache} сериализованными и в куче между запросами не держатся;
+ * при каждом попадании страница десериализуется целиком.
+ * Ключ страницы включает поколение пользователя: изменение задачи выдаёт её автору и исполнителям новое поколение,
+ * и их старые страницы становятся недостижимы, после чего вытесняются по LRU или по сроку жизни.
+ * Поколение, не менявшееся дольше срока жизни страниц, удаляется: все страницы под прежними поколениями
+ * к этому времени уже истекли, а номера поколений не повторяются.
+ * Каждый сброс рассылается другим экземплярам через {@link CacheInvalidationBus}, полный сброс — зарезервированным
+ * ключом {@value #ALL}; пока шина недоступна, изменения на других экземплярах видны не позже чем через
+ * {@code task.page-cache.ttl}.
+ */
+@Slf4j
+@Service
+public class TaskPageCache {
+    static final String ALL = "*";
+
+    private final ObjectMapper objectMapper;
+    private final OffHeapLruCache<String> cache;
+    private final Duration ttl;
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicLong prunedAt = new AtomicLong(System.currentTimeMillis());
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    record CachedPage(List<TaskDTO> content, long totalElements) {
+    }
+
+    private record Generation(long value, long changedAt) {
+    }
+
+    public TaskPageCache(ObjectMapper objectMapper,
+                         @Value("${task.page-cache.enabled}") boolean enabled,
+                         @Value("${task.page-cache.capacity}") DataSize capacity,
+                         @Value("${task.page-cache.block-size}") DataSize blockSize,
+                         @Value("${task.page-cache.ttl}") Duration ttl,
+                         CacheInvalidationBus cacheInvalidationBus) {
+        this.objectMapper = objectMapper;
+        this.cache = enabled ? new OffHeapLruCache<>(capacity.toBytes(), (int) blockSize.toBytes()) : null;
+        this.ttl = ttl;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    /**
+     * Подписывает кеш на изменения задач, сделанные другими экземплярами.
+     */
+    @PostConstruct
+    void subscribeInvalidations() {
+        if (cache == null) return;
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.TASK_PAGES, emails -> {
+            if (emails.contains(ALL)) {
+                clearLocal();
+            } else {
+                invalidateLocal(emails);
+            }
+        }, this::clearLocal);
+    }
+
+    /**
+     * @return {@code true}, если кеш включён.
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Возвращает страницу из кеша или загружает её и сохраняет в кеш.
+     *
+     * @param email    Email пользователя, чьи задачи составляют страницу.
+     * @param view     Название выборки вместе с её параметрами, например {@code author} или {@code worker:status=Complete}.
+     * @param pageable Параметры пагинации.
+     * @param loader   Загрузка страницы из базы данных.
+     * @return Страница DTO задач.
+     */
+    public Page<TaskDTO> get(String email, String view, Pageable pageable, Supplier<Page<TaskDTO>> loader) {
+        if (cache == null || pageable.isUnpaged()) return loader.get();
+
+        // Поколение читается до загрузки: если задачу изменят во время загрузки, страница ляжет под устаревший ключ
+        String key = key(email, view, pageable);
+        long now = System.currentTimeMillis();
+        byte[] cached = cache.get(key, now);
+        if (cached != null) {
+            try {
+                CachedPage page = objectMapper.readValue(cached, CachedPage.class);
+                return new PageImpl<>(page.content(), pageable, page.totalElements());
+            } catch (IOException e) {
+                log.warn("Failed to read cached task page {}", key, e);
+            }
+        }
+
+        Page<TaskDTO> page = loader.get();
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(new CachedPage(page.getContent(), page.getTotalElements()));
+            cache.put(key, bytes, now + ttl.toMillis());
+        } catch (IOException e) {
+            log.warn("Failed to cache task page {}", key, e);
+        }
+        return page;
+    }
+
+    /**
+     * Делает недействительными закешированные страницы пользователей на этом экземпляре и рассылает сброс остальным.
+     *
+     * @param emails Email пользователей, чьи задачи изменились.
+     */
+    public void invalidate(Collection<String> emails) {
+        if (cache == null) return;
+        invalidateLocal(emails);
+        cacheInvalidationBus.publish(CacheInvalidationBus.TASK_PAGES, emails);
+    }
+
+    /**
+     * Делает недействительными все закешированные страницы, например после массовых изменений,
+     * на этом экземпляре и на остальных.
+     */
+    public void invalidateAll() {
+        if (cache == null) return;
+        clearLocal();
+        cacheInvalidationBus.publish(CacheInvalidationBus.TASK_PAGES, List.of(ALL));
+    }
+
+    /**
+     * @return Число пользователей, для которых хранится поколение.
+     */
+    public int generationCount() {
+        return generations.size();
+    }
+
+    private void invalidateLocal(Collection<String> emails) {
+        long now = System.currentTimeMillis();
+        emails.forEach(email -> generations.put(email, new Generation(sequence.incrementAndGet(), now)));
+        pruneGenerations(now);
+    }
+
+    private void clearLocal() {
+        epoch.incrementAndGet();
+        generations.clear();
+        cache.clear();
+    }
+
+    // Не чаще раза за срок жизни страниц удаляет поколения, под которыми не может остаться живых страниц
+    private void pruneGenerations(long now) {
+        long last = prunedAt.get();
+        if (now - last < ttl.toMillis() || !prunedAt.compareAndSet(last, now)) return;
+
+        long expiredBefore = now - ttl.toMillis();
+        generations.forEach((email, generation) -> {
+            if (generation.changedAt() < expiredBefore) generations.remove(email, generation);
+        });
+    }
+
+    private String key(String email, String view, Pageable pageable) {
+        return epoch.get() + "|" + email + "#" + generation(email) + "|" + view
+                + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort();
+    }
+
+    private long generation(String email) {
+        Generation generation = generations.get(email);
+        return generation == null ? 0 : generation.value();
+    }
+}
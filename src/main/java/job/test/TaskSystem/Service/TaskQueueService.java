@@ -0,0 +1,146 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Model.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Очередь задач для исполнителей.
+ * Позволяет исполнителю атомарно захватить следующие задачи с арендой на время работы,
+ * а затем завершить задачу или вернуть её в очередь.
+ * Задачи, аренда которых истекла и не была продлена, возвращаются в очередь по расписанию.
+ * Каждая смена статуса записывается в историю задачи, возврат по расписанию — без автора изменения.
+ * Продление аренды статус не меняет и в историю не попадает.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskQueueService {
+    private final TaskRepository taskRepository;
+    private final TaskPageCache taskPageCache;
+    private final TaskHistoryService taskHistoryService;
+
+    @Value("${task.claim.batch-size}")
+    private int requeueBatchSize;
+
+    /**
+     * Захватывает задачи исполнителя с наибольшим приоритетом и переводит их в статус {@link TaskStatus#In_progress}.
+     *
+     * @param worker DTO исполнителя.
+     * @param count  Максимальное количество задач.
+     * @param lease  Длительность аренды.
+     * @return Список DTO захваченных задач, пустой если свободных задач нет.
+     */
+    public List<TaskDTO> claim(UserDTO worker, int count, Duration lease) {
+        Instant now = Instant.now();
+        List<Long> ids = taskRepository.claimNext(
+                worker.getId(),
+                TaskStatus.Received.ordinal(),
+                TaskStatus.In_progress.ordinal(),
+                now,
+                now.plus(lease),
+                count
+        );
+        if (ids.isEmpty()) return List.of();
+
+        List<TaskDTO> claimed = taskRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Task::getPriority).reversed().thenComparing(Task::getId))
+                .map(Task::toDTO)
+                .toList();
+        ids.forEach(id -> taskHistoryService.record(id, worker, TaskHistoryField.Status,
+                TaskStatus.Received, TaskStatus.In_progress));
+        taskPageCache.invalidate(claimed.stream()
+                .flatMap(task -> Stream.concat(Stream.of(task.getAuthor()), task.getWorker().stream()))
+                .map(UserDTO::getEmail)
+                .collect(Collectors.toSet()));
+        return claimed;
+    }
+
+    /**
+     * Продлевает аренду задачи, захваченной исполнителем.
+     *
+     * @param worker DTO исполнителя.
+     * @param taskID ID задачи.
+     * @param lease  Новая длительность аренды, отсчитывается от текущего момента.
+     * @throws EntityNotFoundException Если задача не захвачена этим исполнителем.
+     */
+    public void renew(UserDTO worker, Long taskID, Duration lease) throws EntityNotFoundException {
+        int renewed = taskRepository.renewClaim(
+                taskID,
+                worker.getId(),
+                TaskStatus.In_progress.ordinal(),
+                Instant.now().plus(lease)
+        );
+        if (renewed == 0) {
+            throw new EntityNotFoundException("Task " + taskID + " is not claimed by " + worker.getEmail());
+        }
+    }
+
+    /**
+     * Завершает задачу, захваченную исполнителем: переводит её в статус {@link TaskStatus#Complete} и снимает аренду.
+     *
+     * @param worker DTO исполнителя.
+     * @param taskID ID задачи.
+     * @throws EntityNotFoundException Если задача не захвачена этим исполнителем.
+     */
+    public void complete(UserDTO worker, Long taskID) throws EntityNotFoundException {
+        finish(worker, taskID, TaskStatus.Complete);
+    }
+
+    /**
+     * Возвращает захваченную задачу в очередь, не дожидаясь истечения аренды.
+     *
+     * @param worker DTO исполнителя.
+     * @param taskID ID задачи.
+     * @throws EntityNotFoundException Если задача не захвачена этим исполнителем.
+     */
+    public void release(UserDTO worker, Long taskID) throws EntityNotFoundException {
+        finish(worker, taskID, TaskStatus.Received);
+    }
+
+    /**
+     * Возвращает в статус {@link TaskStatus#Received} задачи с истёкшей арендой.
+     */
+    @Scheduled(fixedDelayString = "${task.claim.requeue-interval-millis}")
+    public void requeueExpired() {
+        List<Long> requeued;
+        int total = 0;
+        do {
+            requeued = taskRepository.requeueExpiredClaims(
+                    TaskStatus.Received.ordinal(),
+                    TaskStatus.In_progress.ordinal(),
+                    Instant.now(),
+                    requeueBatchSize
+            );
+            requeued.forEach(id -> taskHistoryService.record(id, null, TaskHistoryField.Status,
+                    TaskStatus.In_progress, TaskStatus.Received));
+            total += requeued.size();
+        } while (requeued.size() == requeueBatchSize);
+        if (total > 0) taskPageCache.invalidateAll();
+    }
+
+    private void finish(UserDTO worker, Long taskID, TaskStatus status) throws EntityNotFoundException {
+        int finished = taskRepository.finishClaim(
+                taskID,
+                worker.getId(),
+                TaskStatus.In_progress.ordinal(),
+                status.ordinal(),
+                Instant.now()
+        );
+        if (finished == 0) {
+            throw new EntityNotFoundException("Task " + taskID + " is not claimed by " + worker.getEmail());
+        }
+        taskHistoryService.record(taskID, worker, TaskHistoryField.Status, TaskStatus.In_progress, status);
+        taskPageCache.invalidate(taskRepository.findParticipantEmails(taskID));
+    }
+}
@@ -0,0 +1,122 @@
+package job.test.TaskSystem.Service;
+
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Model.TaskReminderEvent;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Util.TimerWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис напоминаний о сроках задач.
+ * Периодически арендует в базе пачки задач, срок которых наступает в пределах горизонта,
+ * и раскладывает их напоминания по иерархическому колесу таймеров.
+ * Аренда строк не даёт нескольким экземплярам приложения обработать одну задачу,
+ * а после её истечения задачи упавшего узла подхватывают остальные.
+ * Сработавшие напоминания публикуются как {@link TaskReminderEvent}.
+ */
+@Service
+public class TaskReminderService {
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TimerWheel<TaskReminderEvent> wheel;
+
+    @Value("${task.reminder.enabled}")
+    private boolean enabled;
+
+    @Value("${task.reminder.horizon}")
+    private Duration horizon;
+
+    @Value("${task.reminder.lead-time}")
+    private Duration leadTime;
+
+    @Value("${task.reminder.lease-grace}")
+    private Duration leaseGrace;
+
+    @Value("${task.reminder.batch-size}")
+    private int batchSize;
+
+    public TaskReminderService(TaskRepository taskRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${task.reminder.tick-millis}") long tickMillis) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.wheel = new TimerWheel<>(tickMillis, 512, System.currentTimeMillis());
+    }
+
+    /**
+     * Загружает в колесо напоминания задач, срок которых наступает в пределах горизонта.
+     */
+    @Scheduled(fixedDelayString = "${task.reminder.load-interval-millis}")
+    public void load() {
+        if (!enabled) return;
+
+        List<Object[]> leased;
+        do {
+            Instant now = Instant.now();
+            leased = taskRepository.leaseDueTasks(
+                    now,
+                    now.plus(horizon),
+                    now.plus(horizon).plus(leaseGrace),
+                    TaskStatus.Complete.ordinal(),
+                    batchSize
+            );
+
+            List<TaskReminderEvent> dueNow = new ArrayList<>();
+            synchronized (wheel) {
+                for (Object[] row : leased) {
+                    Long taskId = ((Number) row[0]).longValue();
+                    Instant dueAt = Instant.ofEpochMilli(((Number) row[1]).longValue());
+
+                    schedule(new TaskReminderEvent(taskId, dueAt, TaskReminderEvent.Type.Upcoming),
+                            dueAt.minus(leadTime), dueNow);
+                    schedule(new TaskReminderEvent(taskId, dueAt, TaskReminderEvent.Type.Overdue),
+                            dueAt, dueNow);
+                }
+            }
+            dueNow.forEach(this::fire);
+        } while (leased.size() == batchSize);
+    }
+
+    /**
+     * Продвигает колесо таймеров и публикует наступившие напоминания.
+     */
+    @Scheduled(fixedRateString = "${task.reminder.tick-millis}")
+    public void tick() {
+        if (!enabled) return;
+
+        List<TaskReminderEvent> expired;
+        synchronized (wheel) {
+            expired = wheel.advance(System.currentTimeMillis());
+        }
+        expired.forEach(this::fire);
+    }
+
+    private void schedule(TaskReminderEvent event, Instant at, List<TaskReminderEvent> dueNow) {
+        if (!wheel.schedule(at.toEpochMilli(), event)) {
+            dueNow.add(event);
+        }
+    }
+
+    /**
+     * Публикует напоминание, если срок задачи не менялся с момента аренды.
+     * Напоминание о просрочке дополнительно отмечается в задаче, чтобы не отправляться повторно.
+     */
+    private void fire(TaskReminderEvent event) {
+        boolean pending = switch (event.type()) {
+            case Upcoming -> taskRepository.isReminderPending(event.taskId(), event.dueAt(), TaskStatus.Complete.ordinal());
+            case Overdue -> taskRepository.markReminded(event.taskId(), event.dueAt(), Instant.now(), TaskStatus.Complete.ordinal()) > 0;
+        };
+
+        if (pending) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
@@ -2,25 +2,57 @@ package job.test.TaskSystem.Service;
 
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.ArchivedTaskRepository;
 import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.DAO.TaskSpecifications;
 import job.test.TaskSystem.Model.*;
+import job.test.TaskSystem.Util.InvalidRequestException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления задачами.
  * Предоставляет методы для создания, обновления, удаления и получения задач,
  * а также для управления статусами и работниками задач.
+ * Каждое изменение задачи записывается в историю через {@link TaskHistoryService}.
+ * Задачи другого пользователя видны только в пределах общих команд, членство проверяется по кешу {@link TeamService}.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TaskService {
+    private static final int MAX_TAG_LENGTH = 50;
+    private static final String TITLE_CONSTRAINT = "uq_tasks_author_title";
+
     private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
     private final UserService userService;
+    private final TaskPageCache taskPageCache;
+    private final TaskStatusWriteBehind statusWriteBehind;
+    private final TaskHistoryService taskHistoryService;
+    private final TeamService teamService;
+    private final TaskTagIndex taskTagIndex;
 
     /**
      * Получает страницу задач, созданных автором.
@@ -30,79 +62,273 @@ public class TaskService {
      * @return Страница задач, созданных автором.
      */
     public Page<TaskDTO> getAllAuthorTasks(UserDTO userDTO, Pageable pageable) {
-        return taskRepository.findAllByAuthorEmail(userDTO.getEmail(), pageable).map(Task::toDTO);
+        return taskPageCache.get(userDTO.getEmail(), "author", pageable,
+                () -> taskRepository.findAllByAuthorEmail(userDTO.getEmail(), pageable).map(Task::toDTO))
+                .map(statusWriteBehind::overlay);
     }
 
     /**
      * Получает страницу задач, созданных пользователем с указанным email.
      *
+     * @param caller    DTO пользователя, запрашивающего задачи.
      * @param email     Email пользователя, который является автором задач.
      * @param pageable  Параметры пагинации.
      * @return Страница задач, созданных пользователем.
      */
-    public Page<TaskDTO> getAllUserTasks(String email, Pageable pageable) {
-        return taskRepository.findAllByAuthorEmail(email, pageable).map(Task::toDTO);
+    public Page<TaskDTO> getAllUserTasks(UserDTO caller, String email, Pageable pageable) {
+        if (!caller.getEmail().equals(email)) {
+            return findInCallerTeams(caller, TaskSpecifications.authorEmail(email), pageable);
+        }
+        return taskPageCache.get(email, "author", pageable,
+                () -> taskRepository.findAllByAuthorEmail(email, pageable).map(Task::toDTO))
+                .map(statusWriteBehind::overlay);
     }
 
     /**
      * Получает страницу задач, созданных пользователем с указанным email и статусом.
      *
+     * @param caller   DTO пользователя, запрашивающего задачи.
      * @param email    Email пользователя, который является автором задач.
      * @param status   Статус задач.
      * @param pageable Параметры пагинации.
      * @return Страница задач, созданных пользователем и имеющих указанный статус.
      */
-    public Page<TaskDTO> getAllUserTasksByStatus(String email, TaskStatus status, Pageable pageable) {
-        return taskRepository.findAllByAuthorEmailAndStatus(email, status, pageable).map(Task::toDTO);
+    public Page<TaskDTO> getAllUserTasksByStatus(UserDTO caller, String email, TaskStatus status, Pageable pageable) {
+        if (!caller.getEmail().equals(email)) {
+            return findInCallerTeams(caller, TaskSpecifications.authorEmail(email)
+                    .and(TaskSpecifications.statusIn(Set.of(status))), Set.of(status), pageable);
+        }
+        return statusWriteBehind.overlayTasks(taskPageCache.get(email, "author:status=" + status, pageable,
+                () -> taskRepository.findAllByAuthorEmailAndStatus(email, status, pageable).map(Task::toDTO)), Set.of(status));
     }
 
     /**
      * Получает страницу задач, созданных пользователем с указанным email и приоритетом.
      *
+     * @param caller   DTO пользователя, запрашивающего задачи.
      * @param email    Email пользователя, который является автором задач.
      * @param priority Приоритет задач.
      * @param pageable Параметры пагинации.
      * @return Страница DTO задач, созданных пользователем и имеющих указанный приоритет.
      */
-    public Page<TaskDTO> getAllUserTasksByPriority(String email, TaskPriority priority, Pageable pageable) {
-        return taskRepository.findAllByAuthorEmailAndPriority(email, priority, pageable).map(Task::toDTO);
+    public Page<TaskDTO> getAllUserTasksByPriority(UserDTO caller, String email, TaskPriority priority, Pageable pageable) {
+        if (!caller.getEmail().equals(email)) {
+            return findInCallerTeams(caller, TaskSpecifications.authorEmail(email)
+                    .and(TaskSpecifications.priorityIn(Set.of(priority))), pageable);
+        }
+        return taskPageCache.get(email, "author:priority=" + priority, pageable,
+                () -> taskRepository.findAllByAuthorEmailAndPriority(email, priority, pageable).map(Task::toDTO))
+                .map(statusWriteBehind::overlay);
     }
 
     /**
      * Получает страницу задач, исполнителем которой является пользователь с указанным email.
      *
+     * @param caller    DTO пользователя, запрашивающего задачи.
      * @param email     Email пользователя, который является исполнителем задач.
      * @param pageable  Параметры пагинации.
      * @return Страница задач, созданных пользователем.
      */
-    public Page<TaskDTO> getAllWorkerTasks(String email, Pageable pageable) {
-        return taskRepository.findAllByWorkersEmail(email, pageable).map(Task::toDTO);
+    public Page<TaskDTO> getAllWorkerTasks(UserDTO caller, String email, Pageable pageable) {
+        if (!caller.getEmail().equals(email)) {
+            return findInCallerTeams(caller, TaskSpecifications.workerEmail(email), pageable);
+        }
+        return taskPageCache.get(email, "worker", pageable,
+                () -> taskRepository.findAllByWorkersEmail(email, pageable).map(Task::toDTO))
+                .map(statusWriteBehind::overlay);
     }
 
     /**
      * Получает страницу задач с указанным статусом, исполнителем которой является пользователь с указанным email.
      *
+     * @param caller    DTO пользователя, запрашивающего задачи.
      * @param email     Email пользователя, который является исполнителем задач.
      * @param pageable  Параметры пагинации.
      * @return Страница задач, созданных пользователем.
      */
-    public Page<TaskDTO> getAllWorkerTasksByStatus(String email, TaskStatus status, Pageable pageable) {
-        return taskRepository.findAllByWorkersEmailAndStatus(email, status, pageable).map(Task::toDTO);
+    public Page<TaskDTO> getAllWorkerTasksByStatus(UserDTO caller, String email, TaskStatus status, Pageable pageable) {
+        if (!caller.getEmail().equals(email)) {
+            return findInCallerTeams(caller, TaskSpecifications.workerEmail(email)
+                    .and(TaskSpecifications.statusIn(Set.of(status))), Set.of(status), pageable);
+        }
+        return statusWriteBehind.overlayTasks(taskPageCache.get(email, "worker:status=" + status, pageable,
+                () -> taskRepository.findAllByWorkersEmailAndStatus(email, status, pageable).map(Task::toDTO)), Set.of(status));
     }
 
     /**
      * Получает страницу задач с указанным приоритетом, исполнителем которой является пользователь с указанным email.
      *
+     * @param caller    DTO пользователя, запрашивающего задачи.
      * @param email     Email пользователя, который является исполнителем задач.
      * @param pageable  Параметры пагинации.
      * @return Страница задач, созданных пользователем.
      */
-    public Page<TaskDTO> getAllWorkerTasksByPriority(String email, TaskPriority priority, Pageable pageable) {
-        return taskRepository.findAllByWorkersEmailAndPriority(email, priority, pageable).map(Task::toDTO);
+    public Page<TaskDTO> getAllWorkerTasksByPriority(UserDTO caller, String email, TaskPriority priority, Pageable pageable) {
+        if (!caller.getEmail().equals(email)) {
+            return findInCallerTeams(caller, TaskSpecifications.workerEmail(email)
+                    .and(TaskSpecifications.priorityIn(Set.of(priority))), pageable);
+        }
+        return taskPageCache.get(email, "worker:priority=" + priority, pageable,
+                () -> taskRepository.findAllByWorkersEmailAndPriority(email, priority, pageable).map(Task::toDTO))
+                .map(statusWriteBehind::overlay);
+    }
+
+    /**
+     * Получает страницу задач по произвольному сочетанию критериев.
+     * Запрос должен быть ограничен автором или исполнителем, чтобы не сканировать задачи всех пользователей.
+     * Если ни автором, ни исполнителем не указан сам пользователь, поиск идёт только по задачам его команд.
+     *
+     * @param caller   DTO пользователя, запрашивающего задачи.
+     * @param query    Критерии поиска.
+     * @param pageable Параметры пагинации и сортировки.
+     * @return Страница DTO задач, удовлетворяющих всем критериям.
+     * @throws InvalidRequestException Если не указаны ни автор, ни исполнитель.
+     */
+    public Page<TaskDTO> queryTasks(UserDTO caller, TaskQuery query, Pageable pageable) throws InvalidRequestException {
+        if (query.authorEmail() == null && query.workerEmail() == null) {
+            throw new InvalidRequestException("Author or worker email is required");
+        }
+        if (!caller.getEmail().equals(query.authorEmail()) && !caller.getEmail().equals(query.workerEmail())) {
+            return findInCallerTeams(caller, TaskSpecifications.matching(query), query.statuses(), pageable);
+        }
+        return statusWriteBehind.overlayTasks(
+                taskRepository.findAll(TaskSpecifications.matching(query), pageable).map(Task::toDTO), query.statuses());
+    }
+
+    /**
+     * Получает порцию задач по критериям в порядке ID, начиная после указанного ID.
+     * В отличие от постраничных выборок не считает задачи и не пропускает строки смещением,
+     * поэтому подходит для потоковой выдачи всей выборки. Права доступа те же, что у {@link #queryTasks}.
+     *
+     * @param caller  DTO пользователя, запрашивающего задачи.
+     * @param query   Критерии поиска.
+     * @param afterID ID, после которого начинается порция, или {@code null} для первой порции.
+     * @param limit   Размер порции.
+     * @return Порция DTO задач и курсор следующей порции.
+     * @throws InvalidRequestException Если не указаны ни автор, ни исполнитель.
+     */
+    public TaskCursorPage getTasksAfter(UserDTO caller, TaskQuery query, Long afterID, int limit)
+            throws InvalidRequestException {
+        if (query.authorEmail() == null && query.workerEmail() == null) {
+            throw new InvalidRequestException("Author or worker email is required");
+        }
+        Specification<Task> spec = TaskSpecifications.matching(query).and(TaskSpecifications.idAfter(afterID));
+        if (!caller.getEmail().equals(query.authorEmail()) && !caller.getEmail().equals(query.workerEmail())) {
+            List<Long> teamIDs = teamService.teamIds(caller.getId());
+            if (teamIDs.isEmpty()) return new TaskCursorPage(List.of(), null);
+            spec = spec.and(TaskSpecifications.teamIn(teamIDs));
+        }
+
+        List<Task> tasks = taskRepository.findBy(spec, q -> q.sortBy(Sort.by("id")).limit(limit).all());
+        Long nextCursor = tasks.size() == limit ? tasks.get(tasks.size() - 1).getId() : null;
+        return new TaskCursorPage(
+                statusWriteBehind.overlayTasks(tasks.stream().map(Task::toDTO).toList(), query.statuses()), nextCursor);
+    }
+
+    /**
+     * Получает задачи автора по меткам: со всеми метками из {@code include} и без меток из {@code exclude}.
+     * Отбор идёт по индексу меток в памяти, база читается только для задач запрошенной страницы.
+     * Задачи отдаются от новых к старым, сортировка из {@code pageable} не учитывается.
+     *
+     * @param user     DTO пользователя, который является автором задач.
+     * @param include  Обязательные метки.
+     * @param exclude  Исключающие метки.
+     * @param pageable Параметры пагинации.
+     * @return Страница DTO задач.
+     * @throws InvalidRequestException Если не указана ни одна обязательная метка или метка некорректна.
+     */
+    public Page<TaskDTO> getTasksByTags(UserDTO user, Set<String> include, Set<String> exclude, Pageable pageable)
+            throws InvalidRequestException {
+        if (include == null || include.isEmpty()) {
+            throw new InvalidRequestException("At least one tag to include is required");
+        }
+        Roaring64NavigableMap ids = taskTagIndex.query(user.getId(), normalizeTags(include), normalizeTags(exclude));
+
+        long total = ids.getLongCardinality();
+        List<Long> pageIDs = new ArrayList<>(pageable.getPageSize());
+        for (long rank = pageable.getOffset(); rank < total && pageIDs.size() < pageable.getPageSize(); rank++) {
+            pageIDs.add(ids.select(total - 1 - rank));
+        }
+        if (pageIDs.isEmpty()) return new PageImpl<>(List.of(), pageable, total);
+
+        Map<Long, Task> tasks = taskRepository.findAllById(pageIDs).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<TaskDTO> content = pageIDs.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(Task::toDTO)
+                .map(statusWriteBehind::overlay)
+                .toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Ставит метку на задачу. Повторная установка той же метки ничего не меняет.
+     *
+     * @param user   DTO пользователя, который является автором задачи.
+     * @param taskID ID задачи.
+     * @param tag    Метка.
+     * @throws EntityNotFoundException  Если задача не найдена.
+     * @throws InvalidRequestException  Если метка некорректна.
+     */
+    public void addTag(UserDTO user, Long taskID, String tag) throws EntityNotFoundException, InvalidRequestException {
+        String normalized = normalizeTag(tag);
+        if (taskRepository.addTag(taskID, user.getId(), normalized) == 0
+                && !taskRepository.existsByIdAndAuthorId(taskID, user.getId())) {
+            throw new EntityNotFoundException("Task " + taskID + " not found");
+        }
+        taskTagIndex.add(user.getId(), taskID, normalized);
+    }
+
+    /**
+     * Снимает метку с задачи.
+     *
+     * @param user   DTO пользователя, который является автором задачи.
+     * @param taskID ID задачи.
+     * @param tag    Метка.
+     * @throws EntityNotFoundException  Если задача не найдена или на ней нет такой метки.
+     * @throws InvalidRequestException  Если метка некорректна.
+     */
+    public void removeTag(UserDTO user, Long taskID, String tag) throws EntityNotFoundException, InvalidRequestException {
+        String normalized = normalizeTag(tag);
+        if (taskRepository.removeTag(taskID, user.getId(), normalized) == 0) {
+            throw new EntityNotFoundException("Tag " + normalized + " not found on task " + taskID);
+        }
+        taskTagIndex.remove(user.getId(), taskID, normalized);
+    }
+
+    /**
+     * Получает страницу задач команды.
+     *
+     * @param user     DTO пользователя, который состоит в команде.
+     * @param teamID   ID команды.
+     * @param pageable Параметры пагинации.
+     * @return Страница DTO задач команды.
+     * @throws EntityNotFoundException Если пользователь не состоит в команде.
+     */
+    public Page<TaskDTO> getTeamTasks(UserDTO user, Long teamID, Pageable pageable) throws EntityNotFoundException {
+        if (!teamService.isMember(user.getId(), teamID)) {
+            throw new EntityNotFoundException("Team not found");
+        }
+        return taskRepository.findAllByTeamId(teamID, pageable).map(Task::toDTO)
+                .map(statusWriteBehind::overlay);
+    }
+
+    /**
+     * Получает страницу архивных задач, созданных автором.
+     * Основные выборки читают только актуальную таблицу, архив читается только этим методом.
+     *
+     * @param userDTO   DTO пользователя, который является автором задач.
+     * @param pageable  Параметры пагинации.
+     * @return Страница архивных задач, созданных автором.
+     */
+    public Page<TaskDTO> getArchivedAuthorTasks(UserDTO userDTO, Pageable pageable) {
+        return archivedTaskRepository.findAllByAuthorEmail(userDTO.getEmail(), pageable).map(ArchivedTask::toDTO);
     }
 
     /**
      * Изменяет статус задачи.
+     * При включённой отложенной записи статус попадает в базу пачкой через {@link TaskStatusWriteBehind}.
      *
      * @param taskID    ID задачи.
      * @param newStatus Новый статус задачи.
@@ -111,12 +337,81 @@ public class TaskService {
      * @throws EntityNotFoundException Если задача не найдена.
      */
     public TaskDTO changeStatus(Long taskID, TaskStatus newStatus, UserDTO user) throws EntityNotFoundException {
-        Task task = taskRepository.findByIdAndAuthorEmail(taskID, user.getEmail())
-                .orElseThrow(EntityNotFoundException::new);
+        if (statusWriteBehind.isEnabled()) {
+            TaskDTO current = statusWriteBehind.pendingSnapshot(taskID, user.getEmail())
+                    .orElseGet(() -> findOwnTask(taskID, user).toDTO());
+            TaskDTO updated = statusWriteBehind.submit(current, newStatus);
+            taskHistoryService.record(taskID, user, TaskHistoryField.Status, current.getStatus(), newStatus);
+            return updated;
+        }
+
+        Task task = findOwnTask(taskID, user);
+        TaskStatus oldStatus = task.getStatus();
 
         task.setStatus(newStatus);
+        task.setClaimedBy(null);
+        task.setClaimLeaseUntil(null);
 
-        return taskRepository.save(task).toDTO();
+        TaskDTO updated = saveAndInvalidate(task);
+        taskHistoryService.record(taskID, user, TaskHistoryField.Status, oldStatus, newStatus);
+        return updated;
+    }
+
+    /**
+     * Устанавливает или снимает срок выполнения задачи.
+     * Смена срока сбрасывает отправленные напоминания и аренду, поэтому задача заново попадает в {@link TaskReminderService}.
+     * Срок усекается до миллисекунд: с такой точностью его видят напоминания.
+     *
+     * @param taskID ID задачи.
+     * @param dueAt  Новый срок задачи или {@code null}, чтобы снять срок.
+     * @param user   DTO пользователя, который является автором задачи.
+     * @return Обновленный DTO задачи.
+     * @throws EntityNotFoundException Если задача не найдена.
+     */
+    public TaskDTO changeDueDate(Long taskID, Instant dueAt, UserDTO user) throws EntityNotFoundException {
+        Task task = findOwnTask(taskID, user);
+        Instant oldDueAt = task.getDueAt();
+
+        task.setDueAt(dueAt == null ? null : dueAt.truncatedTo(ChronoUnit.MILLIS));
+        task.setRemindedAt(null);
+        task.setReminderLeaseUntil(null);
+
+        TaskDTO updated = saveAndInvalidate(task);
+        taskHistoryService.record(taskID, user, TaskHistoryField.DueAt, oldDueAt, task.getDueAt());
+        return updated;
+    }
+
+    /**
+     * Относит задачу к команде или убирает её из команды.
+     *
+     * @param taskID ID задачи.
+     * @param teamID ID команды, в которой состоит автор, или {@code null}, чтобы убрать задачу из команды.
+     * @param user   DTO пользователя, который является автором задачи.
+     * @return Обновленный DTO задачи.
+     * @throws EntityNotFoundException Если задача не найдена или автор не состоит в команде.
+     */
+    public TaskDTO changeTeam(Long taskID, Long teamID, UserDTO user) throws EntityNotFoundException {
+        if (teamID != null && !teamService.isMember(user.getId(), teamID)) {
+            throw new EntityNotFoundException("Team not found");
+        }
+        Task task = findOwnTask(taskID, user);
+        Long oldTeamID = task.getTeamId();
+
+        task.setTeamId(teamID);
+
+        TaskDTO updated = saveAndInvalidate(task);
+        taskHistoryService.record(taskID, user, TaskHistoryField.Team, oldTeamID, teamID);
+        return updated;
+    }
+
+    /**
+     * Обрабатывает напоминание о сроке задачи.
+     *
+     * @param event Событие напоминания.
+     */
+    @EventListener
+    public void onTaskReminder(TaskReminderEvent event) {
+        log.info("Task {} reminder: {} (due at {})", event.taskId(), event.type(), event.dueAt());
     }
 
     /**
@@ -129,8 +424,7 @@ public class TaskService {
      * @throws EntityNotFoundException Если задача или работник не найдены.
      */
     public TaskDTO addWorker(Long taskID, String newWorkerEmail, UserDTO user) throws EntityNotFoundException {
-        Task task = taskRepository.findByIdAndAuthorEmail(taskID, user.getEmail())
-                .orElseThrow(EntityNotFoundException::new);
+        Task task = findOwnTask(taskID, user);
 
         User newWorker = userService.getUserByEmail(newWorkerEmail);
 
@@ -141,7 +435,9 @@ public class TaskService {
 
         task.addWorker(newWorker);
 
-        return taskRepository.save(task).toDTO();
+        TaskDTO updated = saveAndInvalidate(task);
+        taskHistoryService.record(taskID, user, TaskHistoryField.Workers, null, newWorker.getEmail());
+        return updated;
     }
 
     /**
@@ -154,28 +450,40 @@ public class TaskService {
      * @throws EntityNotFoundException Если задача или работник не найдены.
      */
     public TaskDTO removeWorker(Long taskID, String newWorkerEmail, UserDTO user) throws EntityNotFoundException {
-        Task task = taskRepository.findByIdAndAuthorEmail(taskID, user.getEmail())
-                .orElseThrow(EntityNotFoundException::new);
+        Task task = findOwnTask(taskID, user);
 
         User newWorker = userService.getUserByEmail(newWorkerEmail);
 
+        int workersBefore = task.getWorkers().size();
         task.removeWorker(newWorker);
 
-        return taskRepository.save(task).toDTO();
+        TaskDTO updated = saveAndInvalidate(task);
+        // Удалённый работник уже не участник задачи, его страницы сбрасываются после сохранения отдельно
+        taskPageCache.invalidate(List.of(newWorker.getEmail()));
+        if (task.getWorkers().size() < workersBefore) {
+            taskHistoryService.record(taskID, user, TaskHistoryField.Workers, newWorker.getEmail(), null);
+        }
+        return updated;
     }
 
     /**
-     * Удаляет задачу.
+     * Мягко удаляет задачу: задача помечается удалённой одним запросом и сразу пропадает из выборок,
+     * а строки окончательно удаляются позже в {@link TaskArchiveService}.
      *
      * @param user   DTO пользователя, который является автором задачи.
      * @param taskID ID задачи.
      * @throws EntityNotFoundException Если задача не найдена.
      */
     public void deleteTask(UserDTO user, Long taskID) throws EntityNotFoundException {
-        Task task = taskRepository.findByIdAndAuthorEmail(taskID, user.getEmail())
-                .orElseThrow(EntityNotFoundException::new);
-
-        taskRepository.delete(task);
+        if (taskRepository.softDeleteByIdAndAuthorEmail(taskID, user.getEmail(), Instant.now()) == 0) {
+            throw new EntityNotFoundException();
+        }
+        taskHistoryService.record(taskID, user, TaskHistoryField.Deleted, null, null);
+        taskTagIndex.removeTask(user.getId(), taskID);
+        statusWriteBehind.forgetSnapshot(taskID);
+        if (taskPageCache.isEnabled()) {
+            taskPageCache.invalidate(taskRepository.findParticipantEmails(taskID));
+        }
     }
 
     /**
@@ -187,19 +495,34 @@ public class TaskService {
      * @param comment Новый комментарий к задаче.
      * @return Обновленный DTO задачи.
      * @throws EntityNotFoundException Если задача не найдена.
+     * @throws EntityExistsException   Если у автора уже есть другая неудалённая задача с таким заголовком.
      */
-    public TaskDTO editTask(UserDTO userDTO, Long taskID, String title, String comment) throws EntityNotFoundException {
-        Task task = taskRepository.findByIdAndAuthorEmail(taskID, userDTO.getEmail())
-                .orElseThrow(EntityNotFoundException::new);
+    public TaskDTO editTask(UserDTO userDTO, Long taskID, String title, String comment)
+            throws EntityNotFoundException, EntityExistsException {
+        Task task = findOwnTask(taskID, userDTO);
+        String oldTitle = task.getTitle();
+        String oldComment = task.getComment();
 
         task.setTitle(title);
         task.setComment(comment);
 
-        return taskRepository.save(task).toDTO();
+        // Уникальность заголовка проверяет индекс uq_tasks_author_title, поэтому одновременные переименования не создают дублей
+        TaskDTO updated;
+        try {
+            updated = saveAndInvalidate(task);
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, TITLE_CONSTRAINT)) throw e;
+            throw new EntityExistsException("Task with this title already exists");
+        }
+        taskHistoryService.record(taskID, userDTO, TaskHistoryField.Title, oldTitle, title);
+        taskHistoryService.record(taskID, userDTO, TaskHistoryField.Comment, oldComment, comment);
+        return updated;
     }
 
     /**
-     * Добавляет новую задачу.
+     * Добавляет новую задачу одним запросом {@code INSERT ... ON CONFLICT DO NOTHING RETURNING id}.
+     * Автор берётся из ID в токене без загрузки пользователя, а уникальность заголовка у автора проверяет
+     * индекс {@code uq_tasks_author_title}, поэтому одновременные запросы с одним заголовком не создают дублей.
      *
      * @param userDTO  DTO пользователя, который является автором задачи.
      * @param title    Заголовок задачи.
@@ -209,20 +532,107 @@ public class TaskService {
      * @throws EntityExistsException Если задача с таким заголовком уже существует.
      */
     public TaskDTO addTask(UserDTO userDTO, String title, String comment, TaskPriority priority) throws EntityExistsException {
-        if (taskRepository.existsByTitleAndAuthorEmail(title, userDTO.getEmail())) {
-            throw new EntityExistsException("Task with this title already exists");
+        Long taskID = taskRepository.insertIfAbsent(userDTO.getId(), title, TaskStatus.Received.ordinal(),
+                        priority.ordinal(), comment)
+                .orElseThrow(() -> new EntityExistsException("Task with this title already exists"));
+
+        taskPageCache.invalidate(List.of(userDTO.getEmail()));
+        taskHistoryService.record(taskID, userDTO, TaskHistoryField.Created, null, title);
+        return new TaskDTO(taskID, userDTO, new ArrayList<>(), title, TaskStatus.Received.name(), priority.name(),
+                comment, null, null);
+    }
+
+    /**
+     * Находит задачу автора.
+     *
+     * @param taskID ID задачи.
+     * @param user   DTO пользователя, который является автором задачи.
+     * @return Задача.
+     * @throws EntityNotFoundException Если задача не найдена.
+     */
+    private Task findOwnTask(Long taskID, UserDTO user) throws EntityNotFoundException {
+        return taskRepository.findByIdAndAuthorEmail(taskID, user.getEmail())
+                .orElseThrow(EntityNotFoundException::new);
+    }
+
+    /**
+     * Находит задачи по спецификации среди задач команд пользователя.
+     * Команды берутся из кеша членства, поэтому проверка доступа не добавляет запросов.
+     * Такие страницы зависят от состава команд и не кешируются в {@link TaskPageCache}.
+     *
+     * @param caller   DTO пользователя, запрашивающего задачи.
+     * @param spec     Спецификация задач.
+     * @param pageable Параметры пагинации.
+     * @return Страница DTO задач.
+     */
+    private Page<TaskDTO> findInCallerTeams(UserDTO caller, Specification<Task> spec, Pageable pageable) {
+        return findInCallerTeams(caller, spec, Set.of(), pageable);
+    }
+
+    /**
+     * То же, что {@link #findInCallerTeams(UserDTO, Specification, Pageable)}, для спецификации с отбором по статусу:
+     * задачи, чей отложенный статус не входит в {@code statuses}, убираются со страницы.
+     */
+    private Page<TaskDTO> findInCallerTeams(UserDTO caller, Specification<Task> spec, Set<TaskStatus> statuses,
+                                            Pageable pageable) {
+        List<Long> teamIDs = teamService.teamIds(caller.getId());
+        if (teamIDs.isEmpty()) return Page.empty(pageable);
+
+        return statusWriteBehind.overlayTasks(
+                taskRepository.findAll(spec.and(TaskSpecifications.teamIn(teamIDs)), pageable).map(Task::toDTO), statuses);
+    }
+
+    /**
+     * Сохраняет задачу, сбрасывает закешированные страницы её автора и исполнителей
+     * и обновляет снимок задачи в буфере отложенных статусов.
+     *
+     * @param task Задача.
+     * @return DTO сохранённой задачи.
+     */
+    private TaskDTO saveAndInvalidate(Task task) {
+        Task saved = taskRepository.save(task);
+        taskPageCache.invalidate(participantEmails(saved));
+        TaskDTO updated = saved.toDTO();
+        statusWriteBehind.refreshSnapshot(updated);
+        return statusWriteBehind.overlay(updated);
+    }
+
+    /**
+     * Проверяет, что нарушение целостности вызвано указанным ограничением, а не другим ограничением той же записи.
+     *
+     * @param e          Нарушение целостности.
+     * @param constraint Имя ограничения или уникального индекса.
+     * @return {@code true}, если среди причин есть нарушение ограничения {@code constraint}.
+     */
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraint.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Приводит метку к нижнему регистру без пробелов по краям, чтобы «Bug» и «bug » были одной меткой.
+     */
+    private static String normalizeTag(String tag) throws InvalidRequestException {
+        String normalized = tag == null ? "" : tag.strip().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty() || normalized.length() > MAX_TAG_LENGTH) {
+            throw new InvalidRequestException("Tag must be 1 to " + MAX_TAG_LENGTH + " characters");
         }
+        return normalized;
+    }
 
-        Task task = Task.builder()
-                .id(null)
-                .author(userService.getUserByEmail(userDTO.getEmail()))
-                .workers(new ArrayList<>())
-                .title(title)
-                .status(TaskStatus.Received)
-                .priority(priority)
-                .comment(comment)
-                .build();
+    private static Set<String> normalizeTags(Set<String> tags) throws InvalidRequestException {
+        if (tags == null) return Set.of();
+        return tags.stream().map(TaskService::normalizeTag).collect(Collectors.toSet());
+    }
 
-        return taskRepository.save(task).toDTO();
+    private static List<String> participantEmails(Task task) {
+        List<String> emails = new ArrayList<>();
+        if (task.getAuthor() != null) emails.add(task.getAuthor().getEmail());
+        if (task.getWorkers() != null) task.getWorkers().forEach(worker -> emails.add(worker.getEmail()));
+        return emails;
     }
 }
@@ -0,0 +1,371 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskNode;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.UserDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Отложенная запись смены статуса задач.
+ * Частые смены статуса одной задачи схлопываются в буфере, а в базу уходит только последний статус
+ * пачечным {@code UPDATE} по таймеру или при заполнении буфера. Перед ответом клиенту смена статуса
+ * записывается в локальный журнал упреждающей записи, который проигрывается при старте после сбоя.
+ * Запись в журнал сбрасывается на диск группами: один {@code fsync} подтверждает все записи, добавленные до него.
+ * Чтения задач накладывают статусы из буфера, поэтому клиент сразу видит свои изменения.
+ */
+@Slf4j
+@Service
+public class TaskStatusWriteBehind {
+    private static final String UPDATE_STATUS = "UPDATE tasks SET status = ?, claimed_by_id = NULL, claim_lease_until = NULL, " +
+            "updated_at = now() WHERE id = ? AND deleted_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskPageCache taskPageCache;
+    private final boolean enabled;
+    private final Path walPath;
+    private final int maxPending;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Object walLock = new Object();
+    private final Object syncLock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile FileChannel wal;
+    private volatile long written;
+    private long synced;
+
+    /**
+     * Отложенная смена статуса.
+     *
+     * @param snapshot DTO задачи с новым статусом, {@code null} для записей, восстановленных из журнала.
+     * @param status   Новый статус.
+     */
+    private record Pending(TaskDTO snapshot, TaskStatus status) {
+    }
+
+    public TaskStatusWriteBehind(JdbcTemplate jdbcTemplate,
+                                 TaskPageCache taskPageCache,
+                                 @Value("${task.status-write-behind.enabled}") boolean enabled,
+                                 @Value("${task.status-write-behind.wal-path}") String walPath,
+                                 @Value("${task.status-write-behind.max-pending}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskPageCache = taskPageCache;
+        this.enabled = enabled;
+        this.walPath = enabled ? Path.of(walPath) : null;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Проигрывает журнал, оставшийся после предыдущего запуска, и открывает его для записи.
+     */
+    @PostConstruct
+    void recover() throws IOException {
+        if (!enabled) return;
+        if (walPath.getParent() != null) Files.createDirectories(walPath.getParent());
+        if (Files.exists(walPath)) {
+            try (Stream<String> lines = Files.lines(walPath, StandardCharsets.UTF_8)) {
+                lines.filter(line -> !line.isBlank()).forEach(line -> {
+                    String[] parts = line.split(",");
+                    pending.put(Long.parseLong(parts[0]), new Pending(null, TaskStatus.values()[Integer.parseInt(parts[1])]));
+                });
+            } catch (RuntimeException e) {
+                log.warn("Status write-behind log {} is partially corrupted, replaying readable entries", walPath, e);
+            }
+        }
+        wal = FileChannel.open(walPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} pending status changes from {}", pending.size(), walPath);
+            flush();
+            taskPageCache.invalidateAll();
+        }
+    }
+
+    /**
+     * @return {@code true}, если отложенная запись включена.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Возвращает DTO задачи с отложенной сменой статуса, если её менял тот же автор.
+     * Позволяет повторным сменам статуса обходиться без загрузки задачи из базы.
+     *
+     * @param taskID      ID задачи.
+     * @param authorEmail Email автора.
+     * @return DTO задачи со статусом из буфера или пустое значение.
+     */
+    public Optional<TaskDTO> pendingSnapshot(Long taskID, String authorEmail) {
+        Pending current = pending.get(taskID);
+        if (current == null || current.snapshot() == null
+                || !authorEmail.equals(current.snapshot().getAuthor().getEmail())) {
+            return Optional.empty();
+        }
+        return Optional.of(copyWithStatus(current.snapshot(), current.status()));
+    }
+
+    /**
+     * Заменяет снимок задачи с отложенной сменой статуса сохранённым DTO после правки других полей задачи,
+     * чтобы следующая смена статуса не вернула старые заголовок, исполнителей или команду.
+     *
+     * @param task DTO сохранённой задачи.
+     */
+    public void refreshSnapshot(TaskDTO task) {
+        if (pending.isEmpty()) return;
+        pending.computeIfPresent(task.getId(), (id, current) -> current.snapshot() == null
+                ? current : new Pending(copyWithStatus(task, current.status()), current.status()));
+    }
+
+    /**
+     * Забывает снимок удалённой задачи: следующая смена статуса загрузит задачу из базы и не найдёт её.
+     * Сама отложенная смена остаётся в буфере, а её {@code UPDATE} не затронет удалённую задачу.
+     *
+     * @param taskID ID задачи.
+     */
+    public void forgetSnapshot(Long taskID) {
+        if (pending.isEmpty()) return;
+        pending.computeIfPresent(taskID, (id, current) -> new Pending(null, current.status()));
+    }
+
+    /**
+     * Принимает смену статуса.
+     *
+     * @param current DTO задачи с текущим статусом, проверенный на авторство.
+     * @param status  Новый статус.
+     * @return DTO задачи с новым статусом.
+     */
+    public TaskDTO submit(TaskDTO current, TaskStatus status) {
+        TaskDTO updated = copyWithStatus(current, status);
+
+        long record;
+        synchronized (walLock) {
+            append(current.getId(), status);
+            record = ++written;
+            pending.put(current.getId(), new Pending(updated, status));
+        }
+        sync(record);
+
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+        return copyWithStatus(updated, status);
+    }
+
+    /**
+     * Накладывает на DTO задачи статус из буфера, если по ней есть отложенная смена.
+     *
+     * @param task DTO задачи.
+     * @return Тот же DTO.
+     */
+    public TaskDTO overlay(TaskDTO task) {
+        if (pending.isEmpty()) return task;
+        Pending change = pending.get(task.getId());
+        if (change != null) task.setStatus(change.status().name());
+        return task;
+    }
+
+    /**
+     * Накладывает на задачу из выдачи GraphQL статус из буфера, если по ней есть отложенная смена.
+     *
+     * @param task Задача.
+     * @return Задача с актуальным статусом.
+     */
+    public TaskNode overlay(TaskNode task) {
+        if (pending.isEmpty()) return task;
+        Pending change = pending.get(task.id());
+        return change == null ? task : task.withStatus(change.status());
+    }
+
+    /**
+     * Накладывает статусы из буфера на страницу задач, отобранную по статусу, и убирает задачи,
+     * чей отложенный статус больше не подходит под отбор. Задачи, которые подойдут под отбор
+     * только после записи в базу, на странице не появятся до сброса буфера.
+     *
+     * @param page     Страница DTO задач.
+     * @param statuses Статусы, по которым отобрана страница; пустой набор означает выборку без отбора по статусу.
+     * @return Страница DTO задач с актуальными статусами.
+     */
+    public Page<TaskDTO> overlayTasks(Page<TaskDTO> page, Set<TaskStatus> statuses) {
+        return overlayPage(page, statuses, this::overlay, task -> TaskStatus.valueOf(task.getStatus()));
+    }
+
+    /**
+     * То же, что {@link #overlayTasks(Page, Set)}, для списка задач.
+     *
+     * @param tasks    DTO задач.
+     * @param statuses Статусы, по которым отобраны задачи; пустой набор означает выборку без отбора по статусу.
+     * @return DTO задач с актуальными статусами.
+     */
+    public List<TaskDTO> overlayTasks(List<TaskDTO> tasks, Set<TaskStatus> statuses) {
+        if (pending.isEmpty()) return tasks;
+        return overlayList(tasks, statuses, this::overlay, task -> TaskStatus.valueOf(task.getStatus()));
+    }
+
+    /**
+     * Накладывает статусы из буфера на страницу задач GraphQL, отобранную по статусу,
+     * и убирает задачи, чей отложенный статус больше не подходит под отбор.
+     *
+     * @param page     Страница задач.
+     * @param statuses Статусы, по которым отобрана страница; пустой набор означает выборку без отбора по статусу.
+     * @return Страница задач с актуальными статусами.
+     */
+    public Page<TaskNode> overlayNodes(Page<TaskNode> page, Set<TaskStatus> statuses) {
+        return overlayPage(page, statuses, this::overlay, TaskNode::status);
+    }
+
+    /**
+     * Записывает накопленные смены статуса в базу одной пачкой и сжимает журнал.
+     */
+    @Scheduled(fixedDelayString = "${task.status-write-behind.flush-interval-millis}")
+    public void flush() {
+        if (!enabled || pending.isEmpty() || !flushLock.tryLock()) return;
+        try {
+            List<Map.Entry<Long, Pending>> batch = new ArrayList<>(pending.entrySet());
+            jdbcTemplate.batchUpdate(UPDATE_STATUS, batch, batch.size(), (statement, entry) -> {
+                statement.setInt(1, entry.getValue().status().ordinal());
+                statement.setLong(2, entry.getKey());
+            });
+
+            // Кеш страниц сбрасывается до снятия записей из буфера, чтобы чтения не увидели старый статус из кеша
+            Set<String> emails = new HashSet<>();
+            batch.stream()
+                    .map(entry -> entry.getValue().snapshot())
+                    .filter(Objects::nonNull)
+                    .forEach(snapshot -> emails.addAll(participantEmails(snapshot)));
+            taskPageCache.invalidate(emails);
+
+            synchronized (walLock) {
+                batch.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+                rewriteWal();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} pending status changes", pending.size(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (!enabled) return;
+        flush();
+        wal.close();
+    }
+
+    private <T> Page<T> overlayPage(Page<T> page, Set<TaskStatus> statuses, UnaryOperator<T> overlay,
+                                    Function<T, TaskStatus> status) {
+        if (pending.isEmpty()) return page;
+        if (statuses == null || statuses.isEmpty()) return page.map(overlay);
+
+        List<T> content = overlayList(page.getContent(), statuses, overlay, status);
+        return new PageImpl<>(content, page.getPageable(),
+                page.getTotalElements() - (page.getNumberOfElements() - content.size()));
+    }
+
+    private static <T> List<T> overlayList(List<T> tasks, Set<TaskStatus> statuses, UnaryOperator<T> overlay,
+                                           Function<T, TaskStatus> status) {
+        return tasks.stream()
+                .map(overlay)
+                .filter(task -> statuses == null || statuses.isEmpty() || statuses.contains(status.apply(task)))
+                .toList();
+    }
+
+    private void append(Long taskID, TaskStatus status) {
+        try {
+            wal.write(ByteBuffer.wrap((taskID + "," + status.ordinal() + "\n").getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Дожидается, пока запись журнала с указанным номером окажется на диске. Поток, пришедший первым,
+     * сбрасывает на диск все записи, добавленные к этому моменту; остальные видят, что их запись уже сброшена.
+     */
+    private void sync(long record) {
+        synchronized (syncLock) {
+            if (synced >= record) return;
+            long target = written;
+            try {
+                wal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Заменяет журнал записями, которые ещё не попали в базу. Новый журнал сначала пишется во временный файл,
+     * поэтому сбой во время сжатия не теряет подтверждённые смены. Канал нового журнала открывается до переименования
+     * и подменяет старый только после него: при ошибке продолжается запись в прежний журнал.
+     * Вызывается под {@code walLock}.
+     */
+    private void rewriteWal() {
+        synchronized (syncLock) {
+            try {
+                if (pending.isEmpty()) {
+                    wal.truncate(0);
+                    synced = written;
+                    return;
+                }
+                StringBuilder remaining = new StringBuilder();
+                pending.forEach((id, change) -> remaining.append(id).append(',').append(change.status().ordinal()).append('\n'));
+                Path compacted = walPath.resolveSibling(walPath.getFileName() + ".tmp");
+                Files.deleteIfExists(compacted);
+                FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                try {
+                    channel.write(ByteBuffer.wrap(remaining.toString().getBytes(StandardCharsets.UTF_8)));
+                    channel.force(false);
+                    Files.move(compacted, walPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    Files.deleteIfExists(compacted);
+                    throw e;
+                }
+                FileChannel previous = wal;
+                wal = channel;
+                synced = written;
+                previous.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static TaskDTO copyWithStatus(TaskDTO task, TaskStatus status) {
+        return new TaskDTO(task.getId(), task.getAuthor(), task.getWorker(), task.getTitle(),
+                status.name(), task.getPriority(), task.getComment(), task.getDueAt(), task.getTeamId());
+    }
+
+    private static List<String> participantEmails(TaskDTO task) {
+        List<String> emails = new ArrayList<>();
+        emails.add(task.getAuthor().getEmail());
+        task.getWorker().stream().map(UserDTO::getEmail).forEach(emails::add);
+        return emails;
+    }
+}
@@ -0,0 +1,229 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.annotation.PostConstruct;
+import job.test.TaskSystem.DAO.TaskRepository;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Обратный индекс меток задач по авторам: метка - сжатое битовое множество {@link Roaring64NavigableMap} ID задач.
+ * Индекс автора строится одним запросом при первом обращении, после чего запросы вида «метки X и Y, но не Z»
+ * считаются пересечением и разностью множеств без обращения к базе. {@link TaskService} обновляет индекс
+ * после каждой записи меток в базу. Множества не изменяются после публикации: изменение создаёт копию
+ * затронутого множества, поэтому чтения идут без блокировок. Другие экземпляры сбрасывают индекс автора
+ * через {@link CacheInvalidationBus}, а потерянное уведомление ограничено сроком {@code task.tag-index.ttl}.
+ * Индекс загружается вне блокировок карты, а публикуется, только если за время загрузки у автора не было изменений:
+ * изменения отмечаются в счётчиках, разбитых на полосы по ID автора.
+ */
+@Service
+public class TaskTagIndex {
+    static final String ALL = "*";
+    private static final int STRIPES = 64;
+
+    private final TaskRepository taskRepository;
+    private final Duration ttl;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Map<Long, Index> indexes = new ConcurrentHashMap<>();
+    private final AtomicLongArray changes = new AtomicLongArray(STRIPES);
+
+    /**
+     * Индекс меток автора. Карта и множества не изменяются после создания.
+     *
+     * @param tags      Задачи по меткам.
+     * @param expiresAt Момент в миллисекундах, после которого индекс перестраивается.
+     */
+    private record Index(Map<String, Roaring64NavigableMap> tags, long expiresAt) {
+    }
+
+    public TaskTagIndex(TaskRepository taskRepository,
+                        @Value("${task.tag-index.ttl}") Duration ttl,
+                        CacheInvalidationBus cacheInvalidationBus) {
+        this.taskRepository = taskRepository;
+        this.ttl = ttl;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    /**
+     * Подписывает индекс на изменения меток, сделанные другими экземплярами.
+     */
+    @PostConstruct
+    void subscribeInvalidations() {
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.TASK_TAGS, authorIDs -> {
+            if (authorIDs.contains(ALL)) {
+                clear();
+            } else {
+                authorIDs.forEach(authorID -> {
+                    changed(Long.valueOf(authorID));
+                    indexes.remove(Long.valueOf(authorID));
+                });
+            }
+        }, this::clear);
+    }
+
+    /**
+     * Находит задачи автора, у которых есть все метки из {@code include} и нет ни одной из {@code exclude}.
+     *
+     * @param authorID ID автора.
+     * @param include  Обязательные метки, хотя бы одна.
+     * @param exclude  Исключающие метки.
+     * @return Новое множество ID задач, его можно изменять.
+     */
+    public Roaring64NavigableMap query(Long authorID, Collection<String> include, Collection<String> exclude) {
+        Map<String, Roaring64NavigableMap> tags = index(authorID).tags();
+
+        // Пересечение начинается с самой редкой метки, чтобы промежуточные множества были минимальными
+        List<Roaring64NavigableMap> required = new ArrayList<>();
+        for (String tag : include) {
+            Roaring64NavigableMap tasks = tags.get(tag);
+            if (tasks == null) return newSet();
+            required.add(tasks);
+        }
+        required.sort(Comparator.comparingLong(Roaring64NavigableMap::getLongCardinality));
+
+        Roaring64NavigableMap result = newSet();
+        if (required.isEmpty()) return result;
+        result.or(required.get(0));
+        for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+            result.and(required.get(i));
+        }
+        for (String tag : exclude) {
+            Roaring64NavigableMap tasks = tags.get(tag);
+            if (tasks != null && !result.isEmpty()) result.andNot(tasks);
+        }
+        return result;
+    }
+
+    /**
+     * Учитывает метку, поставленную на задачу.
+     *
+     * @param authorID ID автора задачи.
+     * @param taskID   ID задачи.
+     * @param tag      Метка.
+     */
+    public void add(Long authorID, Long taskID, String tag) {
+        update(authorID, tags -> {
+            Roaring64NavigableMap tasks = copy(tags.get(tag));
+            tasks.addLong(taskID);
+            tags.put(tag, tasks);
+        });
+    }
+
+    /**
+     * Учитывает метку, снятую с задачи.
+     *
+     * @param authorID ID автора задачи.
+     * @param taskID   ID задачи.
+     * @param tag      Метка.
+     */
+    public void remove(Long authorID, Long taskID, String tag) {
+        update(authorID, tags -> removeFrom(tags, tag, taskID));
+    }
+
+    /**
+     * Убирает удалённую задачу из всех меток автора.
+     *
+     * @param authorID ID автора задачи.
+     * @param taskID   ID задачи.
+     */
+    public void removeTask(Long authorID, Long taskID) {
+        update(authorID, tags -> tags.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(taskID))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(tag -> removeFrom(tags, tag, taskID)));
+    }
+
+    /**
+     * Сбрасывает индексы всех авторов на этом экземпляре и на остальных, например после архивации задач.
+     */
+    public void invalidateAll() {
+        clear();
+        cacheInvalidationBus.publish(CacheInvalidationBus.TASK_TAGS, List.of(ALL));
+    }
+
+    /**
+     * Применяет изменение к индексу автора, если он уже построен, и сбрасывает индекс на остальных экземплярах.
+     * Изменение отмечается до применения, поэтому индекс, загруженный до изменения, не будет опубликован,
+     * а уже опубликованный индекс получит изменение под блокировкой ключа.
+     */
+    private void update(Long authorID, Consumer<Map<String, Roaring64NavigableMap>> change) {
+        changed(authorID);
+        indexes.computeIfPresent(authorID, (id, current) -> {
+            Map<String, Roaring64NavigableMap> tags = new HashMap<>(current.tags());
+            change.accept(tags);
+            return new Index(tags, current.expiresAt());
+        });
+        cacheInvalidationBus.publish(CacheInvalidationBus.TASK_TAGS, List.of(authorID.toString()));
+    }
+
+    private Index index(Long authorID) {
+        long now = System.currentTimeMillis();
+        Index cached = indexes.get(authorID);
+        if (cached != null && cached.expiresAt() > now) return cached;
+
+        // Запрос к базе идёт вне compute, чтобы не держать блокировку корзины карты и не тормозить других авторов
+        long stamp = changes.get(stripe(authorID));
+        Map<String, Roaring64NavigableMap> tags = new HashMap<>();
+        for (Object[] row : taskRepository.findTagsByAuthorId(authorID)) {
+            tags.computeIfAbsent((String) row[1], tag -> newSet())
+                    .addLong(((Number) row[0]).longValue());
+        }
+        tags.values().forEach(Roaring64NavigableMap::runOptimize);
+        Index loaded = new Index(tags, now + ttl.toMillis());
+
+        // Индекс, загруженный во время изменения, отдаётся только этому запросу: изменение могло в него не попасть
+        Index published = indexes.compute(authorID, (id, current) -> {
+            if (current != null && current.expiresAt() > now) return current;
+            return changes.get(stripe(id)) == stamp ? loaded : current;
+        });
+        return published != null && published.expiresAt() > now ? published : loaded;
+    }
+
+    private void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            changes.incrementAndGet(i);
+        }
+        indexes.clear();
+    }
+
+    private void changed(Long authorID) {
+        changes.incrementAndGet(stripe(authorID));
+    }
+
+    private static int stripe(Long authorID) {
+        return Long.hashCode(authorID) & (STRIPES - 1);
+    }
+
+    private static void removeFrom(Map<String, Roaring64NavigableMap> tags, String tag, long taskID) {
+        Roaring64NavigableMap current = tags.get(tag);
+        if (current == null || !current.contains(taskID)) return;
+        Roaring64NavigableMap tasks = copy(current);
+        tasks.removeLong(taskID);
+        if (tasks.isEmpty()) {
+            tags.remove(tag);
+        } else {
+            tags.put(tag, tasks);
+        }
+    }
+
+    /**
+     * Создаёт множество без кеша накопленных мощностей: кеш заполняется при чтении,
+     * а опубликованные множества читаются из нескольких потоков.
+     */
+    private static Roaring64NavigableMap newSet() {
+        return new Roaring64NavigableMap(false, false);
+    }
+
+    private static Roaring64NavigableMap copy(Roaring64NavigableMap tasks) {
+        Roaring64NavigableMap copy = newSet();
+        if (tasks != null) copy.or(tasks);
+        return copy;
+    }
+}
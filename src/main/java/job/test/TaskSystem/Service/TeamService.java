@@ -0,0 +1,196 @@
+package job.test.TaskSystem.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.TeamRepository;
+import job.test.TaskSystem.Model.Team;
+import job.test.TaskSystem.Model.TeamDTO;
+import job.test.TaskSystem.Model.User;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис для управления командами и проверки членства.
+ * Команды пользователя хранятся в памяти сжатым битовым множеством {@link RoaringBitmap}, поэтому проверка доступа
+ * к задачам команды не делает запросов к базе. Множество загружается одним запросом при первом обращении
+ * и сбрасывается при изменении состава на всех экземплярах через {@link CacheInvalidationBus};
+ * если уведомление потеряно, изменение видно не позже чем через {@code team.membership-cache.ttl}.
+ */
+@Service
+public class TeamService {
+    private final TeamRepository teamRepository;
+    private final UserService userService;
+    private final Duration membershipTtl;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Map<Long, Membership> memberships = new ConcurrentHashMap<>();
+
+    /**
+     * Закешированные команды пользователя. Битовое множество не изменяется после создания.
+     *
+     * @param teams     ID команд.
+     * @param expiresAt Момент в миллисекундах, после которого множество перечитывается.
+     */
+    private record Membership(RoaringBitmap teams, long expiresAt) {
+    }
+
+    public TeamService(TeamRepository teamRepository,
+                       UserService userService,
+                       @Value("${team.membership-cache.ttl}") Duration membershipTtl,
+                       CacheInvalidationBus cacheInvalidationBus) {
+        this.teamRepository = teamRepository;
+        this.userService = userService;
+        this.membershipTtl = membershipTtl;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    /**
+     * Подписывает кеш членства на изменения состава команд, сделанные другими экземплярами.
+     */
+    @PostConstruct
+    void subscribeInvalidations() {
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.TEAM_MEMBERSHIPS,
+                userIDs -> userIDs.forEach(userID -> memberships.remove(Long.valueOf(userID))),
+                memberships::clear);
+    }
+
+    /**
+     * Создаёт команду. Создатель становится её владельцем и участником.
+     *
+     * @param user DTO пользователя, создающего команду.
+     * @param name Название команды.
+     * @return DTO новой команды.
+     * @throws EntityExistsException Если команда с таким названием уже существует.
+     */
+    public TeamDTO createTeam(UserDTO user, String name) throws EntityExistsException {
+        if (teamRepository.existsByName(name)) {
+            throw new EntityExistsException("Team with this name already exists");
+        }
+
+        User owner = userService.getUserByEmail(user.getEmail());
+        Team team = teamRepository.save(Team.builder()
+                .name(name)
+                .owner(owner)
+                .build());
+        teamRepository.addMember(team.getId(), owner.getId());
+        evict(owner.getId());
+        return team.toDTO();
+    }
+
+    /**
+     * Добавляет пользователя в команду.
+     *
+     * @param user        DTO пользователя, который является владельцем команды.
+     * @param teamID      ID команды.
+     * @param memberEmail Email нового участника.
+     * @throws EntityNotFoundException Если команда не найдена среди команд владельца или пользователь не найден.
+     * @throws EntityExistsException   Если пользователь уже состоит в команде.
+     */
+    public void addMember(UserDTO user, Long teamID, String memberEmail) throws EntityNotFoundException, EntityExistsException {
+        findOwnTeam(teamID, user);
+        User member = userService.getUserByEmail(memberEmail);
+
+        if (teamRepository.addMember(teamID, member.getId()) == 0) {
+            throw new EntityExistsException("User " + memberEmail + " already in team");
+        }
+        evict(member.getId());
+    }
+
+    /**
+     * Удаляет пользователя из команды.
+     *
+     * @param user        DTO пользователя, который является владельцем команды.
+     * @param teamID      ID команды.
+     * @param memberEmail Email участника.
+     * @throws EntityNotFoundException  Если команда не найдена среди команд владельца или пользователь не состоит в ней.
+     * @throws InvalidRequestException  Если владелец пытается удалить себя.
+     */
+    public void removeMember(UserDTO user, Long teamID, String memberEmail) throws EntityNotFoundException, InvalidRequestException {
+        findOwnTeam(teamID, user);
+        if (user.getEmail().equals(memberEmail)) {
+            throw new InvalidRequestException("Team owner can`t leave the team");
+        }
+        User member = userService.getUserByEmail(memberEmail);
+
+        if (teamRepository.removeMember(teamID, member.getId()) == 0) {
+            throw new EntityNotFoundException("User " + memberEmail + " is not in team");
+        }
+        evict(member.getId());
+    }
+
+    /**
+     * Получает команды пользователя.
+     *
+     * @param user DTO пользователя.
+     * @return Список DTO команд, в которых состоит пользователь.
+     */
+    public List<TeamDTO> getTeams(UserDTO user) {
+        return teamRepository.findAllById(teamIds(user.getId())).stream()
+                .map(Team::toDTO)
+                .toList();
+    }
+
+    /**
+     * Проверяет членство пользователя в команде без обращения к базе, если команды пользователя уже закешированы.
+     *
+     * @param userID ID пользователя.
+     * @param teamID ID команды.
+     * @return {@code true}, если пользователь состоит в команде.
+     */
+    public boolean isMember(Long userID, Long teamID) {
+        return teamID != null && membership(userID).contains(Math.toIntExact(teamID));
+    }
+
+    /**
+     * Получает ID команд пользователя.
+     *
+     * @param userID ID пользователя.
+     * @return Список ID команд по возрастанию.
+     */
+    public List<Long> teamIds(Long userID) {
+        return Arrays.stream(membership(userID).toArray())
+                .mapToObj(Long::valueOf)
+                .toList();
+    }
+
+    /**
+     * Сбрасывает закешированные команды пользователя на этом и остальных экземплярах.
+     *
+     * @param userID ID пользователя.
+     */
+    public void evict(Long userID) {
+        memberships.remove(userID);
+        cacheInvalidationBus.publish(CacheInvalidationBus.TEAM_MEMBERSHIPS, List.of(userID.toString()));
+    }
+
+    private RoaringBitmap membership(Long userID) {
+        if (userID == null) return new RoaringBitmap();
+
+        long now = System.currentTimeMillis();
+        Membership cached = memberships.get(userID);
+        if (cached != null && cached.expiresAt() > now) return cached.teams();
+
+        // Загрузка идёт под блокировкой ключа, поэтому сброс из evict не может обогнать загрузку старого состава
+        return memberships.compute(userID, (id, current) -> {
+            if (current != null && current.expiresAt() > now) return current;
+            RoaringBitmap teams = new RoaringBitmap();
+            teamRepository.findTeamIdsByUserId(id).forEach(teamID -> teams.add(Math.toIntExact(teamID)));
+            teams.runOptimize();
+            return new Membership(teams, now + membershipTtl.toMillis());
+        }).teams();
+    }
+
+    private Team findOwnTeam(Long teamID, UserDTO user) throws EntityNotFoundException {
+        return teamRepository.findByIdAndOwnerEmail(teamID, user.getEmail())
+                .orElseThrow(() -> new EntityNotFoundException("Team not found"));
+    }
+}
@@ -0,0 +1,122 @@
+package job.test.TaskSystem.Service;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import job.test.TaskSystem.DAO.RevokedTokenRepository;
+import job.test.TaskSystem.Model.RevokedToken;
+import job.test.TaskSystem.Util.RevocationIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Сервис отзыва JWT токенов.
+ * Список отзывов хранится в таблице и синхронизируется в {@link RevocationIndex} в памяти,
+ * поэтому проверка токена не обращается к базе данных.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private RevocationIndex index;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    @Value("${token.refresh.ttl}")
+    private Duration refreshTokenTtl;
+
+    @Value("${token.revocation.expected-size}")
+    private int expectedSize;
+
+    @Value("${token.revocation.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @Value("${token.revocation.sync-overlap}")
+    private Duration syncOverlap;
+
+    @Value("${token.revocation.sync-on-startup}")
+    private boolean syncOnStartup;
+
+    /**
+     * Загружает отзывы до того, как приложение начнёт принимать запросы.
+     * Тренировочный запуск CDS поднимает контекст без базы и отключает загрузку через {@code token.revocation.sync-on-startup}.
+     */
+    @PostConstruct
+    void init() {
+        index = new RevocationIndex(expectedSize, falsePositiveRate);
+        if (syncOnStartup) sync();
+    }
+
+    /**
+     * Проверяет, отозван ли токен: по его {@code jti} или отзывом всех токенов пользователя.
+     *
+     * @param claims Проверенные данные токена.
+     * @return {@code true}, если токен отозван.
+     */
+    public boolean isRevoked(Claims claims) {
+        return index.isRevoked(claims);
+    }
+
+    /**
+     * Отзывает отдельный токен. Отзыв записывается условной вставкой, поэтому из нескольких одновременных
+     * отзывов одного токена, в том числе на разных экземплярах, успешным оказывается ровно один.
+     *
+     * @param jti       Идентификатор токена.
+     * @param expiresAt Момент истечения токена, после которого запись об отзыве можно удалить.
+     * @return {@code true}, если токен отозван этим вызовом, {@code false} - если он уже был отозван.
+     */
+    public boolean revokeToken(String jti, Instant expiresAt) {
+        RevokedToken token = RevokedToken.builder()
+                .id(jti)
+                .revokedAt(Instant.now())
+                .expiresAt(expiresAt)
+                .build();
+        boolean inserted = revokedTokenRepository.insertIfAbsent(token.getId(), token.getRevokedAt(), token.getExpiresAt()) > 0;
+        index.remember(token);
+        return inserted;
+    }
+
+    /**
+     * Отзывает все токены пользователя, выпущенные до текущего момента.
+     *
+     * @param userId ID пользователя.
+     */
+    public void revokeAllForUser(Long userId) {
+        Instant now = Instant.now();
+        revoke(RevokedToken.builder()
+                .id(RevocationIndex.userKey(userId))
+                .revokedAt(now)
+                .expiresAt(now.plus(refreshTokenTtl))
+                .build());
+    }
+
+    /**
+     * Подтягивает отзывы, сделанные другими экземплярами приложения, и удаляет истёкшие записи.
+     */
+    @Scheduled(fixedDelayString = "${token.revocation.sync-interval-millis}")
+    public void sync() {
+        Instant now = Instant.now();
+        // Перекрытие окна учитывает транзакции, зафиксированные позже момента revokedAt
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minus(syncOverlap);
+        for (RevokedToken token : revokedTokenRepository.findAllByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            index.remember(token);
+        }
+        lastSync = now;
+
+        int removed = index.removeExpired(now);
+        if (removed > 0) {
+            revokedTokenRepository.deleteExpired(now);
+            log.info("Dropped {} expired token revocations", removed);
+        }
+    }
+
+    private void revoke(RevokedToken token) {
+        revokedTokenRepository.save(token);
+        index.remember(token);
+    }
+}
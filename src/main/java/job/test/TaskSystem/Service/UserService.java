@@ -1,23 +1,51 @@
 package job.test.TaskSystem.Service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 import job.test.TaskSystem.DAO.UserRepository;
 import job.test.TaskSystem.Model.*;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Сервис для управления пользователями.
  * Предоставляет методы для получения пользователей по email, проверки существования пользователей,
  * загрузки пользователей по имени пользователя и сохранения пользователей.
+ * Поиск по email обслуживается кешем второго уровня Hibernate.
  */
 @Service
 @RequiredArgsConstructor
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Подписывает кеш второго уровня на изменения пользователей, сделанные другими экземплярами.
+     * Вместе с сущностями сбрасывается кеш запросов: метки изменения таблиц у каждого экземпляра свои,
+     * и без сброса {@code existsByEmail} не увидел бы пользователя, зарегистрированного на другом экземпляре.
+     */
+    @PostConstruct
+    void subscribeInvalidations() {
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.USERS, userIDs -> {
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            userIDs.forEach(userID -> cache.evictEntityData(User.class, Long.valueOf(userID)));
+            cache.evictDefaultQueryRegion();
+        }, () -> {
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            cache.evictEntityData(User.class);
+            cache.evictNaturalIdData(User.class);
+            cache.evictDefaultQueryRegion();
+        });
+    }
 
     /**
      * Получает пользователя по email.
@@ -27,7 +55,7 @@ public class UserService implements UserDetailsService {
      * @throws UsernameNotFoundException Если пользователь с указанным email не найден.
      */
     public User getUserByEmail(String email) throws EntityNotFoundException {
-        return userRepository.findByEmail(email)
+        return userRepository.findByNaturalEmail(email)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with email: " + email));
     }
 
@@ -54,11 +82,12 @@ public class UserService implements UserDetailsService {
     }
 
     /**
-     * Сохраняет пользователя.
+     * Сохраняет пользователя и рассылает сброс его записи в кешах других экземпляров.
      *
      * @param user Пользователь для сохранения.
      */
     public void save(User user) {
-        userRepository.save(user);
+        User saved = userRepository.save(user);
+        cacheInvalidationBus.publish(CacheInvalidationBus.USERS, List.of(saved.getId().toString()));
     }
 }
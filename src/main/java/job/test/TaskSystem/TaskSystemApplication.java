@@ -1,9 +1,14 @@
 package job.test.TaskSystem;
 
+import job.test.TaskSystem.Configuration.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class TaskSystemApplication {
 
 	public static void main(String[] args) {
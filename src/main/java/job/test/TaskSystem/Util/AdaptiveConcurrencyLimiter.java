@@ -0,0 +1,122 @@
+package job.test.TaskSystem.Util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременных запросов по градиенту задержки.
+ * Задержки собираются окнами по {@code windowSamples} запросов. Средняя задержка окна сравнивается
+ * с долгосрочной скользящей средней: пока они близки, лимит растёт на корень из текущего лимита,
+ * а когда задержка окна растёт быстрее допустимого {@code tolerance}, лимит уменьшается пропорционально,
+ * но не более чем вдвое за окно. Запросы сверх лимита отклоняются сразу, не занимая потоки и соединения.
+ * Пока лимит используется меньше чем наполовину, он не растёт, чтобы простой не раздувал его до максимума.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int windowSamples;
+    private final double longRttFactor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    private double longRtt;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    /**
+     * Создаёт лимит.
+     *
+     * @param initialLimit  Начальный лимит.
+     * @param minLimit      Минимальный лимит.
+     * @param maxLimit      Максимальный лимит.
+     * @param tolerance     Во сколько раз задержка окна может превысить долгосрочную без снижения лимита.
+     * @param smoothing     Доля нового значения лимита при пересчёте, от 0 до 1.
+     * @param windowSamples Количество запросов в окне замера.
+     * @param longWindows   Количество окон, за которое усредняется долгосрочная задержка.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing, int windowSamples, int longWindows) {
+        if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= initial <= max");
+        }
+        if (tolerance < 1 || smoothing <= 0 || smoothing > 1 || windowSamples <= 0 || longWindows <= 0) {
+            throw new IllegalArgumentException("Tolerance must be at least 1, smoothing in (0, 1], windows positive");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowSamples = windowSamples;
+        this.longRttFactor = 2.0 / (longWindows + 1);
+    }
+
+    /**
+     * Занимает место под запрос.
+     *
+     * @return {@code true}, если запрос укладывается в лимит и его нужно завершить вызовом {@link #release(long)}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /**
+     * Освобождает место запроса и учитывает его задержку.
+     *
+     * @param rttNanos Время выполнения запроса в наносекундах.
+     */
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            windowRttSum += rttNanos;
+            windowMaxInFlight = Math.max(windowMaxInFlight, current);
+            if (++windowCount < windowSamples) return;
+
+            double shortRtt = Math.max(1.0, (double) windowRttSum / windowCount);
+            int maxInFlight = windowMaxInFlight;
+            windowRttSum = 0;
+            windowCount = 0;
+            windowMaxInFlight = 0;
+            update(shortRtt, maxInFlight);
+        }
+    }
+
+    /**
+     * @return Текущий лимит.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return Количество выполняющихся запросов.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        longRtt += (shortRtt - longRtt) * longRttFactor;
+        // После долгой перегрузки средняя остаётся завышенной, её подтягивание ускоряет восстановление лимита
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        if (gradient == 1.0 && maxInFlight < limit / 2) return;
+
+        double target = limit * gradient + Math.sqrt(limit);
+        double smoothed = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+}
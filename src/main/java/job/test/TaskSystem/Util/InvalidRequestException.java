@@ -0,0 +1,12 @@
+package job.test.TaskSystem.Util;
+
+/**
+ * Некорректные данные запроса: цикл в зависимостях, пустой набор меток, слишком большой файл и т.п.
+ * Только это исключение обработчики ошибок переводят в 400 / INVALID_ARGUMENT / BAD_REQUEST;
+ * прочие {@link IllegalArgumentException} считаются ошибками сервера.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,153 @@
+package job.test.TaskSystem.Util;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU кеш байтовых значений вне кучи.
+ * Значения хранятся в прямых {@link ByteBuffer} блоками фиксированного размера, в куче остаются только ключи
+ * и номера блоков, поэтому рост кеша не увеличивает старое поколение и паузы сборщика мусора.
+ * Буферы-арены выделяются по мере заполнения, освобождённые блоки переиспользуются.
+ * При нехватке места вытесняются давно не читавшиеся записи. Потокобезопасен.
+ *
+ * @param <K> Тип ключа.
+ */
+public class OffHeapLruCache<K> {
+    private static final int MAX_ARENA_BYTES = 64 * 1024 * 1024;
+
+    private final int blockSize;
+    private final int blocksPerArena;
+    private final int totalBlocks;
+    private final ByteBuffer[] arenas;
+    private final int[] freeBlocks;
+    private int freeCount;
+    private int nextUnusedBlock;
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private record Entry(int[] blocks, int length, long expiresAt) {
+    }
+
+    /**
+     * Создаёт кеш. Память под блоки выделяется по мере заполнения.
+     *
+     * @param capacityBytes Максимальный объём памяти под значения.
+     * @param blockSize     Размер блока в байтах.
+     */
+    public OffHeapLruCache(long capacityBytes, int blockSize) {
+        if (blockSize <= 0 || capacityBytes < blockSize) {
+            throw new IllegalArgumentException("Invalid off-heap cache parameters");
+        }
+        this.blockSize = blockSize;
+        this.blocksPerArena = Math.max(1, MAX_ARENA_BYTES / blockSize);
+        this.totalBlocks = (int) Math.min(Integer.MAX_VALUE - 8, capacityBytes / blockSize);
+        this.arenas = new ByteBuffer[(totalBlocks + blocksPerArena - 1) / blocksPerArena];
+        this.freeBlocks = new int[totalBlocks];
+    }
+
+    /**
+     * Сохраняет значение, вытесняя при необходимости давно не читавшиеся записи.
+     *
+     * @param key       Ключ.
+     * @param value     Значение.
+     * @param expiresAt Момент в миллисекундах, после которого запись считается устаревшей.
+     * @return {@code false}, если значение больше всего кеша и не сохранено.
+     */
+    public synchronized boolean put(K key, byte[] value, long expiresAt) {
+        int needed = (value.length + blockSize - 1) / blockSize;
+        if (needed > totalBlocks) return false;
+
+        release(entries.remove(key));
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (available() < needed && eldest.hasNext()) {
+            release(eldest.next());
+            eldest.remove();
+        }
+
+        int[] blocks = new int[needed];
+        for (int i = 0; i < needed; i++) {
+            blocks[i] = allocate();
+            int offset = i * blockSize;
+            int length = Math.min(blockSize, value.length - offset);
+            arena(blocks[i]).put(position(blocks[i]), value, offset, length);
+        }
+        entries.put(key, new Entry(blocks, value.length, expiresAt));
+        return true;
+    }
+
+    /**
+     * Читает значение и отмечает запись как недавно использованную.
+     *
+     * @param key Ключ.
+     * @param now Текущий момент в миллисекундах.
+     * @return Копия значения или {@code null}, если записи нет или она устарела.
+     */
+    public synchronized byte[] get(K key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt() <= now) {
+            entries.remove(key);
+            release(entry);
+            return null;
+        }
+
+        byte[] value = new byte[entry.length()];
+        for (int i = 0; i < entry.blocks().length; i++) {
+            int offset = i * blockSize;
+            int length = Math.min(blockSize, entry.length() - offset);
+            arena(entry.blocks()[i]).get(position(entry.blocks()[i]), value, offset, length);
+        }
+        return value;
+    }
+
+    /**
+     * Удаляет все записи. Выделенная память остаётся за кешем для повторного использования.
+     */
+    public synchronized void clear() {
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    /**
+     * @return Количество записей.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Объём памяти в байтах, занятый блоками записей.
+     */
+    public synchronized long usedBytes() {
+        return (long) (nextUnusedBlock - freeCount) * blockSize;
+    }
+
+    private int available() {
+        return freeCount + totalBlocks - nextUnusedBlock;
+    }
+
+    private int allocate() {
+        return freeCount > 0 ? freeBlocks[--freeCount] : nextUnusedBlock++;
+    }
+
+    private void release(Entry entry) {
+        if (entry == null) return;
+        for (int block : entry.blocks()) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+
+    private ByteBuffer arena(int block) {
+        int index = block / blocksPerArena;
+        if (arenas[index] == null) {
+            int blocks = Math.min(blocksPerArena, totalBlocks - index * blocksPerArena);
+            arenas[index] = ByteBuffer.allocateDirect(blocks * blockSize);
+        }
+        return arenas[index];
+    }
+
+    private int position(int block) {
+        return (block % blocksPerArena) * blockSize;
+    }
+}
@@ -0,0 +1,122 @@
+package job.test.TaskSystem.Util;
+
+import io.jsonwebtoken.Claims;
+import job.test.TaskSystem.Model.RevokedToken;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Отзывы JWT токенов в памяти.
+ * Фильтр Блума отсекает подавляющее большинство действующих токенов, а точная проверка выполняется по хеш-таблице,
+ * поэтому проверка токена не обращается к базе данных. Откуда берутся отзывы, решает владелец индекса.
+ * Изменения индекса и перестроение фильтра синхронизированы между собой, проверка токена идёт без блокировок.
+ */
+public class RevocationIndex {
+    /**
+     * Claim с моментом выпуска токена в миллисекундах: стандартный {@code iat} хранит только секунды.
+     */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+    private static final String USER_KEY_PREFIX = "user:";
+
+    private final Map<String, RevokedToken> revoked = new ConcurrentHashMap<>();
+    private final int expectedSize;
+    private final double falsePositiveRate;
+    private volatile BloomFilter filter;
+    private int filterCapacity;
+
+    /**
+     * @param expectedSize      Ожидаемое количество отзывов, под которое строится фильтр.
+     * @param falsePositiveRate Допустимая доля ложноположительных ответов фильтра.
+     */
+    public RevocationIndex(int expectedSize, double falsePositiveRate) {
+        this.expectedSize = expectedSize;
+        this.falsePositiveRate = falsePositiveRate;
+        rebuildFilter();
+    }
+
+    /**
+     * Возвращает ключ отзыва всех токенов пользователя.
+     *
+     * @param userId ID пользователя.
+     * @return Ключ вида {@code user:<id>}.
+     */
+    public static String userKey(Long userId) {
+        return USER_KEY_PREFIX + userId;
+    }
+
+    /**
+     * Проверяет, отозван ли токен: по его {@code jti} или отзывом всех токенов пользователя.
+     * Отзыв всех токенов сравнивается с моментом выпуска в миллисекундах ({@link #ISSUED_AT_MILLIS_CLAIM}),
+     * поэтому токены, выпущенные сразу после отзыва (например, при смене пароля), действуют. Токен, выпущенный
+     * в ту же миллисекунду, что и отзыв, считается выпущенным после него.
+     *
+     * @param claims Проверенные данные токена.
+     * @return {@code true}, если токен отозван.
+     */
+    public boolean isRevoked(Claims claims) {
+        BloomFilter current = filter;
+        String jti = claims.getId();
+        if (jti != null && current.mightContain(jti) && revoked.containsKey(jti)) {
+            return true;
+        }
+
+        Long userId = claims.get("id", Long.class);
+        if (userId == null) return false;
+        String userKey = userKey(userId);
+        if (!current.mightContain(userKey)) return false;
+
+        RevokedToken userRevocation = revoked.get(userKey);
+        if (userRevocation == null) return false;
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis != null) {
+            return issuedAtMillis < userRevocation.getRevokedAt().toEpochMilli();
+        }
+        // У токенов без iat_ms момент выпуска известен до секунды, поэтому момент отзыва округляется вверх
+        Instant revokedAt = userRevocation.getRevokedAt().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        return claims.getIssuedAt() == null || claims.getIssuedAt().toInstant().isBefore(revokedAt);
+    }
+
+    /**
+     * Добавляет отзыв. Из двух отзывов с одним ключом остаётся более поздний.
+     *
+     * @param token Отзыв.
+     */
+    public synchronized void remember(RevokedToken token) {
+        revoked.merge(token.getId(), token,
+                (old, fresh) -> fresh.getRevokedAt().isAfter(old.getRevokedAt()) ? fresh : old);
+        filter.put(token.getId());
+        if (revoked.size() > filterCapacity) {
+            rebuildFilter();
+        }
+    }
+
+    /**
+     * Удаляет истёкшие отзывы и перестраивает фильтр, если что-то удалено.
+     *
+     * @param now Текущий момент.
+     * @return Количество удалённых отзывов.
+     */
+    public synchronized int removeExpired(Instant now) {
+        int removed = 0;
+        for (var iterator = revoked.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getExpiresAt().isBefore(now)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            rebuildFilter();
+        }
+        return removed;
+    }
+
+    private synchronized void rebuildFilter() {
+        filterCapacity = Math.max(expectedSize, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(filterCapacity, falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,133 @@
+package job.test.TaskSystem.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Иерархическое колесо таймеров.
+ * Нижний уровень делит время на {@code wheelSize} интервалов длиной {@code tickMillis},
+ * каждый следующий уровень создаётся по мере надобности и имеет интервал, равный полному обороту предыдущего.
+ * Добавление и срабатывание стоят O(1), а записи с дальними сроками опускаются на нижние уровни,
+ * только когда время подходит к их интервалу.
+ * Класс не потокобезопасен, синхронизация остаётся на вызывающей стороне.
+ *
+ * @param <T> Тип полезной нагрузки таймера.
+ */
+public class TimerWheel<T> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Entry<T>>> buckets;
+    private final TimerWheel<T> root;
+    private long currentTime;
+    private TimerWheel<T> overflow;
+    private int size;
+
+    /**
+     * Создаёт колесо таймеров.
+     *
+     * @param tickMillis  Длина интервала нижнего уровня в миллисекундах.
+     * @param wheelSize   Количество интервалов на каждом уровне.
+     * @param startMillis Начальный момент времени в миллисекундах.
+     */
+    public TimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        this(tickMillis, wheelSize, startMillis, null);
+    }
+
+    private TimerWheel(long tickMillis, int wheelSize, long startMillis, TimerWheel<T> root) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.interval = tickMillis * wheelSize;
+        this.currentTime = startMillis - (startMillis % tickMillis);
+        this.root = root == null ? this : root;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Планирует срабатывание таймера.
+     *
+     * @param deadlineMillis Момент срабатывания в миллисекундах.
+     * @param item           Полезная нагрузка.
+     * @return {@code false}, если момент уже наступил и таймер нужно обработать сразу, иначе {@code true}.
+     */
+    public boolean schedule(long deadlineMillis, T item) {
+        if (deadlineMillis < currentTime) {
+            return false;
+        }
+        add(new Entry<>(deadlineMillis, item));
+        size++;
+        return true;
+    }
+
+    /**
+     * Продвигает время и возвращает все таймеры, срок которых наступил.
+     *
+     * @param nowMillis Текущий момент в миллисекундах.
+     * @return Сработавшие таймеры в порядке интервалов.
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        while (currentTime + tickMillis <= nowMillis) {
+            List<Entry<T>> bucket = buckets.get(slot(currentTime));
+            for (Entry<T> entry : bucket) {
+                expired.add(entry.item());
+            }
+            bucket.clear();
+
+            currentTime += tickMillis;
+            if (overflow != null) {
+                overflow.cascade(currentTime);
+            }
+        }
+        size -= expired.size();
+        return expired;
+    }
+
+    /**
+     * @return Количество запланированных таймеров.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void add(Entry<T> entry) {
+        if (entry.deadline() < currentTime + interval) {
+            buckets.get(slot(entry.deadline())).add(entry);
+        } else {
+            if (overflow == null) {
+                overflow = new TimerWheel<>(interval, wheelSize, currentTime, root);
+            }
+            overflow.add(entry);
+        }
+    }
+
+    /**
+     * Переносит записи верхнего уровня, интервал которых начался, на нижние уровни.
+     */
+    private void cascade(long time) {
+        while (currentTime + tickMillis <= time) {
+            currentTime += tickMillis;
+            if (overflow != null) {
+                overflow.cascade(currentTime);
+            }
+
+            List<Entry<T>> bucket = buckets.get(slot(currentTime));
+            List<Entry<T>> moved = new ArrayList<>(bucket);
+            bucket.clear();
+            moved.forEach(root::add);
+        }
+    }
+
+    private int slot(long time) {
+        return (int) ((time / tickMillis) % wheelSize);
+    }
+
+    private record Entry<T>(long deadline, T item) {
+    }
+}
@@ -0,0 +1,24 @@
+-- Объекты, которые нельзя описать аннотациями JPA. Выполняется после обновления схемы Hibernate.
+CREATE INDEX IF NOT EXISTS idx_task_history_changed_at_brin ON task_history USING brin (changed_at);
+
+-- Поиск пользователя по email идёт по уникальному индексу @NaturalId, отдельный индекс только замедлял запись
+DROP INDEX IF EXISTS idx_users_email;
+
+-- Задачи, созданные до появления updated_at, получают момент первого запуска: иначе архивация сочла бы их
+-- давно выполненными и унесла бы разом. Новые строки заполняют updated_at сами, поэтому обновление пустое после первого запуска
+UPDATE tasks SET updated_at = now() WHERE updated_at IS NULL;
+
+-- Дубли заголовков неудалённых задач, созданные до появления индекса, получают суффикс с ID задачи,
+-- самая старая задача сохраняет заголовок. Выполняется, только пока индекса нет
+UPDATE tasks t SET title = left(t.title, 255 - length(' (' || t.id || ')')) || ' (' || t.id || ')'
+WHERE to_regclass('uq_tasks_author_title') IS NULL
+  AND t.deleted_at IS NULL
+  AND EXISTS (SELECT 1 FROM tasks o
+              WHERE o.author_id = t.author_id AND o.title = t.title AND o.deleted_at IS NULL AND o.id < t.id);
+
+-- Заголовки неудалённых задач уникальны у автора, на этот индекс опирается INSERT ... ON CONFLICT при создании задачи
+CREATE UNIQUE INDEX IF NOT EXISTS uq_tasks_author_title ON tasks (author_id, title) WHERE deleted_at IS NULL;
+
+-- Поиск по началу заголовка (LIKE 'prefix%') среди задач автора. Класс операторов text_pattern_ops нужен,
+-- потому что обычный btree индекс не подходит для LIKE при сортировке базы, отличной от C
+CREATE INDEX IF NOT EXISTS idx_tasks_author_title_prefix ON tasks (author_id, title text_pattern_ops) WHERE deleted_at IS NULL;
@@ -0,0 +1,68 @@
+package job.test.TaskSystem.Reactive;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Фильтр JWT токенов реактивного модуля.
+ * Проверяет токен доступа тем же {@link JwtService}, что и основное приложение, учитывает отзывы
+ * и кладёт пользователя в атрибут запроса {@link #USER_ATTRIBUTE}. Запросы к задачам без действующего токена отклоняются.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtWebFilter implements WebFilter {
+    public static final String USER_ATTRIBUTE = "user";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String PROTECTED_PATH = "/task";
+
+    private final JwtService jwtService;
+    private final ReactiveTokenRevocations tokenRevocations;
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith(PROTECTED_PATH)) {
+            return chain.filter(exchange);
+        }
+
+        UserDTO user = authenticate(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        if (user == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return exchange.getResponse().setComplete();
+        }
+        exchange.getAttributes().put(USER_ATTRIBUTE, user);
+        return chain.filter(exchange);
+    }
+
+    private UserDTO authenticate(String authHeader) {
+        if (StringUtils.isEmpty(authHeader) || !StringUtils.startsWithIgnoreCase(authHeader, BEARER_PREFIX)) {
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(authHeader.substring(BEARER_PREFIX.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!jwtService.isTokenOfType(claims, JwtService.ACCESS_TOKEN_TYPE)
+                || StringUtils.isEmpty(claims.get("email", String.class))
+                || tokenRevocations.isRevoked(claims)) {
+            return null;
+        }
+        return jwtService.toUser(claims);
+    }
+}
@@ -0,0 +1,28 @@
+package job.test.TaskSystem.Reactive;
+
+import job.test.TaskSystem.Service.JwtKeyRing;
+import job.test.TaskSystem.Service.JwtService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Реактивный модуль чтения задач на WebFlux и R2DBC.
+ * Обслуживает только выборки списков задач, запросы не занимают поток на время обращения к базе.
+ * Из основного приложения переиспользуются модели и проверка JWT токенов, настройки читаются из {@code reactive.properties}.
+ */
+@SpringBootApplication
+@EnableScheduling
+@Import({JwtKeyRing.class, JwtService.class})
+public class ReactiveTaskApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveTaskApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.properties("spring.config.name=reactive")
+				.run(args);
+	}
+
+}
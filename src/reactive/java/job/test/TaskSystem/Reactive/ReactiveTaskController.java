@@ -0,0 +1,167 @@
+package job.test.TaskSystem.Reactive;
+
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskPriority;
+import job.test.TaskSystem.Model.TaskQuery;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.UserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Реактивный контроллер выборок задач.
+ * Повторяет пути и формат страниц {@code TaskController} основного приложения. С параметром
+ * {@code stream=true} те же пути отдают все задачи потоком NDJSON без пагинации:
+ * строки читаются из базы по мере того, как клиент забирает ответ.
+ */
+@RestController
+@RequestMapping("/task")
+public class ReactiveTaskController {
+    private final ReactiveTaskService taskService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ReactiveTaskController(ReactiveTaskService taskService,
+                                  @Value("${task.reactive.default-page-size}") int defaultPageSize,
+                                  @Value("${task.reactive.max-page-size}") int maxPageSize) {
+        this.taskService = taskService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @GetMapping()
+    public Mono<Page<TaskDTO>> getTasksOfCurrentUser(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return page(user, author(user.getEmail(), null, null), page, size);
+    }
+
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDTO> streamTasksOfCurrentUser(@RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user) {
+        return taskService.stream(user, author(user.getEmail(), null, null));
+    }
+
+    @GetMapping("/{email}")
+    public Mono<Page<TaskDTO>> getTasksByAuthorEmail(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return page(user, author(email, null, null), page, size);
+    }
+
+    @GetMapping(value = "/{email}", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDTO> streamTasksByAuthorEmail(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email) {
+        return taskService.stream(user, author(email, null, null));
+    }
+
+    @GetMapping("/{email}/status")
+    public Mono<Page<TaskDTO>> getTasksByAuthorEmailAndStatus(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam TaskStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return page(user, author(email, status, null), page, size);
+    }
+
+    @GetMapping(value = "/{email}/status", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDTO> streamTasksByAuthorEmailAndStatus(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam TaskStatus status) {
+        return taskService.stream(user, author(email, status, null));
+    }
+
+    @GetMapping("/{email}/priority")
+    public Mono<Page<TaskDTO>> getTasksByAuthorEmailAndPriority(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam TaskPriority priority,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return page(user, author(email, null, priority), page, size);
+    }
+
+    @GetMapping(value = "/{email}/priority", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDTO> streamTasksByAuthorEmailAndPriority(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam TaskPriority priority) {
+        return taskService.stream(user, author(email, null, priority));
+    }
+
+    @GetMapping("/worker/{email}")
+    public Mono<Page<TaskDTO>> getTasksByWorkerEmail(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return page(user, worker(email, null, null), page, size);
+    }
+
+    @GetMapping(value = "/worker/{email}", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDTO> streamTasksByWorkerEmail(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email) {
+        return taskService.stream(user, worker(email, null, null));
+    }
+
+    @GetMapping("/worker/{email}/status")
+    public Mono<Page<TaskDTO>> getTasksByWorkerEmailAndStatus(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam TaskStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return page(user, worker(email, status, null), page, size);
+    }
+
+    @GetMapping(value = "/worker/{email}/status", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDTO> streamTasksByWorkerEmailAndStatus(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam TaskStatus status) {
+        return taskService.stream(user, worker(email, status, null));
+    }
+
+    @GetMapping("/worker/{email}/priority")
+    public Mono<Page<TaskDTO>> getTasksByWorkerEmailAndPriority(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam TaskPriority priority,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return page(user, worker(email, null, priority), page, size);
+    }
+
+    @GetMapping(value = "/worker/{email}/priority", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskDTO> streamTasksByWorkerEmailAndPriority(
+            @RequestAttribute(JwtWebFilter.USER_ATTRIBUTE) UserDTO user,
+            @PathVariable String email,
+            @RequestParam TaskPriority priority) {
+        return taskService.stream(user, worker(email, null, priority));
+    }
+
+    private Mono<Page<TaskDTO>> page(UserDTO user, TaskQuery query, int page, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        return taskService.getPage(user, query, Math.max(page, 0), pageSize);
+    }
+
+    private static TaskQuery author(String email, TaskStatus status, TaskPriority priority) {
+        return new TaskQuery(email, null, status == null ? null : Set.of(status), priority == null ? null : Set.of(priority), null);
+    }
+
+    private static TaskQuery worker(String email, TaskStatus status, TaskPriority priority) {
+        return new TaskQuery(null, email, status == null ? null : Set.of(status), priority == null ? null : Set.of(priority), null);
+    }
+}
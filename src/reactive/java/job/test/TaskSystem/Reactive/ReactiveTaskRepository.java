@@ -0,0 +1,180 @@
+package job.test.TaskSystem.Reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.r2dbc.spi.Readable;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskPriority;
+import job.test.TaskSystem.Model.TaskQuery;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.UserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реактивный репозиторий задач поверх R2DBC.
+ * Производные запросы R2DBC не умеют соединять таблицы, поэтому задача с автором и исполнителями читается
+ * одним SQL запросом: исполнители собираются в JSON подзапросом, без отдельного запроса на каждую задачу.
+ * Критерии такие же, как у {@link TaskQuery} в основном приложении; незаполненные критерии не попадают в SQL.
+ */
+@Repository
+public class ReactiveTaskRepository {
+    private static final String COLUMNS = "SELECT t.id, t.title, t.status, t.priority, t.comment, t.due_at, t.team_id, " +
+            "a.id AS author_id, a.nickname AS author_nickname, a.email AS author_email, a.role AS author_role, " +
+            "(SELECT CAST(json_agg(json_build_object('id', u.id, 'nickName', u.nickname, 'email', u.email, 'role', u.role) " +
+            "ORDER BY u.id) AS text) FROM tasks_workers w JOIN users u ON u.id = w.workers_id WHERE w.task_id = t.id) AS workers ";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectReader workersReader;
+    private final int streamFetchSize;
+
+    /**
+     * Условие запроса с именованными параметрами.
+     */
+    private record Where(String sql, Map<String, Object> binds) {
+    }
+
+    public ReactiveTaskRepository(DatabaseClient databaseClient,
+                                  ObjectMapper objectMapper,
+                                  @Value("${task.reactive.stream-fetch-size}") int streamFetchSize) {
+        this.databaseClient = databaseClient;
+        this.workersReader = objectMapper.readerForListOf(UserDTO.class);
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    /**
+     * Получает страницу задач в порядке ID.
+     *
+     * @param query   Критерии поиска.
+     * @param teamIDs ID команд, которыми ограничена выборка, или {@code null} без ограничения.
+     * @param offset  Смещение.
+     * @param limit   Размер страницы.
+     * @return Задачи страницы.
+     */
+    public Flux<TaskDTO> findAll(TaskQuery query, Collection<Long> teamIDs, long offset, int limit) {
+        Where where = where(query, teamIDs);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql(COLUMNS + where.sql() + " ORDER BY t.id LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset);
+        return bind(spec, where).map(this::toDTO).all();
+    }
+
+    /**
+     * Считает задачи.
+     *
+     * @param query   Критерии поиска.
+     * @param teamIDs ID команд, которыми ограничена выборка, или {@code null} без ограничения.
+     * @return Количество задач.
+     */
+    public Mono<Long> count(TaskQuery query, Collection<Long> teamIDs) {
+        Where where = where(query, teamIDs);
+        return bind(databaseClient.sql("SELECT count(*) AS total " + where.sql()), where)
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * Читает все задачи потоком в порядке ID.
+     * Строки забираются из курсора порциями по {@code task.reactive.stream-fetch-size} по мере спроса подписчика,
+     * поэтому медленный клиент не заставляет держать всю выборку в памяти.
+     *
+     * @param query   Критерии поиска.
+     * @param teamIDs ID команд, которыми ограничена выборка, или {@code null} без ограничения.
+     * @return Поток задач.
+     */
+    public Flux<TaskDTO> stream(TaskQuery query, Collection<Long> teamIDs) {
+        Where where = where(query, teamIDs);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(COLUMNS + where.sql() + " ORDER BY t.id")
+                .filter(statement -> statement.fetchSize(streamFetchSize));
+        return bind(spec, where).map(this::toDTO).all();
+    }
+
+    private static Where where(TaskQuery query, Collection<Long> teamIDs) {
+        StringBuilder sql = new StringBuilder("FROM tasks t JOIN users a ON a.id = t.author_id ");
+        Map<String, Object> binds = new LinkedHashMap<>();
+
+        if (query.workerEmail() != null) {
+            sql.append("JOIN tasks_workers tw ON tw.task_id = t.id JOIN users wu ON wu.id = tw.workers_id ");
+        }
+        sql.append("WHERE t.deleted_at IS NULL");
+        if (query.authorEmail() != null) {
+            sql.append(" AND a.email = :authorEmail");
+            binds.put("authorEmail", query.authorEmail());
+        }
+        if (query.workerEmail() != null) {
+            sql.append(" AND wu.email = :workerEmail");
+            binds.put("workerEmail", query.workerEmail());
+        }
+        if (query.statuses() != null && !query.statuses().isEmpty()) {
+            sql.append(" AND t.status = ANY(:statuses)");
+            binds.put("statuses", query.statuses().stream().map(TaskStatus::ordinal).toArray(Integer[]::new));
+        }
+        if (query.priorities() != null && !query.priorities().isEmpty()) {
+            sql.append(" AND t.priority = ANY(:priorities)");
+            binds.put("priorities", query.priorities().stream().map(TaskPriority::ordinal).toArray(Integer[]::new));
+        }
+        if (query.titlePrefix() != null && !query.titlePrefix().isEmpty()) {
+            sql.append(" AND t.title LIKE :titlePrefix ESCAPE '\\'");
+            binds.put("titlePrefix", escapeLike(query.titlePrefix()) + "%");
+        }
+        if (teamIDs != null) {
+            sql.append(" AND t.team_id = ANY(:teamIds)");
+            binds.put("teamIds", teamIDs.toArray(Long[]::new));
+        }
+        return new Where(sql.toString(), binds);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Where where) {
+        for (Map.Entry<String, Object> bind : where.binds().entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+        return spec;
+    }
+
+    private TaskDTO toDTO(Readable row) {
+        UserDTO author = UserDTO.builder()
+                .id(row.get("author_id", Long.class))
+                .nickName(row.get("author_nickname", String.class))
+                .email(row.get("author_email", String.class))
+                .role(row.get("author_role", String.class))
+                .build();
+        return new TaskDTO(
+                row.get("id", Long.class),
+                author,
+                workers(row.get("workers", String.class)),
+                row.get("title", String.class),
+                TaskStatus.values()[((Number) row.get("status")).intValue()].name(),
+                TaskPriority.values()[((Number) row.get("priority")).intValue()].name(),
+                row.get("comment", String.class),
+                row.get("due_at", Instant.class),
+                row.get("team_id", Long.class)
+        );
+    }
+
+    private List<UserDTO> workers(String json) {
+        if (json == null) return List.of();
+        try {
+            return workersReader.readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,72 @@
+package job.test.TaskSystem.Reactive;
+
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskQuery;
+import job.test.TaskSystem.Model.UserDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Реактивные выборки задач с теми же правилами доступа, что и в основном приложении:
+ * свои задачи видны всегда, задачи другого пользователя - только в пределах общих команд.
+ * Отложенные смены статуса из буфера основного приложения здесь не видны до их записи в базу.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTaskService {
+    private final ReactiveTaskRepository taskRepository;
+    private final ReactiveTeamMembership teamMembership;
+
+    /**
+     * Получает страницу задач.
+     *
+     * @param caller DTO пользователя, запрашивающего задачи.
+     * @param query  Критерии поиска с автором или исполнителем.
+     * @param page   Номер страницы.
+     * @param size   Размер страницы.
+     * @return Страница DTO задач.
+     */
+    public Mono<Page<TaskDTO>> getPage(UserDTO caller, TaskQuery query, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        if (isOwn(caller, query)) return loadPage(query, null, pageable);
+
+        return teamMembership.teamIds(caller.getId())
+                .flatMap(teamIDs -> teamIDs.isEmpty()
+                        ? Mono.just(Page.<TaskDTO>empty(pageable))
+                        : loadPage(query, teamIDs, pageable));
+    }
+
+    /**
+     * Получает все задачи потоком с учётом спроса клиента.
+     *
+     * @param caller DTO пользователя, запрашивающего задачи.
+     * @param query  Критерии поиска с автором или исполнителем.
+     * @return Поток DTO задач.
+     */
+    public Flux<TaskDTO> stream(UserDTO caller, TaskQuery query) {
+        if (isOwn(caller, query)) return taskRepository.stream(query, null);
+
+        return teamMembership.teamIds(caller.getId())
+                .flatMapMany(teamIDs -> teamIDs.isEmpty()
+                        ? Flux.<TaskDTO>empty()
+                        : taskRepository.stream(query, teamIDs));
+    }
+
+    private Mono<Page<TaskDTO>> loadPage(TaskQuery query, List<Long> teamIDs, PageRequest pageable) {
+        return Mono.zip(
+                        taskRepository.findAll(query, teamIDs, pageable.getOffset(), pageable.getPageSize()).collectList(),
+                        taskRepository.count(query, teamIDs))
+                .<Page<TaskDTO>>map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    private static boolean isOwn(UserDTO caller, TaskQuery query) {
+        return caller.getEmail().equals(query.authorEmail()) || caller.getEmail().equals(query.workerEmail());
+    }
+}
@@ -0,0 +1,46 @@
+package job.test.TaskSystem.Reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Команды пользователей для проверки доступа к чужим задачам.
+ * Состав команд меняет основное приложение, здесь он кешируется на {@code team.membership-cache.ttl},
+ * как кешируется между экземплярами основного приложения. Параллельные запросы одного пользователя ждут одну загрузку.
+ */
+@Component
+public class ReactiveTeamMembership {
+    private final DatabaseClient databaseClient;
+    private final Duration ttl;
+    private final Map<Long, Mono<List<Long>>> memberships = new ConcurrentHashMap<>();
+
+    public ReactiveTeamMembership(DatabaseClient databaseClient,
+                                  @Value("${team.membership-cache.ttl}") Duration ttl) {
+        this.databaseClient = databaseClient;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Получает ID команд пользователя.
+     *
+     * @param userID ID пользователя.
+     * @return Список ID команд по возрастанию.
+     */
+    public Mono<List<Long>> teamIds(Long userID) {
+        if (userID == null) return Mono.just(List.of());
+        return memberships.computeIfAbsent(userID, id -> databaseClient
+                .sql("SELECT team_id FROM team_members WHERE user_id = :userId ORDER BY team_id")
+                .bind("userId", id)
+                .map(row -> row.get("team_id", Long.class))
+                .all()
+                .collectList()
+                .cache(teams -> ttl, error -> Duration.ZERO, () -> ttl));
+    }
+}
@@ -0,0 +1,82 @@
+package job.test.TaskSystem.Reactive;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import job.test.TaskSystem.Model.RevokedToken;
+import job.test.TaskSystem.Util.RevocationIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Отзывы JWT токенов для реактивного модуля.
+ * Таблица {@code revoked_tokens} ведётся основным приложением, здесь она только читается в {@link RevocationIndex}
+ * с тем же окном перекрытия, поэтому проверка токена не обращается к базе данных.
+ */
+@Slf4j
+@Component
+public class ReactiveTokenRevocations {
+    private final DatabaseClient databaseClient;
+    private final RevocationIndex index;
+    private final Duration syncOverlap;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public ReactiveTokenRevocations(DatabaseClient databaseClient,
+                                    @Value("${token.revocation.expected-size}") int expectedSize,
+                                    @Value("${token.revocation.false-positive-rate}") double falsePositiveRate,
+                                    @Value("${token.revocation.sync-overlap}") Duration syncOverlap) {
+        this.databaseClient = databaseClient;
+        this.index = new RevocationIndex(expectedSize, falsePositiveRate);
+        this.syncOverlap = syncOverlap;
+    }
+
+    /**
+     * Загружает отзывы до начала обслуживания запросов.
+     */
+    @PostConstruct
+    void init() {
+        sync().block();
+    }
+
+    /**
+     * @param claims Проверенные данные токена.
+     * @return {@code true}, если токен отозван.
+     */
+    public boolean isRevoked(Claims claims) {
+        return index.isRevoked(claims);
+    }
+
+    /**
+     * Подтягивает новые отзывы и забывает истёкшие.
+     */
+    @Scheduled(fixedDelayString = "${token.revocation.sync-interval-millis}")
+    public Mono<Void> sync() {
+        Instant now = Instant.now();
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minus(syncOverlap);
+        return databaseClient.sql("SELECT id, revoked_at, expires_at FROM revoked_tokens WHERE revoked_at > :since AND expires_at > :now")
+                .bind("since", since)
+                .bind("now", now)
+                .map(row -> RevokedToken.builder()
+                        .id(row.get("id", String.class))
+                        .revokedAt(row.get("revoked_at", Instant.class))
+                        .expiresAt(row.get("expires_at", Instant.class))
+                        .build())
+                .all()
+                .doOnNext(index::remember)
+                .then(Mono.fromRunnable(() -> {
+                    lastSync = now;
+                    index.removeExpired(now);
+                }))
+                .onErrorResume(e -> {
+                    log.error("Failed to sync token revocations", e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
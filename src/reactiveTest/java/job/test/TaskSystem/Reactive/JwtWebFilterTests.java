@@ -0,0 +1,116 @@
+package job.test.TaskSystem.Reactive;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtWebFilterTests {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private ReactiveTokenRevocations tokenRevocations;
+
+    @Mock
+    private Claims claims;
+
+    private JwtWebFilter filter;
+    private final AtomicBoolean passed = new AtomicBoolean();
+    private final WebFilterChain chain = exchange -> {
+        passed.set(true);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    public void setUp() {
+        filter = new JwtWebFilter(jwtService, tokenRevocations);
+    }
+
+    @Test
+    public void testMissingTokenIsForbidden() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/task/author"));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+        assertFalse(passed.get());
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    public void testInvalidTokenIsForbidden() {
+        when(jwtService.extractAllClaims("broken")).thenThrow(new MalformedJwtException("broken"));
+        MockServerWebExchange exchange = exchange("broken");
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+        assertFalse(passed.get());
+    }
+
+    @Test
+    public void testRevokedTokenIsForbidden() {
+        validToken();
+        when(tokenRevocations.isRevoked(claims)).thenReturn(true);
+        MockServerWebExchange exchange = exchange("token");
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+        assertFalse(passed.get());
+        verify(jwtService, never()).toUser(any());
+    }
+
+    @Test
+    public void testValidTokenPassesUser() {
+        validToken();
+        UserDTO user = UserDTO.builder().id(1L).email("test@example.com").build();
+        when(jwtService.toUser(claims)).thenReturn(user);
+        MockServerWebExchange exchange = exchange("token");
+
+        filter.filter(exchange, chain).block();
+
+        assertTrue(passed.get());
+        assertSame(user, exchange.getAttribute(JwtWebFilter.USER_ATTRIBUTE));
+    }
+
+    @Test
+    public void testUnprotectedPathSkipsCheck() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+
+        filter.filter(exchange, chain).block();
+
+        assertTrue(passed.get());
+        verifyNoInteractions(jwtService, tokenRevocations);
+    }
+
+    private void validToken() {
+        when(jwtService.extractAllClaims("token")).thenReturn(claims);
+        when(jwtService.isTokenOfType(claims, JwtService.ACCESS_TOKEN_TYPE)).thenReturn(true);
+        when(claims.get("email", String.class)).thenReturn("test@example.com");
+    }
+
+    private static MockServerWebExchange exchange(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/task/author")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -0,0 +1,89 @@
+package job.test.TaskSystem.Reactive;
+
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskQuery;
+import job.test.TaskSystem.Model.UserDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveTaskServiceTests {
+    private static final UserDTO CALLER = UserDTO.builder().id(1L).email("caller@example.com").build();
+
+    @Mock
+    private ReactiveTaskRepository taskRepository;
+
+    @Mock
+    private ReactiveTeamMembership teamMembership;
+
+    @InjectMocks
+    private ReactiveTaskService taskService;
+
+    @Test
+    public void testOwnTasksAreReadWithoutTeamRestriction() {
+        TaskQuery query = query("caller@example.com");
+        when(taskRepository.findAll(query, null, 20, 10)).thenReturn(Flux.just(task(5L)));
+        when(taskRepository.count(query, null)).thenReturn(Mono.just(21L));
+
+        Page<TaskDTO> page = taskService.getPage(CALLER, query, 2, 10).block();
+
+        assertEquals(List.of(5L), page.getContent().stream().map(TaskDTO::getId).toList());
+        assertEquals(21, page.getTotalElements());
+        verifyNoInteractions(teamMembership);
+    }
+
+    @Test
+    public void testForeignTasksAreLimitedToCallerTeams() {
+        TaskQuery query = query("other@example.com");
+        when(teamMembership.teamIds(1L)).thenReturn(Mono.just(List.of(3L, 4L)));
+        when(taskRepository.findAll(query, List.of(3L, 4L), 0, 10)).thenReturn(Flux.just(task(7L)));
+        when(taskRepository.count(query, List.of(3L, 4L))).thenReturn(Mono.just(1L));
+
+        Page<TaskDTO> page = taskService.getPage(CALLER, query, 0, 10).block();
+
+        assertEquals(List.of(7L), page.getContent().stream().map(TaskDTO::getId).toList());
+    }
+
+    @Test
+    public void testForeignTasksWithoutTeamsAreEmpty() {
+        TaskQuery query = query("other@example.com");
+        when(teamMembership.teamIds(1L)).thenReturn(Mono.just(List.of()));
+
+        assertTrue(taskService.getPage(CALLER, query, 0, 10).block().isEmpty());
+        StepVerifier.create(taskService.stream(CALLER, query)).verifyComplete();
+        verify(taskRepository, never()).findAll(any(), any(), anyLong(), anyInt());
+        verify(taskRepository, never()).stream(any(), any());
+    }
+
+    @Test
+    public void testStreamOfForeignTasksUsesCallerTeams() {
+        TaskQuery query = query("other@example.com");
+        when(teamMembership.teamIds(1L)).thenReturn(Mono.just(List.of(3L)));
+        when(taskRepository.stream(query, List.of(3L))).thenReturn(Flux.just(task(1L), task(2L)));
+
+        StepVerifier.create(taskService.stream(CALLER, query).map(TaskDTO::getId))
+                .expectNext(1L, 2L)
+                .verifyComplete();
+    }
+
+    private static TaskQuery query(String authorEmail) {
+        return new TaskQuery(authorEmail, null, null, null, null);
+    }
+
+    private static TaskDTO task(Long id) {
+        return new TaskDTO(id, CALLER, List.of(), "Task", "Received", "High", null, null, null);
+    }
+}
@@ -0,0 +1,62 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.Util.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTests {
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    public void testTryAcquire_RejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2, 10, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(MILLIS);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testRelease_LowersLimitWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100, 1.5, 0.5, 10, 10);
+        load(limiter, 5, 10 * MILLIS);
+        int stable = limiter.getLimit();
+
+        load(limiter, 5, 100 * MILLIS);
+
+        assertTrue(limiter.getLimit() < stable, "limit " + limiter.getLimit() + " should drop below " + stable);
+        assertTrue(limiter.getLimit() >= 2);
+    }
+
+    @Test
+    public void testRelease_GrowsLimitOnlyWhenUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100, 1.5, 0.5, 10, 10);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10 * MILLIS);
+        }
+        assertEquals(20, limiter.getLimit());
+
+        load(limiter, 5, 10 * MILLIS);
+
+        assertTrue(limiter.getLimit() > 20);
+    }
+
+    /**
+     * Занимает весь текущий лимит и освобождает его с одинаковой задержкой, пока не пройдёт заданное число окон.
+     */
+    private static void load(AdaptiveConcurrencyLimiter limiter, int windows, long rttNanos) {
+        int released = 0;
+        while (released < windows * 10) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) acquired++;
+            for (int i = 0; i < acquired; i++) limiter.release(rttNanos);
+            released += acquired;
+        }
+    }
+}
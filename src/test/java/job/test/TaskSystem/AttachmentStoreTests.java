@@ -0,0 +1,65 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.Service.AttachmentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttachmentStoreTests {
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    private Path dir;
+
+    private AttachmentStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new AttachmentStore(dir.toString(), DataSize.ofBytes(16));
+        ReflectionTestUtils.invokeMethod(store, "init");
+    }
+
+    @Test
+    public void testStore_DeduplicatesByHash() throws Exception {
+        AttachmentStore.StoredBlob first = store.store(content("hello"));
+        AttachmentStore.StoredBlob second = store.store(content("hello"));
+
+        assertEquals(HELLO_SHA256, first.sha256());
+        assertEquals(5, first.size());
+        assertEquals(first, second);
+        assertEquals("hello", Files.readString(store.path(HELLO_SHA256)));
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    public void testStore_RejectsOversizedContent() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> store.store(content("more than sixteen bytes")));
+
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void testPath_RejectsInvalidHash() {
+        assertThrows(IllegalArgumentException.class, () -> store.path("../../etc/passwd"));
+    }
+
+    private static ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long countFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
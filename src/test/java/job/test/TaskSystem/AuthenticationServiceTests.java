@@ -1,9 +1,11 @@
 package job.test.TaskSystem;
 
+import io.jsonwebtoken.Claims;
 import jakarta.persistence.EntityExistsException;
 import job.test.TaskSystem.Model.*;
 import job.test.TaskSystem.Service.AuthenticationService;
 import job.test.TaskSystem.Service.JwtService;
+import job.test.TaskSystem.Service.TokenRevocationService;
 import job.test.TaskSystem.Service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,10 +14,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
+import java.util.Date;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -35,6 +41,9 @@ public class AuthenticationServiceTests {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -96,4 +105,58 @@ public class AuthenticationServiceTests {
         assertNotNull(response);
         assertEquals("jwtToken", response.getToken());
     }
+
+    @Test
+    public void testRefresh_RejectsAccessToken() {
+        Claims claims = mock(Claims.class);
+        when(jwtService.extractAllClaims("accessToken")).thenReturn(claims);
+        when(jwtService.isTokenOfType(claims, JwtService.REFRESH_TOKEN_TYPE)).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class, () -> {
+            authenticationService.refresh(new RefreshTokenRequest("accessToken"));
+        });
+        verify(tokenRevocationService, never()).revokeToken(anyString(), any());
+    }
+
+    @Test
+    public void testRefresh_RotatesRefreshToken() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        Claims claims = mock(Claims.class);
+        when(claims.get("email", String.class)).thenReturn("test@example.com");
+        when(claims.getId()).thenReturn("jti");
+        when(claims.getExpiration()).thenReturn(Date.from(expiresAt));
+        when(jwtService.extractAllClaims("refreshToken")).thenReturn(claims);
+        when(jwtService.isTokenOfType(claims, JwtService.REFRESH_TOKEN_TYPE)).thenReturn(true);
+        when(tokenRevocationService.isRevoked(claims)).thenReturn(false);
+        when(tokenRevocationService.revokeToken("jti", Date.from(expiresAt).toInstant())).thenReturn(true);
+        when(userService.getUserByEmail("test@example.com")).thenReturn(user);
+        when(jwtService.generateToken(user)).thenReturn("newAccessToken");
+        when(jwtService.generateRefreshToken(user)).thenReturn("newRefreshToken");
+
+        JwtTokenResponse response = authenticationService.refresh(new RefreshTokenRequest("refreshToken"));
+
+        assertEquals("newAccessToken", response.getToken());
+        assertEquals("newRefreshToken", response.getRefreshToken());
+        verify(tokenRevocationService).revokeToken("jti", Date.from(expiresAt).toInstant());
+    }
+
+    @Test
+    public void testRefresh_RejectsTokenRevokedConcurrently() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        Claims claims = mock(Claims.class);
+        when(claims.get("email", String.class)).thenReturn("test@example.com");
+        when(claims.getId()).thenReturn("jti");
+        when(claims.getExpiration()).thenReturn(Date.from(expiresAt));
+        when(jwtService.extractAllClaims("refreshToken")).thenReturn(claims);
+        when(jwtService.isTokenOfType(claims, JwtService.REFRESH_TOKEN_TYPE)).thenReturn(true);
+        when(tokenRevocationService.isRevoked(claims)).thenReturn(false);
+        when(userService.getUserByEmail("test@example.com")).thenReturn(user);
+        // Другой запрос с тем же токеном уже прошёл проверку isRevoked и отозвал его первым
+        when(tokenRevocationService.revokeToken("jti", Date.from(expiresAt).toInstant())).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class, () -> {
+            authenticationService.refresh(new RefreshTokenRequest("refreshToken"));
+        });
+        verify(jwtService, never()).generateRefreshToken(any(User.class));
+    }
 }
@@ -0,0 +1,90 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.Service.CacheInvalidationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+public class CacheInvalidationBusTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private CacheInvalidationBus first;
+    private CacheInvalidationBus second;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        first = bus();
+        second = bus();
+        awaitConnected(first);
+        awaitConnected(second);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    public void testPublish_CoalescesKeysForOtherNodes() throws Exception {
+        BlockingQueue<Set<String>> received = new LinkedBlockingQueue<>();
+        BlockingQueue<Set<String>> own = new LinkedBlockingQueue<>();
+        second.subscribe(CacheInvalidationBus.TASK_PAGES, received::add, () -> { });
+        first.subscribe(CacheInvalidationBus.TASK_PAGES, own::add, () -> { });
+
+        first.publish(CacheInvalidationBus.TASK_PAGES, List.of("a@example.com"));
+        first.publish(CacheInvalidationBus.TASK_PAGES, List.of("a@example.com", "b@example.com"));
+        first.publish(CacheInvalidationBus.TASK_PAGES, List.of("a@example.com"));
+        first.flush();
+
+        assertEquals(Set.of("a@example.com", "b@example.com"), received.poll(5, TimeUnit.SECONDS));
+        assertNull(received.poll(500, TimeUnit.MILLISECONDS));
+        assertTrue(own.isEmpty());
+    }
+
+    @Test
+    public void testReconnect_ResetsSubscribedCaches() throws Exception {
+        CountDownLatch reset = new CountDownLatch(1);
+        second.subscribe(CacheInvalidationBus.USERS, keys -> { }, reset::countDown);
+
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity " +
+                "WHERE application_name = 'TaskSystem-cache-bus'");
+
+        assertTrue(reset.await(10, TimeUnit.SECONDS));
+        awaitConnected(second);
+    }
+
+    private CacheInvalidationBus bus() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(jdbcTemplate,
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(),
+                true, 100, Duration.ofMillis(200));
+        bus.start();
+        return bus;
+    }
+
+    private static void awaitConnected(CacheInvalidationBus bus) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!bus.isConnected() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(bus.isConnected());
+    }
+}
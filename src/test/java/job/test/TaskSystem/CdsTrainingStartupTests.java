@@ -0,0 +1,55 @@
+package job.test.TaskSystem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Поднимает приложение с флагами тренировочного запуска из {@code Docker/Dockerfile.cds} без базы.
+ * Контекст должен дойти до обновления и завершиться по {@code spring.context.exit=onRefresh}:
+ * если новый компонент обращается к базе при старте и не отключён в Dockerfile, тест упадёт на соединении,
+ * как упала бы сборка образа.
+ */
+public class CdsTrainingStartupTests {
+    private static final Path DOCKERFILE = Path.of("Docker", "Dockerfile.cds");
+    private static final Pattern TRAINING_RUN = Pattern.compile("RUN java -XX:ArchiveClassesAtExit=.*?-jar", Pattern.DOTALL);
+    private static final Pattern FLAG = Pattern.compile("-D([\\w.\\-]+)=(\\S+)");
+
+    @Test
+    public void testTrainingRun_RefreshesWithoutDatabase() throws Exception {
+        List<String> args = trainingArgs();
+        args.add("--server.port=0");
+        args.add("--grpc.server.port=0");
+
+        assertThrows(SpringApplication.AbandonedRunException.class,
+                () -> new SpringApplicationBuilder(TaskSystemApplication.class).run(args.toArray(String[]::new)));
+    }
+
+    /**
+     * Флаги {@code -D} тренировочного запуска в виде аргументов командной строки: они перекрывают
+     * {@code application.properties}, как системные свойства в Dockerfile. AOT пропускается, потому что тесты
+     * запускаются без сгенерированных классов.
+     */
+    private static List<String> trainingArgs() throws Exception {
+        Matcher run = TRAINING_RUN.matcher(Files.readString(DOCKERFILE));
+        assertTrue(run.find(), "Training RUN not found in " + DOCKERFILE);
+
+        List<String> args = new ArrayList<>();
+        Matcher flag = FLAG.matcher(run.group());
+        while (flag.find()) {
+            if (flag.group(1).equals("spring.aot.enabled")) continue;
+            args.add("--" + flag.group(1) + "=" + flag.group(2));
+        }
+        assertTrue(args.contains("--spring.context.exit=onRefresh"), "Training RUN must exit on refresh");
+        return args;
+    }
+}
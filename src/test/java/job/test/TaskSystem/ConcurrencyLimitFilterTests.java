@@ -0,0 +1,102 @@
+package job.test.TaskSystem;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import job.test.TaskSystem.Configuration.ConcurrencyLimitFilter;
+import job.test.TaskSystem.Configuration.ConcurrencyLimitServerInterceptor;
+import job.test.TaskSystem.Configuration.ConcurrencyLimits;
+import job.test.TaskSystem.Grpc.ListTasksRequest;
+import job.test.TaskSystem.Grpc.Task;
+import job.test.TaskSystem.Grpc.TaskApiGrpc;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Проверяет группы запросов {@link ConcurrencyLimitFilter} и отказ сверх лимита.
+ * Все лимиты равны одному, поэтому запрос внутри цепочки другого запроса занимает второе место своей группы.
+ */
+public class ConcurrencyLimitFilterTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimits limits = new ConcurrencyLimits(meterRegistry, true,
+            List.of(1, 1, 1), List.of(1, 1, 1), List.of(1, 1, 1), 1.5, 0.2, 20, 30);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limits);
+
+    @Test
+    public void testGroups_LimitedSeparately() throws Exception {
+        Map<String, Integer> statuses = new LinkedHashMap<>();
+        filter.doFilter(request("GET", "/task"), new MockHttpServletResponse(), (request, response) -> {
+            statuses.put("GET /task/1", perform("GET", "/task/1").getStatus());
+            statuses.put("POST /graphql", perform("POST", "/graphql").getStatus());
+            statuses.put("POST /task", perform("POST", "/task").getStatus());
+            statuses.put("POST /auth/refresh", perform("POST", "/auth/refresh").getStatus());
+            statuses.put("GET /task/5/attachments/3", perform("GET", "/task/5/attachments/3").getStatus());
+            statuses.put("GET /actuator/health", perform("GET", "/actuator/health").getStatus());
+        });
+
+        assertEquals(Map.of(
+                "GET /task/1", 503,
+                "POST /graphql", 503,
+                "POST /task", 200,
+                "POST /auth/refresh", 200,
+                "GET /task/5/attachments/3", 200,
+                "GET /actuator/health", 200), statuses);
+        assertEquals(200, perform("GET", "/task/1").getStatus());
+    }
+
+    @Test
+    public void testRejected_ServiceUnavailableWithRetryAfter() throws Exception {
+        MockHttpServletResponse[] rejected = new MockHttpServletResponse[1];
+        filter.doFilter(request("PUT", "/task"), new MockHttpServletResponse(),
+                (request, response) -> rejected[0] = perform("DELETE", "/task"));
+
+        assertEquals(503, rejected[0].getStatus());
+        assertEquals("1", rejected[0].getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("http.server.concurrency.rejected").tag("group", "write").counter().count());
+        assertEquals(0.0, meterRegistry.get("http.server.concurrency.rejected").tag("group", "read").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGrpcListCall_SharesReadLimitWithHttp() throws Exception {
+        ConcurrencyLimitServerInterceptor interceptor = new ConcurrencyLimitServerInterceptor(limits);
+        ServerCall<ListTasksRequest, Task> call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn(TaskApiGrpc.getListAuthorTasksMethod());
+        ServerCallHandler<ListTasksRequest, Task> next = mock(ServerCallHandler.class);
+
+        FilterChain chain = (request, response) -> interceptor.interceptCall(call, new Metadata(), next);
+        filter.doFilter(request("GET", "/task"), new MockHttpServletResponse(), chain);
+
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(call).close(status.capture(), any(Metadata.class));
+        assertEquals(Status.Code.UNAVAILABLE, status.getValue().getCode());
+        verifyNoInteractions(next);
+    }
+
+    private MockHttpServletResponse perform(String method, String path) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
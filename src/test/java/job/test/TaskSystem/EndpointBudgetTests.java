@@ -0,0 +1,362 @@
+package job.test.TaskSystem;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import job.test.TaskSystem.Controller.AuthController;
+import job.test.TaskSystem.Controller.TaskController;
+import job.test.TaskSystem.Model.ChangePasswordRequest;
+import job.test.TaskSystem.Model.RefreshTokenRequest;
+import job.test.TaskSystem.Model.SignInRequest;
+import job.test.TaskSystem.Model.SignUpRequest;
+import job.test.TaskSystem.Service.CacheInvalidationBus;
+import job.test.TaskSystem.Service.TaskHistoryService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Проходит по всем эндпоинтам {@link TaskController} и {@link AuthController} на Postgres в Testcontainers
+ * и сверяет с бюджетами из {@code endpoint-budgets.properties} число SQL запросов и память, выделенную потоком запроса.
+ * Запросы считаются на обёртке пула соединений, поэтому в счёт попадают и запросы Hibernate, и запросы через
+ * {@link org.springframework.jdbc.core.JdbcTemplate}. Отложенные записи запроса (история задач и рассылка сброса кешей)
+ * сбрасываются сразу после него и засчитываются ему. MockMvc выполняет запрос в потоке теста, поэтому счётчик
+ * {@link com.sun.management.ThreadMXBean} видит всё, что выделили фильтры, контроллер и сериализация ответа.
+ * Фоновые задачи с запросами к базе отключены: счётчик запросов общий для всех потоков.
+ */
+@Testcontainers
+@SpringBootTest(properties = {
+        "grpc.server.port=0",
+        "task.reminder.enabled=false",
+        "task.archive.cron=-",
+        "task.claim.requeue-interval-millis=3600000",
+        "token.revocation.sync-interval-millis=3600000",
+        "idempotency.purge-interval-millis=3600000"
+})
+@AutoConfigureMockMvc
+public class EndpointBudgetTests {
+    private static final Logger log = LoggerFactory.getLogger(EndpointBudgetTests.class);
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+    private static final List<Class<?>> CONTROLLERS = List.of(TaskController.class, AuthController.class);
+    private static final String BUDGETS = "/endpoint-budgets.properties";
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final int SEEDED_TASKS = 20;
+    private static final String PASSWORD = "password";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskHistoryService taskHistoryService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Map<String, Usage> measured = new TreeMap<>();
+    private int sequence;
+
+    /**
+     * Число SQL запросов и байт, выделенных за один запрос к эндпоинту.
+     */
+    private record Usage(long statements, long allocatedBytes) {
+    }
+
+    /**
+     * Оборачивает пул соединений, чтобы считать каждый подготовленный и обычный SQL запрос.
+     */
+    @TestConfiguration
+    static class StatementCounting {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? countingProxy(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+
+        private static <T> T countingProxy(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(EndpointBudgetTests.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                    return countingProxy(Connection.class, connection);
+                }
+                if (type == Connection.class && (method.getName().equals("prepareStatement")
+                        || method.getName().equals("prepareCall") || method.getName().equals("createStatement"))) {
+                    STATEMENTS.incrementAndGet();
+                }
+                return result;
+            }));
+        }
+    }
+
+    @Test
+    public void testEveryEndpoint_StaysWithinBudget() throws Exception {
+        Map<String, Usage> budgets = loadBudgets();
+        assertEquals(endpoints(), budgets.keySet(), "Every endpoint needs a budget in " + BUDGETS);
+
+        String ownerEmail = email("owner");
+        String owner = signUp(ownerEmail).path("token").asText();
+        String workerEmail = email("worker");
+        String worker = signUp(workerEmail).path("token").asText();
+        List<Long> seeded = new ArrayList<>();
+        for (int i = 0; i < SEEDED_TASKS; i++) {
+            long taskID = createTask(owner);
+            addWorker(owner, taskID, workerEmail);
+            seeded.add(taskID);
+        }
+        long taskID = seeded.get(0);
+
+        measure(() -> authorized(get("/task"), owner));
+        measure(() -> authorized(get("/task/query"), owner)
+                .param("author", ownerEmail).param("status", "Received", "In_progress"));
+        measure(() -> authorized(get("/task/archive"), owner));
+        measure(() -> authorized(get("/task/{email}", ownerEmail), owner));
+        measure(() -> authorized(get("/task/{email}/status", ownerEmail), owner).param("status", "Received"));
+        measure(() -> authorized(get("/task/{email}/priority", ownerEmail), owner).param("priority", "Low"));
+        measure(() -> authorized(get("/task/worker/{email}", workerEmail), worker));
+        measure(() -> authorized(get("/task/worker/{email}/status", workerEmail), worker).param("status", "Received"));
+        measure(() -> authorized(get("/task/worker/{email}/priority", workerEmail), worker).param("priority", "Low"));
+        measure(() -> authorized(get("/task/{id}/history", taskID), owner));
+
+        measure(() -> authorized(post("/task"), owner).param("title", "Task " + ++sequence));
+        measure(() -> authorized(put("/task"), owner)
+                .param("taskID", String.valueOf(taskID)).param("title", "Task " + ++sequence));
+        measure(() -> authorized(put("/task/status"), owner)
+                .param("taskID", String.valueOf(taskID)).param("status", "Received"));
+        measure(() -> authorized(put("/task/due"), owner)
+                .param("taskID", String.valueOf(taskID))
+                .param("dueAt", Instant.now().plus(1, ChronoUnit.DAYS).toString()));
+        measure(() -> authorized(put("/task/team"), owner).param("taskID", String.valueOf(taskID)));
+        measure(() -> authorized(put("/task/worker"), owner)
+                .param("taskID", String.valueOf(createTask(owner))).param("email", workerEmail));
+        measure(() -> {
+            long created = createTask(owner);
+            addWorker(owner, created, workerEmail);
+            return authorized(delete("/task/worker"), owner)
+                    .param("taskID", String.valueOf(created)).param("email", workerEmail);
+        });
+        measure(() -> authorized(delete("/task"), owner).param("taskID", String.valueOf(createTask(owner))));
+        for (long seededID : seeded) {
+            call(authorized(put("/task/tag"), owner).param("taskID", String.valueOf(seededID)).param("tag", "backend"));
+        }
+        measure(() -> authorized(put("/task/tag"), owner).param("taskID", String.valueOf(taskID)).param("tag", "urgent"));
+        measure(() -> authorized(get("/task/tags"), owner).param("include", "backend").param("exclude", "urgent"));
+        measure(() -> {
+            call(authorized(put("/task/tag"), owner).param("taskID", String.valueOf(taskID)).param("tag", "review"));
+            return authorized(delete("/task/tag"), owner).param("taskID", String.valueOf(taskID)).param("tag", "review");
+        });
+        measure(() -> authorized(post("/task/claim"), worker).param("count", "1"));
+        measure(() -> {
+            long claimed = call(authorized(post("/task/claim"), worker).param("count", "1")).path(0).path("id").asLong();
+            return authorized(put("/task/claim"), worker).param("taskID", String.valueOf(claimed));
+        });
+        measure(() -> {
+            addWorker(owner, createTask(owner), workerEmail);
+            long claimed = call(authorized(post("/task/claim"), worker).param("count", "1")).path(0).path("id").asLong();
+            return authorized(put("/task/claim/complete"), worker).param("taskID", String.valueOf(claimed));
+        });
+        measure(() -> {
+            long claimed = call(authorized(post("/task/claim"), worker).param("count", "1")).path(0).path("id").asLong();
+            return authorized(delete("/task/claim"), worker).param("taskID", String.valueOf(claimed));
+        });
+
+        measure(() -> json(post("/auth"), new SignUpRequest(email("user"), "user" + sequence, PASSWORD)));
+        measure(() -> json(get("/auth"), new SignInRequest(ownerEmail, PASSWORD)));
+        measure(() -> json(post("/auth/refresh"), new RefreshTokenRequest(signIn(ownerEmail, PASSWORD).path("refreshToken").asText())));
+        measure(() -> {
+            JsonNode tokens = signIn(ownerEmail, PASSWORD);
+            return authorized(json(post("/auth/logout"), new RefreshTokenRequest(tokens.path("refreshToken").asText())),
+                    tokens.path("token").asText());
+        });
+        String rotatingEmail = email("rotating");
+        signUp(rotatingEmail);
+        String[] passwords = {PASSWORD, PASSWORD + "2"};
+        measure(() -> {
+            // Смена пароля отзывает токены, поэтому каждый прогон входит заново и меняет пароль на другой из пары
+            String current = passwords[0];
+            passwords[0] = passwords[1];
+            passwords[1] = current;
+            return authorized(json(put("/auth/password"), new ChangePasswordRequest(current, passwords[0])),
+                    signIn(rotatingEmail, current).path("token").asText());
+        });
+
+        report(budgets);
+        assertEquals(budgets.keySet(), measured.keySet(), "Every endpoint must be driven by the test");
+        List<String> exceeded = new ArrayList<>();
+        budgets.forEach((endpoint, budget) -> {
+            Usage usage = measured.get(endpoint);
+            if (usage.statements() > budget.statements()) {
+                exceeded.add(endpoint + ": " + usage.statements() + " SQL statements, budget " + budget.statements());
+            }
+            if (usage.allocatedBytes() > budget.allocatedBytes()) {
+                exceeded.add(endpoint + ": " + usage.allocatedBytes() + " bytes allocated, budget " + budget.allocatedBytes());
+            }
+        });
+        assertTrue(exceeded.isEmpty(), "Endpoint budgets exceeded:\n" + String.join("\n", exceeded));
+    }
+
+    /**
+     * Выполняет запрос несколько раз и запоминает минимальные значения после прогрева.
+     * Минимум отсекает разовые промахи кешей и случайные запросы фоновых потоков, а N+1 или лишний запрос
+     * повторяются в каждом прогоне и минимумом не скрываются.
+     *
+     * @param prepare Готовит данные для прогона и возвращает запрос, подготовка не замеряется.
+     */
+    private void measure(Callable<MockHttpServletRequestBuilder> prepare) throws Exception {
+        String endpoint = null;
+        long statements = Long.MAX_VALUE;
+        long allocatedBytes = Long.MAX_VALUE;
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+            MockHttpServletRequestBuilder request = prepare.call();
+
+            flushDeferredWrites();
+            STATEMENTS.set(0);
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            MvcResult result = mockMvc.perform(request).andReturn();
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            flushDeferredWrites();
+            long statementCount = STATEMENTS.get();
+
+            HandlerMethod handler = (HandlerMethod) result.getHandler();
+            assertNotNull(handler, "No handler for " + result.getRequest().getRequestURI());
+            endpoint = handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+            assertTrue(result.getResponse().getStatus() < 300,
+                    endpoint + " answered " + result.getResponse().getStatus() + ": " + result.getResponse().getContentAsString());
+            if (run >= WARMUP_RUNS) {
+                statements = Math.min(statements, statementCount);
+                allocatedBytes = Math.min(allocatedBytes, allocated);
+            }
+        }
+        measured.put(endpoint, new Usage(statements, allocatedBytes));
+    }
+
+    private void flushDeferredWrites() {
+        taskHistoryService.flush();
+        cacheInvalidationBus.flush();
+    }
+
+    private void report(Map<String, Usage> budgets) {
+        measured.forEach((endpoint, usage) -> {
+            Usage budget = budgets.getOrDefault(endpoint, new Usage(0, 0));
+            log.info("{}: {} SQL statements (budget {}), {} bytes allocated (budget {})", endpoint,
+                    usage.statements(), budget.statements(), usage.allocatedBytes(), budget.allocatedBytes());
+        });
+    }
+
+    private Set<String> endpoints() {
+        return handlerMapping.getHandlerMethods().values().stream()
+                .filter(handler -> CONTROLLERS.contains(handler.getBeanType()))
+                .map(handler -> handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static Map<String, Usage> loadBudgets() throws Exception {
+        Properties properties = new Properties();
+        try (InputStream in = EndpointBudgetTests.class.getResourceAsStream(BUDGETS)) {
+            assertNotNull(in, BUDGETS + " is missing");
+            properties.load(in);
+        }
+        Map<String, Usage> budgets = new TreeMap<>();
+        for (String endpoint : properties.stringPropertyNames()) {
+            String[] parts = properties.getProperty(endpoint).split(",");
+            budgets.put(endpoint, new Usage(Long.parseLong(parts[0].trim()), DataSize.parse(parts[1].trim()).toBytes()));
+        }
+        return budgets;
+    }
+
+    private String email(String prefix) {
+        return prefix + ++sequence + "@example.com";
+    }
+
+    private JsonNode signUp(String email) throws Exception {
+        return call(json(post("/auth"), new SignUpRequest(email, "user" + ++sequence, PASSWORD)));
+    }
+
+    private JsonNode signIn(String email, String password) throws Exception {
+        return call(json(get("/auth"), new SignInRequest(email, password)));
+    }
+
+    private long createTask(String token) throws Exception {
+        return call(authorized(post("/task"), token).param("title", "Task " + ++sequence)).path("id").asLong();
+    }
+
+    private void addWorker(String token, long taskID, String workerEmail) throws Exception {
+        call(authorized(put("/task/worker"), token).param("taskID", String.valueOf(taskID)).param("email", workerEmail));
+    }
+
+    private JsonNode call(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertTrue(result.getResponse().getStatus() < 300, result.getResponse().getContentAsString());
+        String body = result.getResponse().getContentAsString();
+        return body.isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(body);
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+    }
+
+    private static MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, String token) {
+        return request.header("Authorization", "Bearer " + token);
+    }
+}
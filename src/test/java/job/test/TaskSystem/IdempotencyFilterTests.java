@@ -0,0 +1,206 @@
+package job.test.TaskSystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import job.test.TaskSystem.Configuration.IdempotencyFilter;
+import job.test.TaskSystem.DAO.IdempotencyRecordRepository;
+import job.test.TaskSystem.Model.IdempotencyRecord;
+import job.test.TaskSystem.Model.User;
+import job.test.TaskSystem.Service.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyFilterTests {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        filter = filter(DataSize.ofKilobytes(64));
+
+        User user = User.builder().id(1L).email("test@example.com").role("User").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testRetry_ReplaysStoredResponse() throws Exception {
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.empty());
+        when(repository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        when(repository.complete(anyString(), any(), anyInt(), any(), any(), any())).thenReturn(1);
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setStatus(200);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":1}");
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("Test"), first, filterChain);
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(request("Test"), retry, filterChain);
+
+        verify(filterChain, times(1)).doFilter(any(), any());
+        assertEquals("{\"id\":1}", first.getContentAsString());
+        assertEquals(200, retry.getStatus());
+        assertEquals("{\"id\":1}", retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER_NAME));
+    }
+
+    @Test
+    public void testRetry_WithDifferentParameters() throws Exception {
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.empty());
+        when(repository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        when(repository.complete(anyString(), any(), anyInt(), any(), any(), any())).thenReturn(1);
+
+        filter.doFilter(request("Test"), new MockHttpServletResponse(), filterChain);
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(request("Other"), retry, filterChain);
+
+        verify(filterChain, times(1)).doFilter(any(), any());
+        assertEquals(422, retry.getStatus());
+    }
+
+    @Test
+    public void testServerError_IsNotStored() throws Exception {
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.empty());
+        when(repository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        doAnswer(invocation -> {
+            invocation.<HttpServletResponse>getArgument(1).setStatus(503);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(request("Test"), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(request("Test"), new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain, times(2)).doFilter(any(), any());
+        verify(repository, times(2)).release(anyString(), any());
+        verify(repository, never()).complete(anyString(), any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    public void testKeyClaimedElsewhere_IsConflict() throws Exception {
+        IdempotencyRecord pending = IdempotencyRecord.builder().status(0).expiresAt(Instant.now().plusSeconds(60)).build();
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.of(pending));
+        when(repository.claim(anyString(), anyString(), any(), any())).thenReturn(0);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("Test"), response, filterChain);
+
+        assertEquals(409, response.getStatus());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    public void testZeroHotTierCapacity_ReplaysFromTable() throws Exception {
+        filter = filter(DataSize.ofBytes(0));
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.empty());
+        when(repository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        when(repository.complete(anyString(), any(), anyInt(), any(), any(), any())).thenReturn(1);
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setStatus(201);
+            response.getWriter().write("{\"id\":1}");
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        filter.doFilter(request("Test"), new MockHttpServletResponse(), filterChain);
+
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(repository).claim(anyString(), fingerprint.capture(), any(), any());
+        verify(repository).complete(anyString(), any(), eq(201), any(), body.capture(), any());
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .fingerprint(fingerprint.getValue()).status(201).body(body.getValue())
+                .expiresAt(Instant.now().plusSeconds(60)).build()));
+
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(request("Test"), retry, filterChain);
+
+        verify(filterChain, times(1)).doFilter(any(), any());
+        assertEquals(201, retry.getStatus());
+        assertEquals("{\"id\":1}", retry.getContentAsString());
+    }
+
+    @Test
+    public void testUploadWithoutDigest_IsNotIdempotent() throws Exception {
+        filter.doFilter(upload("first", null), new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void testUploadWithDifferentDigest_IsRejected() throws Exception {
+        when(repository.findByIdAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.empty());
+        when(repository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        when(repository.complete(anyString(), any(), anyInt(), any(), any(), any())).thenReturn(1);
+        doAnswer(invocation -> {
+            invocation.<HttpServletResponse>getArgument(1).setStatus(200);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        filter.doFilter(upload("first", "sha-256=:Zmlyc3Q=:"), new MockHttpServletResponse(), filterChain);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(upload("other", "sha-256=:b3RoZXI=:"), response, filterChain);
+
+        assertEquals(422, response.getStatus());
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+
+    private IdempotencyFilter filter(DataSize hotTierCapacity) {
+        IdempotencyService idempotencyService = new IdempotencyService(repository, new ObjectMapper(), Duration.ofHours(1),
+                Duration.ofMinutes(1), hotTierCapacity, DataSize.ofKilobytes(1));
+        return new IdempotencyFilter(idempotencyService, List.of("/task", "/team"), DataSize.ofKilobytes(64));
+    }
+
+    private static MockHttpServletRequest request(String title) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/task");
+        request.addHeader(IdempotencyFilter.HEADER_NAME, "retry-1");
+        request.setParameter("title", title);
+        return request;
+    }
+
+    private static MockHttpServletRequest upload(String content, String digest) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/task/1/attachments");
+        request.addHeader(IdempotencyFilter.HEADER_NAME, "upload-1");
+        if (digest != null) request.addHeader(IdempotencyFilter.CONTENT_DIGEST_HEADER_NAME, digest);
+        request.setParameter("fileName", "notes.txt");
+        request.setContentType("text/plain");
+        request.setContent(content.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.Service.JwtKeyRing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtKeyRingTests {
+
+    @TempDir
+    Path keysDir;
+
+    @Test
+    public void testNewestPrivateKeySignsAndAllKeysArePublished() throws Exception {
+        writeKey("2024-01", generate(), true);
+        writeKey("2024-02", generate(), true);
+        writeKey("2024-03", generate(), false);
+
+        JwtKeyRing.State state = new JwtKeyRing(keysDir.toString(), false).current();
+
+        assertEquals("2024-02", state.activeKid());
+        assertEquals(3, state.publicKeys().size());
+        assertEquals(3, ((List<?>) state.jwks().get("keys")).size());
+    }
+
+    @Test
+    public void testReloadPicksUpRotatedKey() throws Exception {
+        writeKey("2024-01", generate(), true);
+        JwtKeyRing keyRing = new JwtKeyRing(keysDir.toString(), false);
+
+        writeKey("2024-02", generate(), true);
+        keyRing.reload();
+
+        assertEquals("2024-02", keyRing.current().activeKid());
+        assertTrue(keyRing.current().publicKeys().containsKey("2024-01"));
+    }
+
+    @Test
+    public void testJwkContainsUnpaddedModulus() throws Exception {
+        writeKey("2024-01", generate(), true);
+
+        Map<?, ?> jwk = (Map<?, ?>) ((List<?>) new JwtKeyRing(keysDir.toString(), false).current().jwks().get("keys")).get(0);
+
+        assertEquals("RS256", jwk.get("alg"));
+        assertEquals("2024-01", jwk.get("kid"));
+        assertEquals(256, Base64.getUrlDecoder().decode((String) jwk.get("n")).length);
+    }
+
+    @Test
+    public void testMissingKeysDirRequiresEphemeralOptIn() {
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing("", false));
+        assertTrue(new JwtKeyRing("", true).current().activeKid().startsWith("ephemeral-"));
+    }
+
+    private static KeyPair generate() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private void writeKey(String kid, KeyPair pair, boolean withPrivate) throws Exception {
+        String type = withPrivate ? "PRIVATE KEY" : "PUBLIC KEY";
+        byte[] encoded = withPrivate ? pair.getPrivate().getEncoded() : pair.getPublic().getEncoded();
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(encoded)
+                + "\n-----END " + type + "-----\n";
+        Files.writeString(keysDir.resolve(kid + ".pem"), pem);
+    }
+}
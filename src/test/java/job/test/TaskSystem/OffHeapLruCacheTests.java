@@ -0,0 +1,56 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.Util.OffHeapLruCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapLruCacheTests {
+
+    @Test
+    public void testValueSpanningSeveralBlocksRoundTrips() {
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(1024, 64);
+        byte[] value = new byte[200];
+        Arrays.fill(value, (byte) 7);
+        value[199] = 42;
+
+        assertTrue(cache.put("page", value, Long.MAX_VALUE));
+
+        assertArrayEquals(value, cache.get("page", 0));
+        assertEquals(256, cache.usedBytes());
+    }
+
+    @Test
+    public void testLeastRecentlyReadEntryIsEvicted() {
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(256, 64);
+        cache.put("a", new byte[128], Long.MAX_VALUE);
+        cache.put("b", new byte[128], Long.MAX_VALUE);
+        cache.get("a", 0);
+
+        cache.put("c", new byte[64], Long.MAX_VALUE);
+
+        assertNotNull(cache.get("a", 0));
+        assertNull(cache.get("b", 0));
+        assertNotNull(cache.get("c", 0));
+    }
+
+    @Test
+    public void testExpiredEntryIsDropped() {
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(256, 64);
+        cache.put("a", new byte[10], 100);
+
+        assertNull(cache.get("a", 100));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.usedBytes());
+    }
+
+    @Test
+    public void testValueLargerThanCapacityIsRejected() {
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(128, 64);
+
+        assertFalse(cache.put("a", new byte[129], Long.MAX_VALUE));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,63 @@
+package job.test.TaskSystem;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import job.test.TaskSystem.Model.RevokedToken;
+import job.test.TaskSystem.Util.RevocationIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RevocationIndexTests {
+
+    @Test
+    public void testRevokedByJtiAndByUser() {
+        Instant now = Instant.now();
+        RevocationIndex index = new RevocationIndex(100, 0.01);
+        index.remember(new RevokedToken("jti-1", now, now.plus(Duration.ofHours(1))));
+        index.remember(new RevokedToken(RevocationIndex.userKey(7L), now, now.plus(Duration.ofHours(1))));
+
+        assertTrue(index.isRevoked(claims("jti-1", 1L, now)));
+        assertTrue(index.isRevoked(claims("jti-2", 7L, now.minusSeconds(60))));
+        assertFalse(index.isRevoked(claims("jti-3", 7L, now.plusSeconds(5))));
+        assertFalse(index.isRevoked(claims("jti-4", 8L, now)));
+    }
+
+    @Test
+    public void testUserRevocationComparesMilliseconds() {
+        Instant revokedAt = Instant.parse("2024-05-01T10:00:00.500Z");
+        RevocationIndex index = new RevocationIndex(100, 0.01);
+        index.remember(new RevokedToken(RevocationIndex.userKey(7L), revokedAt, revokedAt.plus(Duration.ofHours(1))));
+
+        Claims before = claims("jti-1", 7L, revokedAt.minusMillis(1));
+        before.put(RevocationIndex.ISSUED_AT_MILLIS_CLAIM, revokedAt.minusMillis(1).toEpochMilli());
+        Claims sameSecondAfter = claims("jti-2", 7L, revokedAt.plusMillis(1));
+        sameSecondAfter.put(RevocationIndex.ISSUED_AT_MILLIS_CLAIM, revokedAt.plusMillis(1).toEpochMilli());
+
+        assertTrue(index.isRevoked(before));
+        assertFalse(index.isRevoked(sameSecondAfter));
+        assertTrue(index.isRevoked(claims("jti-3", 7L, revokedAt.plusMillis(1))));
+    }
+
+    @Test
+    public void testRemoveExpired() {
+        Instant now = Instant.now();
+        RevocationIndex index = new RevocationIndex(100, 0.01);
+        index.remember(new RevokedToken("jti-1", now.minusSeconds(120), now.minusSeconds(60)));
+
+        assertEquals(1, index.removeExpired(now));
+        assertFalse(index.isRevoked(claims("jti-1", 1L, now)));
+    }
+
+    private static Claims claims(String jti, Long userId, Instant issuedAt) {
+        Claims claims = Jwts.claims();
+        claims.setId(jti);
+        claims.setIssuedAt(Date.from(issuedAt));
+        claims.put("id", userId);
+        return claims;
+    }
+}
@@ -0,0 +1,145 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.Controller.ExceptionController;
+import job.test.TaskSystem.Controller.TaskAttachmentController;
+import job.test.TaskSystem.DAO.TaskAttachmentRepository;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Model.TaskAttachment;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.AttachmentStore;
+import job.test.TaskSystem.Service.JwtService;
+import job.test.TaskSystem.Service.TaskAttachmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Проверяет скачивание вложений с заголовком {@code Range}: один диапазон, диапазон с конца файла,
+ * недостижимый диапазон, несколько диапазонов и скачивание пользователем, который не участвует в задаче.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TaskAttachmentControllerTests {
+    private static final String CONTENT = "0123456789";
+    private static final String SHA256 = "a".repeat(64);
+
+    @Mock
+    private TaskAttachmentRepository attachmentRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private AttachmentStore attachmentStore;
+
+    @Mock
+    private JwtService jwtService;
+
+    @TempDir
+    Path dir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        TaskAttachmentService attachmentService = new TaskAttachmentService(attachmentRepository, taskRepository, attachmentStore);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskAttachmentController(attachmentService, jwtService))
+                .setControllerAdvice(new ExceptionController())
+                .build();
+
+        when(jwtService.extractUser("token")).thenReturn(UserDTO.builder().id(1L).email("me@example.com").build());
+    }
+
+    @Test
+    public void testDownload_SingleRange() throws Exception {
+        attachment();
+
+        MockHttpServletResponse response = download("bytes=2-5");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    public void testDownload_SuffixRange() throws Exception {
+        attachment();
+
+        MockHttpServletResponse response = download("bytes=-3");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 7-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    public void testDownload_UnsatisfiableRange() throws Exception {
+        attachment();
+
+        MockHttpServletResponse response = download("bytes=20-30");
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testDownload_MultipleRangesFallBackToWholeFile() throws Exception {
+        attachment();
+
+        MockHttpServletResponse response = download("bytes=0-1,4-5");
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    public void testDownload_NonParticipantIsNotFound() throws Exception {
+        when(taskRepository.isParticipant(1L, "me@example.com")).thenReturn(false);
+
+        MockHttpServletResponse response = download("bytes=0-1");
+
+        assertEquals(404, response.getStatus());
+        verifyNoInteractions(attachmentRepository, attachmentStore);
+    }
+
+    private void attachment() throws Exception {
+        Path path = Files.writeString(dir.resolve(SHA256), CONTENT, StandardCharsets.UTF_8);
+        when(taskRepository.isParticipant(1L, "me@example.com")).thenReturn(true);
+        when(attachmentRepository.findByIdAndTaskId(2L, 1L)).thenReturn(Optional.of(TaskAttachment.builder()
+                .id(2L)
+                .taskId(1L)
+                .sha256(SHA256)
+                .fileName("digits.txt")
+                .contentType("text/plain")
+                .size(CONTENT.length())
+                .uploaderId(1L)
+                .createdAt(Instant.now())
+                .build()));
+        when(attachmentStore.path(SHA256)).thenReturn(path);
+    }
+
+    private MockHttpServletResponse download(String range) throws Exception {
+        MockHttpServletRequestBuilder request = get("/task/{id}/attachments/{attachmentID}", 1L, 2L)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .header(HttpHeaders.RANGE, range);
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+}
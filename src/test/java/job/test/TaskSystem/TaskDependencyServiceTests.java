@@ -0,0 +1,101 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.DAO.TaskDependencyRepository;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Model.*;
+import job.test.TaskSystem.Service.TaskDependencyService;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskDependencyServiceTests {
+
+    @Mock
+    private TaskDependencyRepository dependencyRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private TaskDependencyService dependencyService;
+
+    private UserDTO userDTO;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        userDTO = UserDTO.builder()
+                .nickName("testUser")
+                .email("test@example.com")
+                .build();
+        user = User.builder()
+                .id(1L)
+                .nickname("testUser")
+                .email("test@example.com")
+                .role("User")
+                .build();
+    }
+
+    private Task task(Long id) {
+        return Task.builder()
+                .id(id)
+                .author(user)
+                .workers(new ArrayList<>())
+                .title("Task " + id)
+                .status(TaskStatus.Received)
+                .priority(TaskPriority.Low)
+                .comment("")
+                .build();
+    }
+
+    @Test
+    public void testAddDependency_Cycle() {
+        when(taskRepository.findByIdAndAuthorEmail(1L, "test@example.com")).thenReturn(Optional.of(task(1L)));
+        when(taskRepository.findByIdAndAuthorEmail(2L, "test@example.com")).thenReturn(Optional.of(task(2L)));
+        when(dependencyRepository.existsByBlockerIdAndBlockedId(1L, 2L)).thenReturn(false);
+        when(dependencyRepository.isReachable(2L, 1L)).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class, () -> {
+            dependencyService.addDependency(userDTO, 1L, 2L);
+        });
+        verify(dependencyRepository, never()).save(any(TaskDependency.class));
+    }
+
+    @Test
+    public void testAddDependency_SelfLoop() {
+        assertThrows(InvalidRequestException.class, () -> {
+            dependencyService.addDependency(userDTO, 1L, 1L);
+        });
+    }
+
+    @Test
+    public void testGetCriticalPath() {
+        // 1 -> 2 -> 4 -> 5 и короткая ветка 1 -> 3 -> 5
+        List<Object[]> edges = List.of(
+                new Object[]{1L, 2L},
+                new Object[]{1L, 3L},
+                new Object[]{2L, 4L},
+                new Object[]{3L, 5L},
+                new Object[]{4L, 5L}
+        );
+        when(dependencyRepository.findOpenEdgesByAuthorEmail("test@example.com", TaskStatus.Complete)).thenReturn(edges);
+        when(taskRepository.findAllById(any())).thenReturn(List.of(task(1L), task(2L), task(4L), task(5L)));
+
+        List<TaskDTO> result = dependencyService.getCriticalPath(userDTO);
+
+        assertEquals(List.of(1L, 2L, 4L, 5L), result.stream().map(TaskDTO::getId).toList());
+    }
+}
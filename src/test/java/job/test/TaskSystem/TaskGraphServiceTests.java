@@ -0,0 +1,88 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.DAO.UserRepository;
+import job.test.TaskSystem.Model.*;
+import job.test.TaskSystem.Service.TaskGraphService;
+import job.test.TaskSystem.Service.TaskStatusWriteBehind;
+import job.test.TaskSystem.Service.TeamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskGraphServiceTests {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TeamService teamService;
+
+    private TaskGraphService taskGraphService;
+
+    private UserDTO caller;
+
+    @BeforeEach
+    public void setUp() {
+        TaskStatusWriteBehind statusWriteBehind = new TaskStatusWriteBehind(null, null, false, "", 1000);
+        taskGraphService = new TaskGraphService(taskRepository, userRepository, teamService, statusWriteBehind);
+        caller = UserDTO.builder().id(1L).email("me@example.com").build();
+    }
+
+    @Test
+    public void testFindTasks_OtherUserWithoutSharedTeams() {
+        when(teamService.teamIds(1L)).thenReturn(List.of());
+
+        Page<TaskNode> result = taskGraphService.findTasks(caller,
+                new TaskQuery("other@example.com", null, null, null, null), PageRequest.of(0, 20));
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testLoadWorkers_OneQueryForAllTasks() {
+        User first = User.builder().id(10L).email("first@example.com").build();
+        User second = User.builder().id(11L).email("second@example.com").build();
+        List<TaskNode> tasks = List.of(node(1L, 1L), node(2L, 1L), node(3L, 1L));
+        when(taskRepository.findWorkersByTaskIds(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                new Object[]{1L, first},
+                new Object[]{3L, first},
+                new Object[]{3L, second}));
+
+        List<List<User>> workers = taskGraphService.loadWorkers(tasks);
+
+        assertEquals(List.of(List.of(first), List.of(), List.of(first, second)), workers);
+        verify(taskRepository, times(1)).findWorkersByTaskIds(anyCollection());
+    }
+
+    @Test
+    public void testLoadAuthors_KeepsTaskOrder() {
+        User me = User.builder().id(1L).email("me@example.com").build();
+        User other = User.builder().id(2L).email("other@example.com").build();
+        when(userRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(other, me));
+
+        List<User> authors = taskGraphService.loadAuthors(List.of(node(1L, 1L), node(2L, 2L), node(3L, 1L)));
+
+        assertEquals(List.of(me, other, me), authors);
+    }
+
+    private static TaskNode node(Long id, Long authorId) {
+        return new TaskNode(id, authorId, "Task " + id, TaskStatus.Received, TaskPriority.Low, null, null, null);
+    }
+}
@@ -0,0 +1,181 @@
+package job.test.TaskSystem;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.persistence.EntityExistsException;
+import job.test.TaskSystem.Configuration.JwtServerInterceptor;
+import job.test.TaskSystem.Controller.GrpcExceptionAdvice;
+import job.test.TaskSystem.Controller.TaskGrpcService;
+import job.test.TaskSystem.Grpc.*;
+import job.test.TaskSystem.Model.TaskCursorPage;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskPriority;
+import job.test.TaskSystem.Model.TaskQuery;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.JwtService;
+import job.test.TaskSystem.Service.TaskService;
+import job.test.TaskSystem.Service.TokenRevocationService;
+import job.test.TaskSystem.Util.InvalidRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskGrpcServiceTests {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private UserDTO caller;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(
+                        new TaskGrpcService(taskService, 2, 100),
+                        new JwtServerInterceptor(jwtService, tokenRevocationService)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        caller = UserDTO.builder().id(1L).email("test@example.com").build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    public void testListAuthorTasks_StreamsAllPages() {
+        authorize();
+        TaskQuery query = new TaskQuery("test@example.com", null, null, null, null);
+        when(taskService.getTasksAfter(any(UserDTO.class), eq(query), isNull(), eq(2)))
+                .thenReturn(new TaskCursorPage(List.of(task(1L, "First"), task(2L, "Second")), 2L));
+        when(taskService.getTasksAfter(any(UserDTO.class), eq(query), eq(2L), eq(2)))
+                .thenReturn(new TaskCursorPage(List.of(task(3L, "Third")), null));
+
+        Iterator<Task> tasks = authorizedStub().listAuthorTasks(ListTasksRequest.getDefaultInstance());
+        List<Long> ids = new ArrayList<>();
+        tasks.forEachRemaining(task -> ids.add(task.getId()));
+
+        assertEquals(List.of(1L, 2L, 3L), ids);
+    }
+
+    @Test
+    public void testCreateTasks_ReportsFailuresPerRequest() throws Exception {
+        authorize();
+        when(taskService.addTask(any(UserDTO.class), eq("First"), eq(""), eq(TaskPriority.High)))
+                .thenReturn(task(1L, "First"));
+        when(taskService.addTask(any(UserDTO.class), eq("Duplicate"), eq(""), eq(TaskPriority.High)))
+                .thenThrow(new EntityExistsException("Task with this title already exists"));
+
+        CompletableFuture<CreateTasksResponse> response = new CompletableFuture<>();
+        StreamObserver<CreateTaskRequest> requests = TaskApiGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(bearer()))
+                .createTasks(new StreamObserver<>() {
+                    @Override
+                    public void onNext(CreateTasksResponse value) {
+                        response.complete(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        response.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                });
+        requests.onNext(CreateTaskRequest.newBuilder().setTitle("First").setPriority(Priority.HIGH).build());
+        requests.onNext(CreateTaskRequest.newBuilder().setTitle("Duplicate").setPriority(Priority.HIGH).build());
+        requests.onNext(CreateTaskRequest.newBuilder().setTitle("").setPriority(Priority.HIGH).build());
+        requests.onCompleted();
+
+        CreateTasksResponse result = response.get(5, TimeUnit.SECONDS);
+        assertEquals(1, result.getCreatedCount());
+        assertEquals(List.of(1, 2), result.getFailuresList().stream().map(CreateTaskFailure::getIndex).toList());
+        assertEquals("Task with this title already exists", result.getFailures(0).getReason());
+    }
+
+    @Test
+    public void testEditTask_RejectsInvalidTitle() {
+        TaskGrpcService service = new TaskGrpcService(taskService, 2, 100);
+        @SuppressWarnings("unchecked")
+        StreamObserver<Task> responseObserver = mock(StreamObserver.class);
+
+        for (String title : List.of("", "x".repeat(256))) {
+            InvalidRequestException exception = assertThrows(InvalidRequestException.class, () -> {
+                service.editTask(EditTaskRequest.newBuilder().setId(1L).setTitle(title).build(), responseObserver);
+            });
+            assertEquals(io.grpc.Status.Code.INVALID_ARGUMENT, GrpcExceptionAdvice.toStatus(exception).getCode());
+        }
+        verifyNoInteractions(taskService, responseObserver);
+    }
+
+    @Test
+    public void testCall_WithoutToken() {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> {
+            TaskApiGrpc.newBlockingStub(channel).createTask(CreateTaskRequest.newBuilder().setTitle("Task").build());
+        });
+
+        assertEquals(io.grpc.Status.Code.UNAUTHENTICATED, exception.getStatus().getCode());
+        verifyNoInteractions(taskService);
+    }
+
+    private void authorize() {
+        Claims claims = Jwts.claims();
+        claims.put("email", caller.getEmail());
+        when(jwtService.extractAllClaims("token")).thenReturn(claims);
+        when(jwtService.isTokenOfType(claims, JwtService.ACCESS_TOKEN_TYPE)).thenReturn(true);
+        when(tokenRevocationService.isRevoked(claims)).thenReturn(false);
+        when(jwtService.toUser(claims)).thenReturn(caller);
+    }
+
+    private TaskApiGrpc.TaskApiBlockingStub authorizedStub() {
+        return TaskApiGrpc.newBlockingStub(channel).withInterceptors(MetadataUtils.newAttachHeadersInterceptor(bearer()));
+    }
+
+    private static Metadata bearer() {
+        Metadata metadata = new Metadata();
+        metadata.put(Metadata.Key.of("Authorization", Metadata.ASCII_STRING_MARSHALLER), "Bearer token");
+        return metadata;
+    }
+
+    private TaskDTO task(Long id, String title) {
+        return new TaskDTO(id, caller, List.of(), title, "Received", "High", "", null, null);
+    }
+}
@@ -0,0 +1,132 @@
+package job.test.TaskSystem;
+
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.TaskHistoryRepository;
+import job.test.TaskSystem.Model.*;
+import job.test.TaskSystem.Service.TaskHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskHistoryServiceTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    private TaskHistoryService taskHistoryService;
+    private UserDTO user;
+
+    @BeforeEach
+    public void setUp() {
+        taskHistoryService = new TaskHistoryService(jdbcTemplate, taskHistoryRepository, 2, 100, 3);
+        user = UserDTO.builder().id(7L).email("test@example.com").build();
+    }
+
+    @Test
+    public void testRecordIsWrittenOffRequestThreadInOneBatch() {
+        taskHistoryService.record(1L, user, TaskHistoryField.Title, "Old", "New");
+        taskHistoryService.record(1L, user, TaskHistoryField.Comment, null, "Comment");
+        verifyNoInteractions(jdbcTemplate);
+
+        taskHistoryService.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), eq(2), any());
+    }
+
+    @Test
+    public void testFullQueueFallsBackToCallerThread() {
+        taskHistoryService.record(1L, user, TaskHistoryField.Title, "A", "B");
+        taskHistoryService.record(1L, user, TaskHistoryField.Title, "B", "C");
+
+        taskHistoryService.record(1L, user, TaskHistoryField.Title, "C", "D");
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), eq(1), any());
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedBeforeNewEntries() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(new int[0][]);
+        taskHistoryService.record(1L, user, TaskHistoryField.Title, "Old", "New");
+        taskHistoryService.flush();
+        assertEquals(1, taskHistoryService.failedCount());
+
+        taskHistoryService.record(1L, user, TaskHistoryField.Comment, null, "Comment");
+        taskHistoryService.flush();
+
+        assertEquals(0, taskHistoryService.failedCount());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), eq(1), any());
+    }
+
+    @Test
+    public void testFailedBatchIsDroppedAfterMaxAttempts() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        taskHistoryService.record(1L, user, TaskHistoryField.Title, "Old", "New");
+
+        for (int i = 0; i < 3; i++) {
+            taskHistoryService.flush();
+        }
+
+        assertEquals(0, taskHistoryService.failedCount());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), eq(1), any());
+    }
+
+    @Test
+    public void testUnchangedValueIsNotRecorded() {
+        taskHistoryService.record(1L, user, TaskHistoryField.Comment, "Same", "Same");
+        taskHistoryService.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void testHistoryPageReturnsCursorOfLastEntry() {
+        when(taskHistoryRepository.isParticipant(1L, "test@example.com")).thenReturn(true);
+        when(taskHistoryRepository.findByTaskIdAndIdLessThanOrderByIdDesc(1L, Long.MAX_VALUE, Limit.of(2)))
+                .thenReturn(List.of(entry(10L), entry(8L)));
+
+        TaskHistoryPage page = taskHistoryService.getHistory(user, 1L, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(8L, page.nextCursor());
+    }
+
+    @Test
+    public void testHistoryOfForeignTaskIsNotFound() {
+        when(taskHistoryRepository.isParticipant(1L, "test@example.com")).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> {
+            taskHistoryService.getHistory(user, 1L, null, 50);
+        });
+    }
+
+    private static TaskHistory entry(Long id) {
+        return TaskHistory.builder()
+                .id(id)
+                .taskId(1L)
+                .actorId(7L)
+                .field(TaskHistoryField.Status)
+                .oldValue("Received")
+                .newValue("Complete")
+                .changedAt(Instant.now())
+                .build();
+    }
+}
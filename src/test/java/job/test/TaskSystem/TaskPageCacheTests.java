@@ -0,0 +1,111 @@
+package job.test.TaskSystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.CacheInvalidationBus;
+import job.test.TaskSystem.Service.TaskHistoryService;
+import job.test.TaskSystem.Service.TaskPageCache;
+import job.test.TaskSystem.Service.TaskQueueService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskPageCacheTests {
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<Page<TaskDTO>> loader = () -> {
+        loads.incrementAndGet();
+        return new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
+    };
+
+    @Test
+    public void testInvalidate_HidesCachedPage() {
+        TaskPageCache cache = cache(Duration.ofMinutes(1));
+
+        cache.get("a@example.com", "author", PageRequest.of(0, 10), loader);
+        cache.get("a@example.com", "author", PageRequest.of(0, 10), loader);
+        cache.invalidate(List.of("a@example.com"));
+        cache.get("a@example.com", "author", PageRequest.of(0, 10), loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidate_PrunesGenerationsOlderThanTtl() throws InterruptedException {
+        TaskPageCache cache = cache(Duration.ofMillis(50));
+        cache.invalidate(List.of("a@example.com", "b@example.com"));
+        assertEquals(2, cache.generationCount());
+
+        Thread.sleep(120);
+        cache.invalidate(List.of("c@example.com"));
+
+        assertEquals(1, cache.generationCount());
+    }
+
+    @Test
+    public void testInvalidateAll_DropsGenerations() {
+        TaskPageCache cache = cache(Duration.ofMinutes(1));
+        cache.invalidate(List.of("a@example.com"));
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.generationCount());
+    }
+
+    @Test
+    public void testInvalidateAll_PublishesAndAppliesResetFromOtherNodes() {
+        TaskPageCache cache = cache(Duration.ofMinutes(1));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<Set<String>>> handler = ArgumentCaptor.forClass(Consumer.class);
+        ReflectionTestUtils.invokeMethod(cache, "subscribeInvalidations");
+        verify(cacheInvalidationBus).subscribe(eq(CacheInvalidationBus.TASK_PAGES), handler.capture(), any());
+
+        cache.invalidateAll();
+        verify(cacheInvalidationBus).publish(CacheInvalidationBus.TASK_PAGES, List.of("*"));
+
+        cache.get("a@example.com", "author", PageRequest.of(0, 10), loader);
+        handler.getValue().accept(Set.of("*"));
+        cache.get("a@example.com", "author", PageRequest.of(0, 10), loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testQueueRelease_PublishesParticipantPages() {
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        TaskQueueService taskQueueService = new TaskQueueService(taskRepository, cache(Duration.ofMinutes(1)),
+                mock(TaskHistoryService.class));
+        UserDTO worker = UserDTO.builder().id(2L).email("worker@example.com").build();
+        when(taskRepository.finishClaim(eq(1L), eq(2L), eq(TaskStatus.In_progress.ordinal()),
+                eq(TaskStatus.Received.ordinal()), any(Instant.class))).thenReturn(1);
+        when(taskRepository.findParticipantEmails(1L)).thenReturn(List.of("author@example.com", "worker@example.com"));
+
+        taskQueueService.release(worker, 1L);
+
+        verify(cacheInvalidationBus).publish(CacheInvalidationBus.TASK_PAGES,
+                List.of("author@example.com", "worker@example.com"));
+    }
+
+    private TaskPageCache cache(Duration ttl) {
+        return new TaskPageCache(new ObjectMapper(), true, DataSize.ofKilobytes(64), DataSize.ofKilobytes(4), ttl,
+                cacheInvalidationBus);
+    }
+}
@@ -0,0 +1,191 @@
+package job.test.TaskSystem;
+
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.DAO.UserRepository;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskPriority;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.User;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.TaskHistoryService;
+import job.test.TaskSystem.Service.TaskQueueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет очередь задач на Postgres: порядок захвата, возврат задач с истёкшей арендой,
+ * завершение и возврат захваченных задач и то, что {@code FOR UPDATE SKIP LOCKED} не отдаёт одну задачу
+ * двум параллельным захватам.
+ */
+@Testcontainers
+@SpringBootTest(properties = {
+        "grpc.server.port=0",
+        "task.reminder.enabled=false",
+        "task.archive.cron=-",
+        "task.claim.requeue-interval-millis=3600000",
+        "token.revocation.sync-interval-millis=3600000",
+        "idempotency.purge-interval-millis=3600000"
+})
+public class TaskQueueServiceTests {
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TaskQueueService taskQueueService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskHistoryService taskHistoryService;
+
+    private User author;
+    private UserDTO worker;
+
+    @BeforeEach
+    public void setUp() {
+        author = user("author");
+        worker = user("worker").toDTO();
+    }
+
+    @Test
+    public void testClaim_HighestPriorityThenOldest() {
+        long low = task(TaskPriority.Low);
+        long firstHigh = task(TaskPriority.High);
+        long medium = task(TaskPriority.Medium);
+        long secondHigh = task(TaskPriority.High);
+
+        List<TaskDTO> claimed = taskQueueService.claim(worker, 3, LEASE);
+
+        assertEquals(List.of(firstHigh, secondHigh, medium), claimed.stream().map(TaskDTO::getId).toList());
+        assertTrue(claimed.stream().allMatch(task -> task.getStatus().equals(TaskStatus.In_progress.name())));
+        assertEquals(List.of(low), taskQueueService.claim(worker, 3, LEASE).stream().map(TaskDTO::getId).toList());
+        assertTrue(taskQueueService.claim(worker, 3, LEASE).isEmpty());
+    }
+
+    @Test
+    public void testRequeueExpired_ReturnsTaskToQueue() throws InterruptedException {
+        long taskID = task(TaskPriority.Low);
+        assertEquals(1, taskQueueService.claim(worker, 1, Duration.ofMillis(1)).size());
+        Thread.sleep(20);
+
+        taskQueueService.requeueExpired();
+
+        assertEquals(TaskStatus.Received, taskRepository.findById(taskID).orElseThrow().getStatus());
+        taskHistoryService.flush();
+        assertEquals(List.of(worker.getId() + ":Received->In_progress", "null:In_progress->Received"), jdbcTemplate.queryForList(
+                "SELECT actor_id || '' AS actor, old_value, new_value FROM task_history WHERE task_id = ? ORDER BY id",
+                taskID).stream().map(row -> row.get("actor") + ":" + row.get("old_value") + "->" + row.get("new_value")).toList());
+        assertThrows(EntityNotFoundException.class, () -> taskQueueService.renew(worker, taskID, LEASE));
+        assertEquals(List.of(taskID), taskQueueService.claim(worker, 1, LEASE).stream().map(TaskDTO::getId).toList());
+    }
+
+    @Test
+    public void testCompleteAndRelease_ClearClaim() {
+        long completed = task(TaskPriority.High);
+        long released = task(TaskPriority.Low);
+        assertEquals(2, taskQueueService.claim(worker, 2, LEASE).size());
+        UserDTO other = user("other").toDTO();
+
+        assertThrows(EntityNotFoundException.class, () -> taskQueueService.complete(other, completed));
+        taskQueueService.complete(worker, completed);
+        taskQueueService.release(worker, released);
+
+        assertEquals(TaskStatus.Complete, taskRepository.findById(completed).orElseThrow().getStatus());
+        assertEquals(TaskStatus.Received, taskRepository.findById(released).orElseThrow().getStatus());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tasks WHERE id IN (?, ?) AND (claimed_by_id IS NOT NULL OR claim_lease_until IS NOT NULL)",
+                Integer.class, completed, released));
+        assertThrows(EntityNotFoundException.class, () -> taskQueueService.complete(worker, completed));
+        assertEquals(List.of(released), taskQueueService.claim(worker, 2, LEASE).stream().map(TaskDTO::getId).toList());
+    }
+
+    @Test
+    public void testClaim_ConcurrentClaimersNeverShareTask() throws Exception {
+        Set<Long> created = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            created.add(task(TaskPriority.values()[i % TaskPriority.values().length]));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<List<Long>> claimer = () -> {
+            start.await();
+            List<Long> ids = new ArrayList<>();
+            List<TaskDTO> batch;
+            do {
+                batch = taskQueueService.claim(worker, 3, LEASE);
+                batch.forEach(task -> ids.add(task.getId()));
+            } while (!batch.isEmpty());
+            return ids;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Long>> first = executor.submit(claimer);
+            Future<List<Long>> second = executor.submit(claimer);
+            start.countDown();
+
+            List<Long> all = new ArrayList<>(first.get());
+            all.addAll(second.get());
+            assertEquals(created.size(), all.size(), "A task was claimed twice");
+            assertEquals(created, new HashSet<>(all));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User user(String name) {
+        int n = SEQUENCE.incrementAndGet();
+        return userRepository.save(User.builder()
+                .nickname(name + n)
+                .email(name + n + "@example.com")
+                .password("password")
+                .role("User")
+                .build());
+    }
+
+    private long task(TaskPriority priority) {
+        long taskID = taskRepository.insertIfAbsent(author.getId(), "Task " + SEQUENCE.incrementAndGet(),
+                TaskStatus.Received.ordinal(), priority.ordinal(), "").orElseThrow();
+        jdbcTemplate.update("INSERT INTO tasks_workers (task_id, workers_id) VALUES (?, ?)", taskID, worker.getId());
+        return taskID;
+    }
+}
@@ -0,0 +1,99 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.DAO.UserRepository;
+import job.test.TaskSystem.Model.TaskPriority;
+import job.test.TaskSystem.Model.TaskReminderEvent;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.User;
+import job.test.TaskSystem.Service.TaskReminderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет напоминания на Postgres: срок в базе хранится с микросекундами, а колесо таймеров работает
+ * с миллисекундами, поэтому сравнение срока должно совпадать и для сроков с дробной частью миллисекунды.
+ */
+@Testcontainers
+@SpringBootTest(properties = {
+        "grpc.server.port=0",
+        "task.reminder.enabled=false",
+        "task.reminder.load-interval-millis=3600000",
+        "task.archive.cron=-",
+        "task.claim.requeue-interval-millis=3600000",
+        "token.revocation.sync-interval-millis=3600000",
+        "idempotency.purge-interval-millis=3600000"
+})
+@RecordApplicationEvents
+public class TaskReminderServiceTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TaskReminderService taskReminderService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    public void testLoad_MarksOverdueTaskWithMicrosecondDueAt() {
+        User author = userRepository.save(User.builder()
+                .nickname("reminder")
+                .email("reminder@example.com")
+                .password("password")
+                .role("User")
+                .build());
+        Long taskID = taskRepository.insertIfAbsent(author.getId(), "Overdue", TaskStatus.Received.ordinal(),
+                TaskPriority.Low.ordinal(), "").orElseThrow();
+        Instant dueAt = Instant.now().minus(1, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MILLIS).plusNanos(456_000);
+        jdbcTemplate.update("UPDATE tasks SET due_at = ? WHERE id = ?", Timestamp.from(dueAt), taskID);
+
+        ReflectionTestUtils.setField(taskReminderService, "enabled", true);
+        try {
+            taskReminderService.load();
+        } finally {
+            ReflectionTestUtils.setField(taskReminderService, "enabled", false);
+        }
+
+        List<TaskReminderEvent.Type> fired = events.stream(TaskReminderEvent.class)
+                .filter(event -> event.taskId().equals(taskID))
+                .map(TaskReminderEvent::type)
+                .toList();
+        assertEquals(List.of(TaskReminderEvent.Type.Upcoming, TaskReminderEvent.Type.Overdue), fired);
+        assertNotNull(jdbcTemplate.queryForObject("SELECT reminded_at FROM tasks WHERE id = ?", Timestamp.class, taskID));
+    }
+}
@@ -1,24 +1,43 @@
 package job.test.TaskSystem;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.ArchivedTaskRepository;
 import job.test.TaskSystem.DAO.TaskRepository;
 import job.test.TaskSystem.Model.*;
+import job.test.TaskSystem.Service.TaskHistoryService;
+import job.test.TaskSystem.Service.TaskPageCache;
 import job.test.TaskSystem.Service.TaskService;
+import job.test.TaskSystem.Service.TaskStatusWriteBehind;
+import job.test.TaskSystem.Service.TaskTagIndex;
+import job.test.TaskSystem.Service.TeamService;
 import job.test.TaskSystem.Service.UserService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.unit.DataSize;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,9 +49,28 @@ public class TaskServiceTests {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
     @Mock
     private UserService userService;
 
+    @Spy
+    private TaskPageCache taskPageCache = new TaskPageCache(
+            new ObjectMapper(), false, DataSize.ofMegabytes(1), DataSize.ofKilobytes(4), Duration.ofSeconds(30), null);
+
+    @Spy
+    private TaskStatusWriteBehind statusWriteBehind = new TaskStatusWriteBehind(null, taskPageCache, false, "", 1000);
+
+    @Mock
+    private TaskHistoryService taskHistoryService;
+
+    @Mock
+    private TeamService teamService;
+
+    @Mock
+    private TaskTagIndex taskTagIndex;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -43,6 +81,7 @@ public class TaskServiceTests {
     @BeforeEach
     public void setUp() {
         userDTO = UserDTO.builder()
+                .id(1L)
                 .nickName("testUser")
                 .email("test@example.com")
                 .build();
@@ -76,6 +115,49 @@ public class TaskServiceTests {
         assertEquals("Test Task", result.getContent().get(0).getTitle());
     }
 
+    @Test
+    public void testQueryTasks_RequiresAuthorOrWorker() {
+        TaskQuery query = new TaskQuery(null, null, Set.of(TaskStatus.Received), null, "Test");
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            taskService.queryTasks(userDTO, query, Pageable.unpaged());
+        });
+    }
+
+    @Test
+    public void testGetAllUserTasks_OtherUserWithoutSharedTeams() {
+        when(teamService.teamIds(1L)).thenReturn(List.of());
+
+        Page<TaskDTO> result = taskService.getAllUserTasks(userDTO, "other@example.com", Pageable.unpaged());
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetAllUserTasks_OtherUserInSharedTeam() {
+        task.setTeamId(7L);
+        when(teamService.teamIds(1L)).thenReturn(List.of(7L));
+        when(taskRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(task)));
+
+        Page<TaskDTO> result = taskService.getAllUserTasks(userDTO, "other@example.com", Pageable.unpaged());
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(7L, result.getContent().get(0).getTeamId());
+        verify(taskRepository, never()).findAllByAuthorEmail(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void testChangeTeam_NotMember() {
+        when(teamService.isMember(1L, 7L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> {
+            taskService.changeTeam(1L, 7L, userDTO);
+        });
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
     @Test
     public void testChangeStatus() {
         when(taskRepository.findByIdAndAuthorEmail(anyLong(), anyString())).thenReturn(Optional.of(task));
@@ -85,6 +167,8 @@ public class TaskServiceTests {
 
         assertNotNull(result);
         assertEquals(TaskStatus.In_progress, TaskStatus.valueOf(result.getStatus()));
+        verify(taskPageCache).invalidate(List.of("test@example.com"));
+        verify(taskHistoryService).record(1L, userDTO, TaskHistoryField.Status, TaskStatus.Received, TaskStatus.In_progress);
     }
 
     @Test
@@ -97,41 +181,122 @@ public class TaskServiceTests {
     }
 
     @Test
-    public void testAddTask_Success() {
-        when(userService.getUserByEmail(anyString())).thenReturn(user);
-        when(taskRepository.existsByTitleAndAuthorEmail(anyString(), anyString())).thenReturn(false);
+    public void testChangeDueDate_TruncatesToMillis() {
+        when(taskRepository.findByIdAndAuthorEmail(anyLong(), anyString())).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        TaskDTO result = taskService.changeDueDate(1L, Instant.parse("2030-01-01T10:00:00.123456Z"), userDTO);
+
+        assertEquals(Instant.parse("2030-01-01T10:00:00.123Z"), result.getDueAt());
+    }
+
+    @Test
+    public void testRemoveWorker_InvalidatesRemovedWorkerAfterSave() {
+        User worker = User.builder().id(2L).nickname("worker").email("worker@example.com").password("password").role("User").build();
+        task.addWorker(worker);
+        when(taskRepository.findByIdAndAuthorEmail(anyLong(), anyString())).thenReturn(Optional.of(task));
+        when(userService.getUserByEmail("worker@example.com")).thenReturn(worker);
         when(taskRepository.save(any(Task.class))).thenReturn(task);
 
+        taskService.removeWorker(1L, "worker@example.com", userDTO);
+
+        InOrder order = inOrder(taskRepository, taskPageCache);
+        order.verify(taskRepository).save(task);
+        order.verify(taskPageCache).invalidate(List.of("worker@example.com"));
+        verify(taskHistoryService).record(1L, userDTO, TaskHistoryField.Workers, "worker@example.com", null);
+    }
+
+    @Test
+    public void testEditTask_DuplicateTitleConflicts() {
+        when(taskRepository.findByIdAndAuthorEmail(anyLong(), anyString())).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenThrow(violation("uq_tasks_author_title"));
+
+        assertThrows(EntityExistsException.class, () -> taskService.editTask(userDTO, 1L, "Other Task", "Comment"));
+        verify(taskHistoryService, never()).record(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testEditTask_OtherViolationIsRethrown() {
+        when(taskRepository.findByIdAndAuthorEmail(anyLong(), anyString())).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenThrow(violation("tasks_comment_check"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> taskService.editTask(userDTO, 1L, "Other Task", "Comment"));
+        verify(taskHistoryService, never()).record(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testAddTask_Success() {
+        when(taskRepository.insertIfAbsent(1L, "Test Task", TaskStatus.Received.ordinal(), TaskPriority.High.ordinal(), "Test Comment"))
+                .thenReturn(Optional.of(5L));
+
         TaskDTO result = taskService.addTask(userDTO, "Test Task", "Test Comment", TaskPriority.High);
 
-        assertNotNull(result);
+        assertEquals(5L, result.getId());
         assertEquals("Test Task", result.getTitle());
+        assertEquals("test@example.com", result.getAuthor().getEmail());
+        verify(userService, never()).getUserByEmail(anyString());
+        verify(taskPageCache).invalidate(List.of("test@example.com"));
+        verify(taskHistoryService).record(5L, userDTO, TaskHistoryField.Created, null, "Test Task");
     }
 
     @Test
     public void testAddTask_TaskAlreadyExists() {
-        when(taskRepository.existsByTitleAndAuthorEmail(anyString(), anyString())).thenReturn(true);
+        when(taskRepository.insertIfAbsent(anyLong(), anyString(), anyInt(), anyInt(), anyString())).thenReturn(Optional.empty());
 
         assertThrows(EntityExistsException.class, () -> {
             taskService.addTask(userDTO, "New Task", "New Comment", TaskPriority.High);
         });
+        verify(taskHistoryService, never()).record(anyLong(), any(), any(), any(), any());
     }
 
     @Test
     public void testDeleteTask() {
-        when(taskRepository.findByIdAndAuthorEmail(anyLong(), anyString())).thenReturn(Optional.of(task));
+        when(taskRepository.softDeleteByIdAndAuthorEmail(anyLong(), anyString(), any(Instant.class))).thenReturn(1);
 
         taskService.deleteTask(userDTO, 1L);
 
-        verify(taskRepository, times(1)).delete(task);
+        verify(taskRepository, times(1)).softDeleteByIdAndAuthorEmail(eq(1L), eq("test@example.com"), any(Instant.class));
+        verify(taskRepository, never()).delete(any(Task.class));
     }
 
     @Test
     public void testDeleteTask_TaskNotFound() {
-        when(taskRepository.findByIdAndAuthorEmail(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(taskRepository.softDeleteByIdAndAuthorEmail(anyLong(), anyString(), any(Instant.class))).thenReturn(0);
 
         assertThrows(EntityNotFoundException.class, () -> {
             taskService.deleteTask(userDTO, 1L);
         });
     }
+
+    @Test
+    public void testGetTasksByTags_NewestFirst() {
+        Roaring64NavigableMap ids = Roaring64NavigableMap.bitmapOf(1L, 3L, 8L);
+        when(taskTagIndex.query(1L, Set.of("bug"), Set.of("wontfix"))).thenReturn(ids);
+        Task newest = Task.builder().id(8L).author(user).workers(new ArrayList<>()).title("Newest")
+                .status(TaskStatus.Received).priority(TaskPriority.Low).build();
+        Task middle = Task.builder().id(3L).author(user).workers(new ArrayList<>()).title("Middle")
+                .status(TaskStatus.Received).priority(TaskPriority.Low).build();
+        when(taskRepository.findAllById(List.of(8L, 3L))).thenReturn(List.of(middle, newest));
+
+        Page<TaskDTO> result = taskService.getTasksByTags(userDTO, Set.of(" Bug"), Set.of("WONTFIX"), PageRequest.of(0, 2));
+
+        assertEquals(3, result.getTotalElements());
+        assertEquals(List.of(8L, 3L), result.getContent().stream().map(TaskDTO::getId).toList());
+    }
+
+    @Test
+    public void testAddTag_TaskNotFound() {
+        when(taskRepository.addTag(1L, 1L, "bug")).thenReturn(0);
+        when(taskRepository.existsByIdAndAuthorId(1L, 1L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> {
+            taskService.addTag(userDTO, 1L, "Bug");
+        });
+        verify(taskTagIndex, never()).add(anyLong(), anyLong(), anyString());
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("constraint violated", new SQLException(), constraint));
+    }
 }
@@ -0,0 +1,145 @@
+package job.test.TaskSystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import job.test.TaskSystem.Model.TaskDTO;
+import job.test.TaskSystem.Model.TaskStatus;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.TaskPageCache;
+import job.test.TaskSystem.Service.TaskStatusWriteBehind;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskStatusWriteBehindTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path dir;
+
+    private final TaskPageCache taskPageCache = new TaskPageCache(
+            new ObjectMapper(), false, DataSize.ofMegabytes(1), DataSize.ofKilobytes(4), Duration.ofSeconds(30), null);
+
+    @Test
+    public void testToggleLoadsTaskOnceAndFlushesLastStatus() throws Exception {
+        TaskStatusWriteBehind writeBehind = open(dir.resolve("status.wal"));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (TaskStatus status : List.of(TaskStatus.In_progress, TaskStatus.Received, TaskStatus.Complete)) {
+            TaskDTO current = writeBehind.pendingSnapshot(1L, "author@example.com").orElseGet(() -> {
+                loads.incrementAndGet();
+                return task(1L);
+            });
+            writeBehind.submit(current, status);
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals("Complete", writeBehind.overlay(task(1L)).getStatus());
+        verifyNoInteractions(jdbcTemplate);
+
+        writeBehind.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Object>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), eq(1), any());
+        assertEquals(1, batch.getValue().size());
+        assertEquals("Received", writeBehind.overlay(task(1L)).getStatus());
+        assertEquals(0, Files.size(dir.resolve("status.wal")));
+    }
+
+    @Test
+    public void testEditedTaskRefreshesSnapshotAndDeletedTaskForgetsIt() throws Exception {
+        TaskStatusWriteBehind writeBehind = open(dir.resolve("status.wal"));
+        writeBehind.submit(task(1L), TaskStatus.Complete);
+        writeBehind.submit(task(2L), TaskStatus.Complete);
+
+        UserDTO author = UserDTO.builder().email("author@example.com").build();
+        writeBehind.refreshSnapshot(new TaskDTO(1L, author, List.of(), "Renamed", "Received", "High", null, null, null));
+        writeBehind.forgetSnapshot(2L);
+
+        TaskDTO renamed = writeBehind.pendingSnapshot(1L, "author@example.com").orElseThrow();
+        assertEquals("Renamed", renamed.getTitle());
+        assertEquals("Complete", renamed.getStatus());
+        assertTrue(writeBehind.pendingSnapshot(2L, "author@example.com").isEmpty());
+        assertEquals("Complete", writeBehind.overlay(task(2L)).getStatus());
+    }
+
+    @Test
+    public void testPendingChangesAreReplayedOnStartup() throws Exception {
+        Path wal = dir.resolve("status.wal");
+        Files.writeString(wal, "1,1\n2,0\n1,0\n");
+
+        open(wal);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Object>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), eq(2), any());
+        assertEquals(2, batch.getValue().size());
+        assertEquals(0, Files.size(wal));
+    }
+
+    @Test
+    public void testCompactionKeepsAppendingToNewLog() throws Exception {
+        Path wal = dir.resolve("status.wal");
+        TaskStatusWriteBehind writeBehind = open(wal);
+        writeBehind.submit(task(1L), TaskStatus.Complete);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            writeBehind.submit(task(2L), TaskStatus.In_progress);
+            return new int[0][];
+        });
+
+        writeBehind.flush();
+        writeBehind.submit(task(3L), TaskStatus.Received);
+
+        assertEquals("2,1\n3,2\n", Files.readString(wal));
+        assertFalse(Files.exists(dir.resolve("status.wal.tmp")));
+    }
+
+    @Test
+    public void testOverlayTasksDropsTasksThatLeftStatusFilter() throws Exception {
+        TaskStatusWriteBehind writeBehind = open(dir.resolve("status.wal"));
+        writeBehind.submit(task(1L), TaskStatus.Complete);
+        Page<TaskDTO> received = new PageImpl<>(List.of(task(1L), task(2L)), PageRequest.of(0, 10), 2);
+
+        Page<TaskDTO> page = writeBehind.overlayTasks(received, Set.of(TaskStatus.Received));
+
+        assertEquals(List.of(2L), page.getContent().stream().map(TaskDTO::getId).toList());
+        assertEquals(1, page.getTotalElements());
+        assertEquals(List.of("Complete", "Received"), writeBehind.overlayTasks(received, Set.of()).getContent().stream()
+                .map(TaskDTO::getStatus).toList());
+    }
+
+    private TaskStatusWriteBehind open(Path wal) throws Exception {
+        TaskStatusWriteBehind writeBehind = new TaskStatusWriteBehind(jdbcTemplate, taskPageCache, true, wal.toString(), 1000);
+        ReflectionTestUtils.invokeMethod(writeBehind, "recover");
+        return writeBehind;
+    }
+
+    private static TaskDTO task(Long id) {
+        UserDTO author = UserDTO.builder().email("author@example.com").build();
+        return new TaskDTO(id, author, List.of(), "Task", "Received", "High", null, null, null);
+    }
+}
@@ -0,0 +1,101 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.DAO.TaskRepository;
+import job.test.TaskSystem.Service.CacheInvalidationBus;
+import job.test.TaskSystem.Service.TaskTagIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskTagIndexTests {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private TaskTagIndex taskTagIndex;
+
+    @BeforeEach
+    public void setUp() {
+        taskTagIndex = new TaskTagIndex(taskRepository, Duration.ofMinutes(10), cacheInvalidationBus);
+    }
+
+    @Test
+    public void testQuery_IncludeAndExclude() {
+        when(taskRepository.findTagsByAuthorId(1L)).thenReturn(List.of(
+                new Object[]{1L, "bug"}, new Object[]{1L, "backend"},
+                new Object[]{2L, "bug"}, new Object[]{2L, "backend"}, new Object[]{2L, "wontfix"},
+                new Object[]{3L, "bug"}));
+
+        assertEquals(Roaring64NavigableMap.bitmapOf(1L, 2L, 3L), taskTagIndex.query(1L, Set.of("bug"), Set.of()));
+        assertEquals(Roaring64NavigableMap.bitmapOf(1L), taskTagIndex.query(1L, Set.of("bug", "backend"), Set.of("wontfix")));
+        assertTrue(taskTagIndex.query(1L, Set.of("bug", "frontend"), Set.of()).isEmpty());
+        verify(taskRepository, times(1)).findTagsByAuthorId(1L);
+    }
+
+    @Test
+    public void testAddAndRemove_UpdateBuiltIndex() {
+        when(taskRepository.findTagsByAuthorId(1L)).thenReturn(List.<Object[]>of(new Object[]{1L, "bug"}));
+        Roaring64NavigableMap before = taskTagIndex.query(1L, Set.of("bug"), Set.of());
+
+        taskTagIndex.add(1L, 5L, "bug");
+        taskTagIndex.remove(1L, 1L, "bug");
+
+        assertEquals(Roaring64NavigableMap.bitmapOf(5L), taskTagIndex.query(1L, Set.of("bug"), Set.of()));
+        assertEquals(Roaring64NavigableMap.bitmapOf(1L), before);
+        verify(taskRepository, times(1)).findTagsByAuthorId(1L);
+        verify(cacheInvalidationBus, times(2)).publish(CacheInvalidationBus.TASK_TAGS, List.of("1"));
+    }
+
+    @Test
+    public void testRemoveTask_DropsEmptyTags() {
+        when(taskRepository.findTagsByAuthorId(1L)).thenReturn(List.of(
+                new Object[]{1L, "bug"}, new Object[]{1L, "urgent"}, new Object[]{2L, "bug"}));
+        taskTagIndex.query(1L, Set.of("bug"), Set.of());
+
+        taskTagIndex.removeTask(1L, 1L);
+
+        assertEquals(Roaring64NavigableMap.bitmapOf(2L), taskTagIndex.query(1L, Set.of("bug"), Set.of()));
+        assertTrue(taskTagIndex.query(1L, Set.of("urgent"), Set.of()).isEmpty());
+    }
+
+    @Test
+    public void testChangeDuringLoad_IsNotCached() {
+        when(taskRepository.findTagsByAuthorId(1L))
+                .thenAnswer(invocation -> {
+                    // Метку ставят, пока индекс загружается: загруженные строки её ещё не содержат
+                    taskTagIndex.add(1L, 2L, "bug");
+                    return List.<Object[]>of(new Object[]{1L, "bug"});
+                })
+                .thenReturn(List.of(new Object[]{1L, "bug"}, new Object[]{2L, "bug"}));
+
+        assertEquals(Roaring64NavigableMap.bitmapOf(1L), taskTagIndex.query(1L, Set.of("bug"), Set.of()));
+        assertEquals(Roaring64NavigableMap.bitmapOf(1L, 2L), taskTagIndex.query(1L, Set.of("bug"), Set.of()));
+        verify(taskRepository, times(2)).findTagsByAuthorId(1L);
+    }
+
+    @Test
+    public void testInvalidateAll_RebuildsAndPublishes() {
+        when(taskRepository.findTagsByAuthorId(1L)).thenReturn(List.<Object[]>of(new Object[]{1L, "bug"}));
+        taskTagIndex.query(1L, Set.of("bug"), Set.of());
+
+        taskTagIndex.invalidateAll();
+        taskTagIndex.query(1L, Set.of("bug"), Set.of());
+
+        verify(taskRepository, times(2)).findTagsByAuthorId(1L);
+        verify(cacheInvalidationBus).publish(CacheInvalidationBus.TASK_TAGS, List.of("*"));
+    }
+}
@@ -0,0 +1,80 @@
+package job.test.TaskSystem;
+
+import jakarta.persistence.EntityExistsException;
+import job.test.TaskSystem.DAO.TeamRepository;
+import job.test.TaskSystem.Model.Team;
+import job.test.TaskSystem.Model.User;
+import job.test.TaskSystem.Model.UserDTO;
+import job.test.TaskSystem.Service.CacheInvalidationBus;
+import job.test.TaskSystem.Service.TeamService;
+import job.test.TaskSystem.Service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TeamServiceTests {
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private TeamService teamService;
+
+    @BeforeEach
+    public void setUp() {
+        teamService = new TeamService(teamRepository, userService, Duration.ofMinutes(1), cacheInvalidationBus);
+    }
+
+    @Test
+    public void testIsMember_LoadsTeamsOnce() {
+        when(teamRepository.findTeamIdsByUserId(1L)).thenReturn(List.of(3L, 7L));
+
+        assertTrue(teamService.isMember(1L, 7L));
+        assertFalse(teamService.isMember(1L, 5L));
+        assertEquals(List.of(3L, 7L), teamService.teamIds(1L));
+        verify(teamRepository, times(1)).findTeamIdsByUserId(1L);
+    }
+
+    @Test
+    public void testAddMember_EvictsCachedTeams() {
+        UserDTO owner = UserDTO.builder().id(1L).email("owner@example.com").build();
+        User member = User.builder().id(2L).email("member@example.com").build();
+        when(teamRepository.findTeamIdsByUserId(2L)).thenReturn(List.of(), List.of(7L));
+        when(teamRepository.findByIdAndOwnerEmail(7L, "owner@example.com")).thenReturn(Optional.of(new Team()));
+        when(userService.getUserByEmail("member@example.com")).thenReturn(member);
+        when(teamRepository.addMember(7L, 2L)).thenReturn(1);
+
+        assertFalse(teamService.isMember(2L, 7L));
+        teamService.addMember(owner, 7L, "member@example.com");
+
+        assertTrue(teamService.isMember(2L, 7L));
+        verify(cacheInvalidationBus).publish(CacheInvalidationBus.TEAM_MEMBERSHIPS, List.of("2"));
+    }
+
+    @Test
+    public void testAddMember_AlreadyInTeam() {
+        UserDTO owner = UserDTO.builder().id(1L).email("owner@example.com").build();
+        when(teamRepository.findByIdAndOwnerEmail(7L, "owner@example.com")).thenReturn(Optional.of(new Team()));
+        when(userService.getUserByEmail("member@example.com")).thenReturn(User.builder().id(2L).build());
+        when(teamRepository.addMember(7L, 2L)).thenReturn(0);
+
+        assertThrows(EntityExistsException.class, () -> {
+            teamService.addMember(owner, 7L, "member@example.com");
+        });
+    }
+}
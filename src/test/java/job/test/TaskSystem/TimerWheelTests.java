@@ -0,0 +1,44 @@
+package job.test.TaskSystem;
+
+import job.test.TaskSystem.Util.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimerWheelTests {
+
+    @Test
+    public void testPastDeadlineIsRejected() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 1000);
+
+        assertFalse(wheel.schedule(999, "late"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testFiresOnlyAfterDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        wheel.schedule(35, "a");
+
+        assertTrue(wheel.advance(30).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(40));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCascadesFromUpperLevels() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 0);
+        wheel.schedule(75, "level0");
+        wheel.schedule(500, "level1");
+        wheel.schedule(5_000, "level2");
+
+        assertEquals(List.of("level0"), wheel.advance(80));
+        assertTrue(wheel.advance(500).isEmpty());
+        assertEquals(List.of("level1"), wheel.advance(510));
+        assertTrue(wheel.advance(5_000).isEmpty());
+        assertEquals(List.of("level2"), wheel.advance(5_010));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,44 @@
+package job.test.TaskSystem;
+
+import jakarta.persistence.EntityNotFoundException;
+import job.test.TaskSystem.DAO.UserRepository;
+import job.test.TaskSystem.Model.User;
+import job.test.TaskSystem.Service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTests {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    public void testGetUserByEmail_UsesNaturalIdLookup() {
+        User user = User.builder().id(1L).email("test@example.com").build();
+        when(userRepository.findByNaturalEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        assertSame(user, userService.getUserByEmail("test@example.com"));
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    public void testGetUserByEmail_NotFound() {
+        when(userRepository.findByNaturalEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> {
+            userService.getUserByEmail("missing@example.com");
+        });
+    }
+}